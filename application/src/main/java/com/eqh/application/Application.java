@@ -1,15 +1,29 @@
 package com.eqh.application;
 
+import com.eqh.application.utility.CodeTables;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
 public class Application {
 
+	private static final Logger logger = LoggerFactory.getLogger(Application.class);
+
 	public static void main(String[] args) {
 		SpringApplication.run(Application.class, args);
 	}
 
-}
+	// Load the code tables while starting up instead of in the first report request
+	@PostConstruct
+	void loadCodeTables() {
+		logger.info("Loaded code tables {}", CodeTables.all());
+	}
+
+}
\ No newline at end of file
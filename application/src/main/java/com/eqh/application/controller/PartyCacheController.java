@@ -0,0 +1,46 @@
+package com.eqh.application.controller;
+
+import com.eqh.application.service.PartyProfileCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache/party")
+public class PartyCacheController {
+
+    private final PartyProfileCache partyProfileCache;
+
+    @Autowired
+    public PartyCacheController(PartyProfileCache partyProfileCache) {
+        this.partyProfileCache = partyProfileCache;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        CacheStats stats = partyProfileCache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", partyProfileCache.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadSuccessCount", stats.loadSuccessCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("totalLoadTimeMillis", stats.totalLoadTime() / 1_000_000);
+        return result;
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        partyProfileCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
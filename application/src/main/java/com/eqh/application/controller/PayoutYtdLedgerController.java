@@ -0,0 +1,28 @@
+package com.eqh.application.controller;
+
+import com.eqh.application.service.PayoutYtdLedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ytd-ledger")
+public class PayoutYtdLedgerController {
+
+    private final PayoutYtdLedgerService payoutYtdLedgerService;
+
+    @Autowired
+    public PayoutYtdLedgerController(PayoutYtdLedgerService payoutYtdLedgerService) {
+        this.payoutYtdLedgerService = payoutYtdLedgerService;
+    }
+
+    @PostMapping("/refresh")
+    public Map<String, Object> refresh(@RequestParam(name = "rebuild", defaultValue = "false") boolean rebuild) {
+        int rows = rebuild ? payoutYtdLedgerService.rebuild() : payoutYtdLedgerService.refresh();
+        return Map.of("rebuild", rebuild, "rowsUpdated", rows);
+    }
+}
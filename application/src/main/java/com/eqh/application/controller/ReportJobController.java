@@ -0,0 +1,74 @@
+package com.eqh.application.controller;
+
+import com.eqh.application.dto.ReportJobStatus;
+import com.eqh.application.dto.ReportType;
+import com.eqh.application.service.ReportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Background report generation: start a job, poll its status, download the finished file.
+ */
+@RestController
+@RequestMapping("/api/report-jobs")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @Autowired
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    /**
+     * Starts a report, or joins the job already generating the same report.
+     *
+     * @param reportType the report to generate, e.g. DEATH_CLAIM.
+     * @return 202 with the job status and its location.
+     */
+    @PostMapping
+    public ResponseEntity<ReportJobStatus> submit(@RequestParam("type") ReportType reportType) {
+        ReportJobStatus status = reportJobService.submit(reportType);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQuery(null)
+                .path("/{jobId}")
+                .buildAndExpand(status.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @GetMapping("/{jobId}")
+    public ReportJobStatus getStatus(@PathVariable("jobId") String jobId) {
+        return reportJobService.getStatus(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown report job: " + jobId));
+    }
+
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> download(@PathVariable("jobId") String jobId) {
+        ReportJobStatus status = getStatus(jobId);
+        Path file = reportJobService.getOutputFile(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Report job " + jobId + " is " + status.getState()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", status.getFileName());
+        return new ResponseEntity<>(new FileSystemResource(file), headers, HttpStatus.OK);
+    }
+}
@@ -1,8 +1,10 @@
 package com.eqh.application.controller;
 
+import com.eqh.application.dto.ReportFormat;
 import com.eqh.application.service.PeriodicPayoutTransactionHistoryDateRangeService;
 import com.eqh.application.service.OverduePaymentTransactionHistoryService;
 import com.eqh.application.service.PeriodicPayoutTransactionHistoryService;
+import com.eqh.application.service.ReportProgress;
 import com.eqh.application.service.TransactionHistoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,12 +14,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -27,10 +34,11 @@ public class TransactionHistoryController {
     private static final String TIMESTAMP_FORMAT = "MM-dd-yyyy_HHmmss";
     private static final String FILENAME_PREFIX = "transaction_history_death_claim_report_";
     private static final String PERIODIC_PAYOUT_FILENAME_PREFIX = "transaction_history_periodic_payout_report_";
-    private static final String FILE_EXTENSION = ".xlsx";
     private static final String JSON_FILENAME_PREFIX = "transaction_history_data_";
     private static final String JSON_FILE_EXTENSION = ".json";
     private static final String OVERDUE_PAYMENT_FILENAME_PREFIX = "transaction_history_overdue_payment_report_";
+    private static final String GZIP_ENCODING = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
 
 
 
@@ -49,98 +57,56 @@ public class TransactionHistoryController {
     }
 
     @GetMapping("deathclaim/generate-report")
-    public ResponseEntity<byte[]> generateReport() {
-        try {
-            byte[] reportBytes = transactionHistoryService.generateReportAsBytes();
-
-            String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
-            String filename = FILENAME_PREFIX + timestamp + FILE_EXTENSION;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            logger.error("Error generating report", e);
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public ResponseEntity<StreamingResponseBody> generateReport(
+            @RequestParam(name = "format", defaultValue = "xlsx") String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReportFormat reportFormat = parseFormat(format);
+        return streamReport(FILENAME_PREFIX, reportFormat, acceptEncoding,
+                out -> transactionHistoryService.writeReport(out, reportFormat, ReportProgress.NONE));
     }
 
     @GetMapping("overduepayment/generate-report")
-    public ResponseEntity<byte[]> overdueGenerateReport() {
-        try {
-            byte[] reportBytes = overduePaymentTransactionHistoryService.generateReportAsBytes();
-
-            String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
-            String filename = OVERDUE_PAYMENT_FILENAME_PREFIX + timestamp + FILE_EXTENSION;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            logger.error("Error generating report", e);
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public ResponseEntity<StreamingResponseBody> overdueGenerateReport(
+            @RequestParam(name = "format", defaultValue = "xlsx") String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReportFormat reportFormat = parseFormat(format);
+        return streamReport(OVERDUE_PAYMENT_FILENAME_PREFIX, reportFormat, acceptEncoding,
+                out -> overduePaymentTransactionHistoryService.writeReport(out, reportFormat, ReportProgress.NONE));
     }
 
     @GetMapping("periodicpayout/generate-report")
-    public ResponseEntity<byte[]> periodicPayoutgenerateReport() {
-        try {
-            byte[] reportBytes = periodicPayoutTransactionHistoryService.generateReportAsBytes();
-
-            String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
-            String filename = PERIODIC_PAYOUT_FILENAME_PREFIX + timestamp + FILE_EXTENSION;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            logger.error("Error generating report", e);
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public ResponseEntity<StreamingResponseBody> periodicPayoutgenerateReport(
+            @RequestParam(name = "format", defaultValue = "xlsx") String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReportFormat reportFormat = parseFormat(format);
+        return streamReport(PERIODIC_PAYOUT_FILENAME_PREFIX, reportFormat, acceptEncoding,
+                out -> periodicPayoutTransactionHistoryService.writeReport(out, reportFormat, ReportProgress.NONE));
     }
 
     @GetMapping("periodicpayout/dateRange/generate-report")
-    public ResponseEntity<byte[]> periodicPayoutgenerateDateRangeReport() {
-        try {
-            byte[] reportBytes = periodicPayoutTransactionHistoryDateRangeService.generateReportAsBytes();
-
-            String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
-            String filename = PERIODIC_PAYOUT_FILENAME_PREFIX + timestamp + FILE_EXTENSION;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
+    public ResponseEntity<StreamingResponseBody> periodicPayoutgenerateDateRangeReport(
+            @RequestParam(name = "format", defaultValue = "xlsx") String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReportFormat reportFormat = parseFormat(format);
+        return streamReport(PERIODIC_PAYOUT_FILENAME_PREFIX, reportFormat, acceptEncoding,
+                out -> periodicPayoutTransactionHistoryDateRangeService.writeReport(out, reportFormat, ReportProgress.NONE));
+    }
 
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            logger.error("Error generating report", e);
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    @GetMapping("periodicpayout/dateRange/incremental/generate-report")
+    public ResponseEntity<StreamingResponseBody> periodicPayoutgenerateIncrementalDateRangeReport(
+            @RequestParam(name = "rebuild", defaultValue = "false") boolean rebuild,
+            @RequestParam(name = "format", defaultValue = "xlsx") String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReportFormat reportFormat = parseFormat(format);
+        return streamReport(PERIODIC_PAYOUT_FILENAME_PREFIX, reportFormat, acceptEncoding,
+                out -> periodicPayoutTransactionHistoryDateRangeService.writeIncrementalReport(out, reportFormat,
+                        ReportProgress.NONE, rebuild));
     }
 
     @GetMapping("/download-json")
-    public ResponseEntity<byte[]> downloadJson() {
-        try {
-            byte[] jsonBytes = transactionHistoryService.getJsonDataAsBytes();
-
-            String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
-            String filename = JSON_FILENAME_PREFIX + timestamp + JSON_FILE_EXTENSION;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setContentDispositionFormData("attachment", filename);
-
-            return new ResponseEntity<>(jsonBytes, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            logger.error("Error downloading JSON data", e);
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public ResponseEntity<StreamingResponseBody> downloadJson() {
+        return streamReport(JSON_FILENAME_PREFIX, JSON_FILE_EXTENSION, MediaType.APPLICATION_JSON, new HttpHeaders(),
+                transactionHistoryService::writeJsonData);
     }
 
     /**
@@ -163,4 +129,87 @@ public class TransactionHistoryController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Streams a report straight into the HTTP response so the report is never
+     * buffered as a byte array. Generation runs on the MVC async executor.
+     * <p>
+     * CSV and NDJSON reports are gzip compressed on the fly when the client accepts it;
+     * an Excel workbook is already compressed and always sent as is.
+     *
+     * @param filenamePrefix prefix of the attachment file name.
+     * @param format the format of the report.
+     * @param acceptEncoding the Accept-Encoding header of the request, null if absent.
+     * @param report writes the report content to the response stream.
+     * @return a ResponseEntity whose body is written incrementally.
+     */
+    private ResponseEntity<StreamingResponseBody> streamReport(String filenamePrefix, ReportFormat format,
+                                                               String acceptEncoding, StreamingResponseBody report) {
+        HttpHeaders headers = new HttpHeaders();
+        boolean gzip = format.isCompressible() && acceptsGzip(acceptEncoding);
+        if (format.isCompressible()) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        }
+        StreamingResponseBody body = !gzip ? report : out -> {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            report.writeTo(gzipOut);
+            gzipOut.finish();
+        };
+        return streamReport(filenamePrefix, format.getFileExtension(), MediaType.parseMediaType(format.getContentType()),
+                headers, body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamReport(String filenamePrefix, String fileExtension,
+                                                               MediaType contentType, HttpHeaders headers,
+                                                               StreamingResponseBody report) {
+        String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
+        String filename = filenamePrefix + timestamp + fileExtension;
+
+        headers.setContentType(contentType);
+        headers.setContentDispositionFormData("attachment", filename);
+
+        StreamingResponseBody body = out -> {
+            try {
+                report.writeTo(out);
+            } catch (IOException e) {
+                logger.error("Error generating report", e);
+                throw e;
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private static ReportFormat parseFormat(String format) {
+        try {
+            return ReportFormat.fromName(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown report format: " + format);
+        }
+    }
+
+    /**
+     * @return whether the Accept-Encoding header lists gzip without excluding it with q=0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase(GZIP_ENCODING)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].replace(" ", "");
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    return !parameter.substring(2).matches("0(\\.0*)?");
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
@@ -0,0 +1,24 @@
+package com.eqh.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Party, person and addresses of one party number, as returned by the party service bulk lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartyProfile {
+
+    private String partyNumber;
+
+    private Party party;
+
+    private Person person;
+
+    private List<Address> addresses;
+}
@@ -0,0 +1,35 @@
+package com.eqh.application.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The fields of a PeriodicPayout message_image used by the periodic payout reports,
+ * parsed once per row.
+ * <p>
+ * Payee fields hold the last value found in the payeePayouts array.
+ */
+@Data
+@NoArgsConstructor
+public class PeriodicPayoutMessage {
+
+    private String polNumber = "";
+    private String transExeDate = "";
+    private String transRunDate = "";
+    private String suspendCode = "";
+
+    private String taxablePartyNumber = "";
+    private String taxableToGovtID = "";
+    private String taxablePartyName = "";
+    private String taxableToGovtIDStatus = "";
+    private String taxableToGovtIdTCode = "";
+    private String taxableToResidenceState = "";
+    private String payeeStatus = "";
+    private String taxableToResidenceCountry = "";
+
+    /** Every non-empty taxablePartyNumber of the payeePayouts array. */
+    private Set<String> taxablePartyNumbers = new LinkedHashSet<>();
+}
@@ -0,0 +1,28 @@
+package com.eqh.application.dto;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The lookups shared by every row of one periodic payout report run.
+ * <p>
+ * Built once after the lookups are loaded and only read while the rows are transformed,
+ * so rows of the same run can be processed concurrently.
+ */
+@Getter
+public class PeriodicPayoutReportContext {
+
+    private final Map<String, ProductInfo> productInfoMap;
+    private final Map<String, Map<String, String>> mailingAddressesMap;
+    private final YtdTotals ytdTotals;
+
+    public PeriodicPayoutReportContext(Map<String, ProductInfo> productInfoMap,
+                                       Map<String, Map<String, String>> mailingAddressesMap,
+                                       YtdTotals ytdTotals) {
+        this.productInfoMap = Collections.unmodifiableMap(productInfoMap);
+        this.mailingAddressesMap = Collections.unmodifiableMap(mailingAddressesMap);
+        this.ytdTotals = ytdTotals;
+    }
+}
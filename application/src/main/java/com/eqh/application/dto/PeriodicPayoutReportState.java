@@ -0,0 +1,32 @@
+package com.eqh.application.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the incremental periodic payout report keeps between runs: the trans_exe_date up to
+ * which TRANSACTION_HISTORY has been processed, and per policy the latest payout message and
+ * the YTD totals accumulated so far.
+ */
+@Data
+@NoArgsConstructor
+public class PeriodicPayoutReportState {
+
+    /** The configured start of the report range the state was built for. */
+    private LocalDateTime rangeStart;
+    /** Transactions executed up to and including this time have been processed. */
+    private LocalDateTime watermark;
+    /** Rows of the YTD sums inserted or updated up to this time have been processed. */
+    private LocalDateTime updatedWatermark;
+
+    /** Every policy with a PeriodicPayout transaction since {@link #rangeStart}. */
+    private Set<String> policyNumbers = new HashSet<>();
+    private Map<String, PeriodicPayoutMessage> latestPayouts = new HashMap<>();
+    private YtdTotals ytdTotals = new YtdTotals();
+}
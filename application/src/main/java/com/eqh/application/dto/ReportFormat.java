@@ -0,0 +1,47 @@
+package com.eqh.application.dto;
+
+import java.util.Locale;
+
+/**
+ * The file formats a report can be generated in.
+ */
+public enum ReportFormat {
+
+    XLSX(".xlsx", "application/octet-stream", false),
+    CSV(".csv", "text/csv;charset=UTF-8", true),
+    NDJSON(".ndjson", "application/x-ndjson", true);
+
+    private final String fileExtension;
+    private final String contentType;
+    private final boolean compressible;
+
+    ReportFormat(String fileExtension, String contentType, boolean compressible) {
+        this.fileExtension = fileExtension;
+        this.contentType = contentType;
+        this.compressible = compressible;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return whether the report is worth compressing; an .xlsx file is already a zip archive.
+     */
+    public boolean isCompressible() {
+        return compressible;
+    }
+
+    /**
+     * Looks a format up by its name, ignoring case, e.g. {@code csv}.
+     *
+     * @throws IllegalArgumentException if there is no such format.
+     */
+    public static ReportFormat fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,42 @@
+package com.eqh.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of a background report job, as returned by the report job endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobStatus {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String jobId;
+
+    private ReportType reportType;
+
+    private State state;
+
+    /** What the job is currently doing, e.g. loading lookups or writing rows. */
+    private String stage;
+
+    private long rowsProcessed;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    /** Name of the finished file, set once the job has completed. */
+    private String fileName;
+
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.eqh.application.dto;
+
+/**
+ * The Excel reports that can be generated as background jobs.
+ */
+public enum ReportType {
+
+    DEATH_CLAIM("transaction_history_death_claim_report_"),
+    OVERDUE_PAYMENT("transaction_history_overdue_payment_report_"),
+    PERIODIC_PAYOUT("transaction_history_periodic_payout_report_"),
+    PERIODIC_PAYOUT_DATE_RANGE("transaction_history_periodic_payout_report_"),
+    PERIODIC_PAYOUT_INCREMENTAL("transaction_history_periodic_payout_report_");
+
+    private final String filenamePrefix;
+
+    ReportType(String filenamePrefix) {
+        this.filenamePrefix = filenamePrefix;
+    }
+
+    public String getFilenamePrefix() {
+        return filenamePrefix;
+    }
+}
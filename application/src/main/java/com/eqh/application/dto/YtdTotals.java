@@ -0,0 +1,125 @@
+package com.eqh.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Year-to-date payout totals of a set of policies, loaded up front with a few grouped
+ * queries and looked up per report row.
+ * <p>
+ * Gross amounts are kept per policy; withholding fees and adjustments per policy and
+ * payee party, matching how the per-row sum queries used to be keyed. Totals of disjoint
+ * date ranges can be added up with {@link #merge(YtdTotals)}; the fields are serialized as
+ * they are so the incremental report can persist them.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+        getterVisibility = JsonAutoDetect.Visibility.NONE, isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+public class YtdTotals {
+
+    private final Map<String, Double> grossAmountByPolicy = new HashMap<>();
+    private final Set<String> policiesWithPayouts = new HashSet<>();
+    // polNumber -> payee party number -> {federal, state}
+    private final Map<String, Map<String, double[]>> feeAmtByPolicyPayee = new HashMap<>();
+    private final Map<String, Map<String, double[]>> adjustmentValueByPolicyPayee = new HashMap<>();
+
+    public void putGrossAmount(String polNumber, Double grossAmount) {
+        grossAmountByPolicy.put(polNumber, grossAmount);
+    }
+
+    public void addPolicyWithPayouts(String polNumber) {
+        policiesWithPayouts.add(polNumber);
+    }
+
+    public void putFeeAmounts(String polNumber, String payeePartyNumber, double federal, double state) {
+        put(feeAmtByPolicyPayee, polNumber, payeePartyNumber, new double[]{federal, state});
+    }
+
+    public void putAdjustmentValues(String polNumber, String payeePartyNumber, double federal, double state) {
+        put(adjustmentValueByPolicyPayee, polNumber, payeePartyNumber, new double[]{federal, state});
+    }
+
+    /**
+     * Adds the totals of another, disjoint date range to these totals.
+     *
+     * @param other the totals to add.
+     */
+    public void merge(YtdTotals other) {
+        other.grossAmountByPolicy.forEach((polNumber, grossAmount) ->
+                grossAmountByPolicy.merge(polNumber, grossAmount, YtdTotals::sum));
+        policiesWithPayouts.addAll(other.policiesWithPayouts);
+        mergeAmounts(feeAmtByPolicyPayee, other.feeAmtByPolicyPayee);
+        mergeAmounts(adjustmentValueByPolicyPayee, other.adjustmentValueByPolicyPayee);
+    }
+
+    /**
+     * Drops all totals of the given policies, so totals loaded again for them can be merged in.
+     *
+     * @param polNumbers the policies to drop.
+     */
+    public void removePolicies(Collection<String> polNumbers) {
+        grossAmountByPolicy.keySet().removeAll(polNumbers);
+        policiesWithPayouts.removeAll(polNumbers);
+        feeAmtByPolicyPayee.keySet().removeAll(polNumbers);
+        adjustmentValueByPolicyPayee.keySet().removeAll(polNumbers);
+    }
+
+    /**
+     * Builds the YTD amounts of one report row. Amounts without any matching payout
+     * history stay at zero; withholdings are only reported for policies that have payouts.
+     *
+     * @param polNumber the policy number of the row.
+     * @param payeePartyNumber the taxable party number of the row.
+     * @return a new ytdResponse for the row.
+     */
+    public ytdResponse toYtdResponse(String polNumber, String payeePartyNumber) {
+        ytdResponse ytd = new ytdResponse(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null);
+
+        Double grossAmount = grossAmountByPolicy.get(polNumber);
+        if (grossAmount != null && grossAmount > 0) {
+            ytd.setYtdDisbursePeriodicPayout(BigDecimal.valueOf(grossAmount));
+        }
+
+        if (policiesWithPayouts.contains(polNumber)) {
+            double[] fees = get(feeAmtByPolicyPayee, polNumber, payeePartyNumber);
+            double[] adjustments = get(adjustmentValueByPolicyPayee, polNumber, payeePartyNumber);
+            if (fees[0] > 0 || adjustments[0] > 0) {
+                ytd.setYtdDisburseFederalWithholdingAmt(BigDecimal.valueOf(fees[0] + adjustments[0]));
+            }
+            if (fees[1] > 0 || adjustments[1] > 0) {
+                ytd.setYtdDisburseStateWithholdingAmt(BigDecimal.valueOf(fees[1] + adjustments[1]));
+            }
+        }
+        return ytd;
+    }
+
+    private static void put(Map<String, Map<String, double[]>> amounts, String polNumber,
+                            String payeePartyNumber, double[] values) {
+        // Rows are always looked up with a non-null payee, so amounts without one can never match
+        if (payeePartyNumber != null) {
+            amounts.computeIfAbsent(polNumber, p -> new HashMap<>()).put(payeePartyNumber, values);
+        }
+    }
+
+    private static double[] get(Map<String, Map<String, double[]>> amounts, String polNumber, String payeePartyNumber) {
+        return amounts.getOrDefault(polNumber, Map.of()).getOrDefault(payeePartyNumber, new double[2]);
+    }
+
+    private static void mergeAmounts(Map<String, Map<String, double[]>> target, Map<String, Map<String, double[]>> source) {
+        source.forEach((polNumber, byPayee) -> byPayee.forEach((payeePartyNumber, values) ->
+                target.computeIfAbsent(polNumber, p -> new HashMap<>())
+                        .merge(payeePartyNumber, values.clone(), (a, b) -> new double[]{a[0] + b[0], a[1] + b[1]})));
+    }
+
+    private static Double sum(Double a, Double b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : a + b;
+    }
+}
@@ -0,0 +1,50 @@
+package com.eqh.application.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "payout_ytd_ledger", schema = "public")
+public class PayoutYtdLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tax_year", nullable = false)
+    private Integer taxYear;
+
+    @Column(name = "pol_number", nullable = false)
+    private String polNumber;
+
+    @Column(name = "payee_party_number", length = 15, nullable = false)
+    private String payeePartyNumber;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+
+    @Column(name = "federal_fee_amt", precision = 17, scale = 2, nullable = false)
+    private BigDecimal federalFeeAmt;
+
+    @Column(name = "state_fee_amt", precision = 17, scale = 2, nullable = false)
+    private BigDecimal stateFeeAmt;
+
+    @Column(name = "federal_adjustment_value", precision = 17, scale = 2, nullable = false)
+    private BigDecimal federalAdjustmentValue;
+
+    @Column(name = "state_adjustment_value", precision = 17, scale = 2, nullable = false)
+    private BigDecimal stateAdjustmentValue;
+
+    @Column(name = "update_timestamp", nullable = false)
+    private LocalDateTime updateTimestamp;
+}
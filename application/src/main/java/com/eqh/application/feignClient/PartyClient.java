@@ -2,10 +2,13 @@ package com.eqh.application.feignClient;
 
 import com.eqh.application.dto.Address;
 import com.eqh.application.dto.Party;
+import com.eqh.application.dto.PartyProfile;
 import com.eqh.application.dto.Person;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
@@ -21,6 +24,16 @@ public interface PartyClient {
 
     @GetMapping("/{partyNumber}/person")
     public Person getPersonDetails(@PathVariable("partyNumber") String partyNumber);
+
+    @GetMapping("/{partyNumber}/profile")
+    PartyProfile getPartyProfile(@PathVariable("partyNumber") String partyNumber);
+
+    /**
+     * Party, person and addresses of up to 1000 parties in one call. Party numbers
+     * without a party are left out of the response.
+     */
+    @PostMapping("/bulk")
+    List<PartyProfile> getPartyProfiles(@RequestBody List<String> partyNumbers);
 }
 
 
@@ -51,137 +51,48 @@ public interface PayoutPaymentHistoryAdjustmentRepository extends JpaRepository<
     List<Long> findAllPaymentHistoryIdsOfAdjustments();
 
     @Query(value = """
-                SELECT COALESCE(SUM(adjustment_value), 0)
-                FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" 
-                WHERE payout_payment_history_id IN (
-                    SELECT id 
-                    FROM "PAYOUT_PAYMENT_HISTORY" pph 
-                    WHERE payee_party_number = :payeePartyNumber 
-                      AND reversed = false 
-                      AND trans_exe_date >= :startDate
-                      AND trans_exe_date <= :endDate
-                      AND payout_payee_id IN (
-                          SELECT id 
-                          FROM "PAYOUT_PAYEE" pp 
-                          WHERE policy_payout_id IN (
-                              SELECT id 
-                              FROM "POLICY_PAYOUT" pp 
-                              WHERE policy_id IN (
-                                  SELECT id 
-                                  FROM "POLICY" 
-                                  WHERE pol_number = :policyNumber 
-                                  AND policy_status <> 'R'
-                              )
-                          ) 
-                          AND payee_party_number = :payeePartyNumber
-                      )
-                ) 
-                AND field_adjustment = '2'
+            SELECT p.pol_number, pph.payee_party_number,
+                   COALESCE(SUM(CASE WHEN x.field_adjustment = '2' THEN x.adjustment_value END), 0) AS federal_adjustment_value,
+                   COALESCE(SUM(CASE WHEN x.field_adjustment = '3' THEN x.adjustment_value END), 0) AS state_adjustment_value
+            FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" x
+            JOIN "PAYOUT_PAYMENT_HISTORY" pph ON pph.id = x.payout_payment_history_id
+            JOIN "PAYOUT_PAYEE" ppy ON ppy.id = pph.payout_payee_id
+                                   AND ppy.payee_party_number = pph.payee_party_number
+            JOIN "POLICY_PAYOUT" pp ON pp.id = ppy.policy_payout_id
+            JOIN "POLICY" p ON p.id = pp.policy_id
+            WHERE p.pol_number IN (:policyNumbers)
+              AND p.policy_status <> 'R'
+              AND pph.reversed = false
+              AND pph.trans_exe_date >= :startDate
+              AND pph.trans_exe_date <= :endDate
+              AND x.field_adjustment IN ('2', '3')
+            GROUP BY p.pol_number, pph.payee_party_number
             """, nativeQuery = true)
-    Double sumAdjustmentValueByFieldAdjustmentFederal(
-            @Param("payeePartyNumber") String payeePartyNumber,
-            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
-            @Param("policyNumber") String policyNumber
-    );
-
-    @Query(value = """
-        SELECT COALESCE(SUM(adjustment_value), 0)
-        FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" 
-        WHERE payout_payment_history_id IN (
-            SELECT id 
-            FROM "PAYOUT_PAYMENT_HISTORY" pph 
-            WHERE payee_party_number = :payeePartyNumber 
-              AND reversed = false 
-              AND trans_exe_date > :transExeDate 
-              AND payout_payee_id IN (
-                  SELECT id 
-                  FROM "PAYOUT_PAYEE" pp 
-                  WHERE policy_payout_id IN (
-                      SELECT id 
-                      FROM "POLICY_PAYOUT" pp 
-                      WHERE policy_id IN (
-                          SELECT id 
-                          FROM "POLICY" 
-                          WHERE pol_number = :policyNumber 
-                          AND policy_status <> 'R'
-                      )
-                  ) 
-                  AND payee_party_number = :payeePartyNumber
-              )
-        ) 
-        AND field_adjustment = '2'
-    """, nativeQuery = true)
-    Double sumAdjustmentValueByFieldAdjustmentFederal(
-            @Param("payeePartyNumber") String payeePartyNumber,
-            @Param("transExeDate") LocalDateTime transExeDate,
-            @Param("policyNumber") String policyNumber
+    List<Object[]> sumAdjustmentValueByPolicyAndPayee(
+            @Param("policyNumbers") List<String> policyNumbers,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate
     );
 
     @Query(value = """
-                SELECT COALESCE(SUM(adjustment_value), 0)
-                FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" 
-                WHERE payout_payment_history_id IN (
-                    SELECT id 
-                    FROM "PAYOUT_PAYMENT_HISTORY" pph 
-                    WHERE payee_party_number = :payeePartyNumber 
-                      AND reversed = false 
-                      AND trans_exe_date >= :startDate
-                      AND trans_exe_date <= :endDate
-                      AND payout_payee_id IN (
-                          SELECT id 
-                          FROM "PAYOUT_PAYEE" pp 
-                          WHERE policy_payout_id IN (
-                              SELECT id 
-                              FROM "POLICY_PAYOUT" pp 
-                              WHERE policy_id IN (
-                                  SELECT id 
-                                  FROM "POLICY" 
-                                  WHERE pol_number = :policyNumber 
-                                  AND policy_status <> 'R'
-                              )
-                          ) 
-                          AND payee_party_number = :payeePartyNumber
-                      )
-                ) 
-                AND field_adjustment = '3'
+            SELECT p.pol_number, pph.payee_party_number,
+                   COALESCE(SUM(CASE WHEN x.field_adjustment = '2' THEN x.adjustment_value END), 0) AS federal_adjustment_value,
+                   COALESCE(SUM(CASE WHEN x.field_adjustment = '3' THEN x.adjustment_value END), 0) AS state_adjustment_value
+            FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" x
+            JOIN "PAYOUT_PAYMENT_HISTORY" pph ON pph.id = x.payout_payment_history_id
+            JOIN "PAYOUT_PAYEE" ppy ON ppy.id = pph.payout_payee_id
+                                   AND ppy.payee_party_number = pph.payee_party_number
+            JOIN "POLICY_PAYOUT" pp ON pp.id = ppy.policy_payout_id
+            JOIN "POLICY" p ON p.id = pp.policy_id
+            WHERE p.pol_number IN (:policyNumbers)
+              AND p.policy_status <> 'R'
+              AND pph.reversed = false
+              AND pph.trans_exe_date > :transExeDate
+              AND x.field_adjustment IN ('2', '3')
+            GROUP BY p.pol_number, pph.payee_party_number
             """, nativeQuery = true)
-    Double sumAdjustmentValueByFieldAdjustmentState(
-            @Param("payeePartyNumber") String payeePartyNumber,
-           @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
-            @Param("policyNumber") String policyNumber
-    );
-
-    @Query(value = """
-        SELECT COALESCE(SUM(adjustment_value), 0)
-        FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" 
-        WHERE payout_payment_history_id IN (
-            SELECT id 
-            FROM "PAYOUT_PAYMENT_HISTORY" pph 
-            WHERE payee_party_number = :payeePartyNumber 
-              AND reversed = false 
-              AND trans_exe_date > :transExeDate 
-              AND payout_payee_id IN (
-                  SELECT id 
-                  FROM "PAYOUT_PAYEE" pp 
-                  WHERE policy_payout_id IN (
-                      SELECT id 
-                      FROM "POLICY_PAYOUT" pp 
-                      WHERE policy_id IN (
-                          SELECT id 
-                          FROM "POLICY" 
-                          WHERE pol_number = :policyNumber 
-                          AND policy_status <> 'R'
-                      )
-                  ) 
-                  AND payee_party_number = :payeePartyNumber
-              )
-        ) 
-        AND field_adjustment = '3'
-    """, nativeQuery = true)
-    Double sumAdjustmentValueByFieldAdjustmentState(
-            @Param("payeePartyNumber") String payeePartyNumber,
-            @Param("transExeDate") LocalDateTime transExeDate,
-            @Param("policyNumber") String policyNumber
+    List<Object[]> sumAdjustmentValueByPolicyAndPayee(
+            @Param("policyNumbers") List<String> policyNumbers,
+            @Param("transExeDate") LocalDateTime transExeDate
     );
 
 }
@@ -51,138 +51,48 @@ public interface PayoutPaymentHistoryDeductionRepository extends JpaRepository<P
     List<Long> findAllPaymentHistoryIdsOfDeductions();
 
     @Query(value = """
-                SELECT COALESCE(SUM(fee_amt), 0)
-                FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION" 
-                WHERE payout_payment_history_id IN (
-                    SELECT id 
-                    FROM "PAYOUT_PAYMENT_HISTORY" pph 
-                    WHERE payee_party_number = :payeePartyNumber 
-                      AND reversed = false 
-                      AND trans_exe_date >= :startDate
-                      AND trans_exe_date <= :endDate
-                      AND payout_payee_id IN (
-                          SELECT id 
-                          FROM "PAYOUT_PAYEE" pp 
-                          WHERE policy_payout_id IN (
-                              SELECT id 
-                              FROM "POLICY_PAYOUT" pp 
-                              WHERE policy_id IN (
-                                  SELECT id 
-                                  FROM "POLICY" 
-                                  WHERE pol_number = :policyNumber 
-                                  AND policy_status <> 'R'
-                              )
-                          ) 
-                          AND payee_party_number = :payeePartyNumber
-                      )
-                ) 
-                AND fee_type = '21'
+            SELECT p.pol_number, pph.payee_party_number,
+                   COALESCE(SUM(CASE WHEN x.fee_type = '20' THEN x.fee_amt END), 0) AS federal_fee_amt,
+                   COALESCE(SUM(CASE WHEN x.fee_type = '21' THEN x.fee_amt END), 0) AS state_fee_amt
+            FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION" x
+            JOIN "PAYOUT_PAYMENT_HISTORY" pph ON pph.id = x.payout_payment_history_id
+            JOIN "PAYOUT_PAYEE" ppy ON ppy.id = pph.payout_payee_id
+                                   AND ppy.payee_party_number = pph.payee_party_number
+            JOIN "POLICY_PAYOUT" pp ON pp.id = ppy.policy_payout_id
+            JOIN "POLICY" p ON p.id = pp.policy_id
+            WHERE p.pol_number IN (:policyNumbers)
+              AND p.policy_status <> 'R'
+              AND pph.reversed = false
+              AND pph.trans_exe_date >= :startDate
+              AND pph.trans_exe_date <= :endDate
+              AND x.fee_type IN ('20', '21')
+            GROUP BY p.pol_number, pph.payee_party_number
             """, nativeQuery = true)
-    Double sumFeeAmtByFeeTypeState(
-            @Param("payeePartyNumber") String payeePartyNumber,
-            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
-            @Param("policyNumber") String policyNumber
-    );
-
-    @Query(value = """
-        SELECT COALESCE(SUM(fee_amt), 0)
-        FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION" 
-        WHERE payout_payment_history_id IN (
-            SELECT id 
-            FROM "PAYOUT_PAYMENT_HISTORY" pph 
-            WHERE payee_party_number = :payeePartyNumber 
-              AND reversed = false 
-              AND trans_exe_date > :transExeDate 
-              AND payout_payee_id IN (
-                  SELECT id 
-                  FROM "PAYOUT_PAYEE" pp 
-                  WHERE policy_payout_id IN (
-                      SELECT id 
-                      FROM "POLICY_PAYOUT" pp 
-                      WHERE policy_id IN (
-                          SELECT id 
-                          FROM "POLICY" 
-                          WHERE pol_number = :policyNumber 
-                          AND policy_status <> 'R'
-                      )
-                  ) 
-                  AND payee_party_number = :payeePartyNumber
-              )
-        ) 
-        AND fee_type = '21'
-    """, nativeQuery = true)
-    Double sumFeeAmtByFeeTypeState(
-            @Param("payeePartyNumber") String payeePartyNumber,
-            @Param("transExeDate") LocalDateTime transExeDate,
-            @Param("policyNumber") String policyNumber
+    List<Object[]> sumFeeAmtByPolicyAndPayee(
+            @Param("policyNumbers") List<String> policyNumbers,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate
     );
 
     @Query(value = """
-                SELECT COALESCE(SUM(fee_amt), 0)
-                FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION" 
-                WHERE payout_payment_history_id IN (
-                    SELECT id 
-                    FROM "PAYOUT_PAYMENT_HISTORY" pph 
-                    WHERE payee_party_number = :payeePartyNumber 
-                      AND reversed = false 
-                      AND trans_exe_date >= :startDate
-                      AND trans_exe_date <= :endDate
-                      AND payout_payee_id IN (
-                          SELECT id 
-                          FROM "PAYOUT_PAYEE" pp 
-                          WHERE policy_payout_id IN (
-                              SELECT id 
-                              FROM "POLICY_PAYOUT" pp 
-                              WHERE policy_id IN (
-                                  SELECT id 
-                                  FROM "POLICY" 
-                                  WHERE pol_number = :policyNumber 
-                                  AND policy_status <> 'R'
-                              )
-                          ) 
-                          AND payee_party_number = :payeePartyNumber
-                      )
-                ) 
-                AND fee_type = '20'
+            SELECT p.pol_number, pph.payee_party_number,
+                   COALESCE(SUM(CASE WHEN x.fee_type = '20' THEN x.fee_amt END), 0) AS federal_fee_amt,
+                   COALESCE(SUM(CASE WHEN x.fee_type = '21' THEN x.fee_amt END), 0) AS state_fee_amt
+            FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION" x
+            JOIN "PAYOUT_PAYMENT_HISTORY" pph ON pph.id = x.payout_payment_history_id
+            JOIN "PAYOUT_PAYEE" ppy ON ppy.id = pph.payout_payee_id
+                                   AND ppy.payee_party_number = pph.payee_party_number
+            JOIN "POLICY_PAYOUT" pp ON pp.id = ppy.policy_payout_id
+            JOIN "POLICY" p ON p.id = pp.policy_id
+            WHERE p.pol_number IN (:policyNumbers)
+              AND p.policy_status <> 'R'
+              AND pph.reversed = false
+              AND pph.trans_exe_date > :transExeDate
+              AND x.fee_type IN ('20', '21')
+            GROUP BY p.pol_number, pph.payee_party_number
             """, nativeQuery = true)
-    Double sumFeeAmtByFeeTypeFederal(
-            @Param("payeePartyNumber") String payeePartyNumber,
-            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
-            @Param("policyNumber") String policyNumber
+    List<Object[]> sumFeeAmtByPolicyAndPayee(
+            @Param("policyNumbers") List<String> policyNumbers,
+            @Param("transExeDate") LocalDateTime transExeDate
     );
 
-
-    @Query(value = """
-        SELECT COALESCE(SUM(fee_amt), 0)
-        FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION" 
-        WHERE payout_payment_history_id IN (
-            SELECT id 
-            FROM "PAYOUT_PAYMENT_HISTORY" pph 
-            WHERE payee_party_number = :payeePartyNumber 
-              AND reversed = false 
-              AND trans_exe_date > :transExeDate 
-              AND payout_payee_id IN (
-                  SELECT id 
-                  FROM "PAYOUT_PAYEE" pp 
-                  WHERE policy_payout_id IN (
-                      SELECT id 
-                      FROM "POLICY_PAYOUT" pp 
-                      WHERE policy_id IN (
-                          SELECT id 
-                          FROM "POLICY" 
-                          WHERE pol_number = :policyNumber 
-                          AND policy_status <> 'R'
-                      )
-                  ) 
-                  AND payee_party_number = :payeePartyNumber
-              )
-        ) 
-        AND fee_type = '20'
-    """, nativeQuery = true)
-    Double sumFeeAmtByFeeTypeFederal(
-            @Param("payeePartyNumber") String payeePartyNumber,
-            @Param("transExeDate") LocalDateTime transExeDate,
-            @Param("policyNumber") String policyNumber
-    );
 }
-
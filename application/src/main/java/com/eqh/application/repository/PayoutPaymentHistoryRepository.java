@@ -32,81 +32,77 @@ public interface PayoutPaymentHistoryRepository extends JpaRepository<PayoutPaym
             WHERE p.pol_number = :policyNumber
               AND pph.payout_payee_id = ppy.id
               AND pph.reversed = false
-              AND trans_exe_date >= :startDate
-              AND trans_exe_date <= :endDate
+              AND pph.trans_exe_date > :startDate
+              AND pph.payout_due_date <= :transEffDate
+              AND pph.payout_due_date >= :ytdCalendarTime
             ORDER BY pph.trans_exe_date DESC
             """, nativeQuery = true)
-    List<PayoutPaymentHistory> findPolicyPayouts(
+    List<PayoutPaymentHistory> findPolicyPayoutsWithDueDateCriteria(
             @Param("policyNumber") String policyNumber,
-           @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate
+            @Param("startDate") LocalDateTime startDate,
+            @Param("transEffDate") LocalDateTime transEffDate,  // For payoutDueDate comparison
+            @Param("ytdCalendarTime") LocalDateTime ytdCalendarTime // For ytdCalendar comparison
     );
 
     @Query(value = """
-        SELECT pph.*
-        FROM "POLICY" p
-        JOIN "POLICY_PAYOUT" pp ON pp.policy_id = p.id
-        JOIN "PAYOUT_PAYEE" ppy ON ppy.policy_payout_id = pp.id
-        JOIN public."PAYOUT_PAYMENT_HISTORY" pph ON pph.payee_party_number = ppy.payee_party_number
-        WHERE p.pol_number = :policyNumber
-          AND pph.payout_payee_id = ppy.id
-          AND pph.reversed = false
-          AND pph.trans_exe_date > :startDate
-        ORDER BY pph.trans_exe_date DESC
-        """, nativeQuery = true)
-    List<PayoutPaymentHistory> findPolicyPayouts(
-            @Param("policyNumber") String policyNumber,
-            @Param("startDate") LocalDateTime startDate
-    );
+            SELECT pol_number AS policy_number, sum(gross_amt)
+            FROM public."TRANSACTION_HISTORY"
+            WHERE reversed = false
+              AND entity_type = 'Policy'
+              AND request_name in ('OverduePayment','PeriodicPayout')
+              AND pol_number IN (:policyNumbers)
+              AND trans_exe_date >= :startDate
+              AND trans_exe_date <= :endDate
+            GROUP BY pol_number
+            """, nativeQuery = true)
+    List<Object[]> sumGrossAmountByPolicyNumbers(
+            @Param("policyNumbers") List<String> policyNumbers,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     @Query(value = """
-                  SELECT sum(gross_amt)
-                  FROM public."TRANSACTION_HISTORY"
-                  WHERE reversed = false
-                  AND entity_type = 'Policy'
-                  AND request_name in ('OverduePayment','PeriodicPayout')
-                  AND message_image \\:\\: json->>'polNumber' = :policyNumber
-                AND trans_exe_date >= :startDate
-                AND trans_exe_date <= :endDate
+            SELECT p.pol_number, COALESCE(SUM(pph.gross_amt), 0)
+            FROM "POLICY" p
+            JOIN "POLICY_PAYOUT" pp ON pp.policy_id = p.id
+            JOIN "PAYOUT_PAYEE" pp2 ON pp2.policy_payout_id = pp.id
+            JOIN public."PAYOUT_PAYMENT_HISTORY" pph ON pph.payout_payee_id = pp2.id
+            WHERE p.pol_number IN (:policyNumbers)
+              AND pph.reversed = false
+              AND pph.trans_exe_date > :date
+            GROUP BY p.pol_number
             """, nativeQuery = true)
-    Double findPolicyPayoutWithGrossAmount(
-            @Param("policyNumber") String policyNumber,
-           @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate); // Ensure the parameter name matches
+    List<Object[]> sumGrossAmountByPolicyNumbers(
+            @Param("policyNumbers") List<String> policyNumbers,
+            @Param("date") LocalDateTime date);
 
     @Query(value = """
-    SELECT COALESCE(SUM(pph.gross_amt), 0) 
-    FROM "POLICY" p
-    JOIN "POLICY_PAYOUT" pp ON pp.policy_id = p.id
-    JOIN "PAYOUT_PAYEE" pp2 ON pp2.policy_payout_id = pp.id
-    JOIN public."PAYOUT_PAYMENT_HISTORY" pph ON pph.payout_payee_id = pp2.id
-    WHERE p.pol_number = :policyNumber
-      AND pph.reversed = false 
-      AND pph.trans_exe_date > :date
-""", nativeQuery = true)
-    Double findPolicyPayoutWithGrossAmount(
-            @Param("policyNumber") String policyNumber,
-            @Param("date") LocalDateTime date // Ensure the parameter name matches
-    );
-
+            SELECT DISTINCT p.pol_number
+            FROM "POLICY" p
+            JOIN "POLICY_PAYOUT" pp ON pp.policy_id = p.id
+            JOIN "PAYOUT_PAYEE" ppy ON ppy.policy_payout_id = pp.id
+            JOIN public."PAYOUT_PAYMENT_HISTORY" pph ON pph.payee_party_number = ppy.payee_party_number
+            WHERE p.pol_number IN (:policyNumbers)
+              AND pph.payout_payee_id = ppy.id
+              AND pph.reversed = false
+              AND pph.trans_exe_date >= :startDate
+              AND pph.trans_exe_date <= :endDate
+            """, nativeQuery = true)
+    List<String> findPolicyNumbersWithPayouts(
+            @Param("policyNumbers") List<String> policyNumbers,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     @Query(value = """
-            SELECT pph.*
+            SELECT DISTINCT p.pol_number
             FROM "POLICY" p
             JOIN "POLICY_PAYOUT" pp ON pp.policy_id = p.id
             JOIN "PAYOUT_PAYEE" ppy ON ppy.policy_payout_id = pp.id
             JOIN public."PAYOUT_PAYMENT_HISTORY" pph ON pph.payee_party_number = ppy.payee_party_number
-            WHERE p.pol_number = :policyNumber
+            WHERE p.pol_number IN (:policyNumbers)
               AND pph.payout_payee_id = ppy.id
               AND pph.reversed = false
               AND pph.trans_exe_date > :startDate
-              AND pph.payout_due_date <= :transEffDate
-              AND pph.payout_due_date >= :ytdCalendarTime
-            ORDER BY pph.trans_exe_date DESC
             """, nativeQuery = true)
-    List<PayoutPaymentHistory> findPolicyPayoutsWithDueDateCriteria(
-            @Param("policyNumber") String policyNumber,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("transEffDate") LocalDateTime transEffDate,  // For payoutDueDate comparison
-            @Param("ytdCalendarTime") LocalDateTime ytdCalendarTime // For ytdCalendar comparison
-    );
+    List<String> findPolicyNumbersWithPayouts(
+            @Param("policyNumbers") List<String> policyNumbers,
+            @Param("startDate") LocalDateTime startDate);
 
 }
@@ -0,0 +1,160 @@
+package com.eqh.application.repository;
+
+import com.eqh.application.entity.PayoutYtdLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Reads and maintains the YTD withholding ledger, see {@code V3__payout_ytd_ledger.sql}.
+ */
+@Repository
+public interface PayoutYtdLedgerRepository extends JpaRepository<PayoutYtdLedger, Long> {
+
+    /**
+     * Locks the watermark row for the rest of the transaction.
+     *
+     * @return the time up to which updated payments have been applied, null before the first refresh.
+     */
+    @Query(value = """
+            SELECT last_update_timestamp
+            FROM public.payout_ytd_ledger_watermark
+            WHERE id = 1
+            FOR UPDATE
+            """, nativeQuery = true)
+    Timestamp lockLastUpdateTimestamp();
+
+    /**
+     * @return the start time of the current transaction, in the time zone update_timestamp is written in.
+     */
+    @Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+    Timestamp findTransactionTimestamp();
+
+    @Modifying
+    @Query(value = "UPDATE public.payout_ytd_ledger_watermark SET last_update_timestamp = :updateTimestamp WHERE id = 1",
+            nativeQuery = true)
+    int updateLastUpdateTimestamp(@Param("updateTimestamp") Timestamp updateTimestamp);
+
+    @Modifying
+    @Query(value = "DELETE FROM public.payout_ytd_ledger", nativeQuery = true)
+    int deleteAllEntries();
+
+    @Modifying
+    @Query(value = "DELETE FROM public.payout_ytd_ledger WHERE pol_number IN (:policyNumbers)", nativeQuery = true)
+    int deleteEntriesByPolicyNumbers(@Param("policyNumbers") List<String> policyNumbers);
+
+    /**
+     * Policies with a payment, deduction or adjustment inserted or updated at or after {@code since},
+     * a reversal included.
+     */
+    @Query(value = """
+            SELECT DISTINCT p.pol_number
+            FROM "PAYOUT_PAYMENT_HISTORY" pph
+            JOIN "PAYOUT_PAYEE" ppy ON ppy.id = pph.payout_payee_id
+                                   AND ppy.payee_party_number = pph.payee_party_number
+            JOIN "POLICY_PAYOUT" pp ON pp.id = ppy.policy_payout_id
+            JOIN "POLICY" p ON p.id = pp.policy_id
+            WHERE pph.id IN (
+                SELECT id FROM "PAYOUT_PAYMENT_HISTORY" WHERE update_timestamp >= :since
+                UNION
+                SELECT payout_payment_history_id FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION" WHERE update_timestamp >= :since
+                UNION
+                SELECT payout_payment_history_id FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" WHERE update_timestamp >= :since
+            )
+            """, nativeQuery = true)
+    List<String> findPolicyNumbersUpdatedSince(@Param("since") Timestamp since);
+
+    /**
+     * Every policy with a payment, for a rebuild.
+     */
+    @Query(value = """
+            SELECT DISTINCT p.pol_number
+            FROM "PAYOUT_PAYMENT_HISTORY" pph
+            JOIN "PAYOUT_PAYEE" ppy ON ppy.id = pph.payout_payee_id
+                                   AND ppy.payee_party_number = pph.payee_party_number
+            JOIN "POLICY_PAYOUT" pp ON pp.id = ppy.policy_payout_id
+            JOIN "POLICY" p ON p.id = pp.policy_id
+            """, nativeQuery = true)
+    List<String> findPolicyNumbersWithPayments();
+
+    /**
+     * Writes the ledger rows of the given policies from all of their non-reversed payments,
+     * replacing rows already there. Payments are matched to their policy the same way as by
+     * the YTD sum queries.
+     *
+     * @return the number of ledger rows inserted or updated.
+     */
+    @Modifying
+    @Query(value = """
+            WITH payments AS (
+                SELECT pph.id, CAST(EXTRACT(YEAR FROM pph.trans_exe_date) AS integer) AS tax_year,
+                       p.pol_number, pph.payee_party_number
+                FROM "POLICY" p
+                JOIN "POLICY_PAYOUT" pp ON pp.policy_id = p.id
+                JOIN "PAYOUT_PAYEE" ppy ON ppy.policy_payout_id = pp.id
+                JOIN "PAYOUT_PAYMENT_HISTORY" pph ON pph.payout_payee_id = ppy.id
+                                                  AND pph.payee_party_number = ppy.payee_party_number
+                WHERE p.pol_number IN (:policyNumbers)
+                  AND pph.reversed = false
+                  AND pph.trans_exe_date IS NOT NULL
+            )
+            INSERT INTO public.payout_ytd_ledger AS l
+                   (tax_year, pol_number, payee_party_number, payment_count,
+                    federal_fee_amt, state_fee_amt, federal_adjustment_value, state_adjustment_value, update_timestamp)
+            SELECT pm.tax_year, pm.pol_number, pm.payee_party_number,
+                   COUNT(*),
+                   COALESCE(SUM(d.federal_fee_amt), 0), COALESCE(SUM(d.state_fee_amt), 0),
+                   COALESCE(SUM(a.federal_adjustment_value), 0), COALESCE(SUM(a.state_adjustment_value), 0),
+                   now()
+            FROM payments pm
+            LEFT JOIN (
+                SELECT payout_payment_history_id,
+                       SUM(CASE WHEN fee_type = '20' THEN fee_amt END) AS federal_fee_amt,
+                       SUM(CASE WHEN fee_type = '21' THEN fee_amt END) AS state_fee_amt
+                FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION"
+                WHERE payout_payment_history_id IN (SELECT id FROM payments)
+                  AND fee_type IN ('20', '21')
+                GROUP BY payout_payment_history_id
+            ) d ON d.payout_payment_history_id = pm.id
+            LEFT JOIN (
+                SELECT payout_payment_history_id,
+                       SUM(CASE WHEN field_adjustment = '2' THEN adjustment_value END) AS federal_adjustment_value,
+                       SUM(CASE WHEN field_adjustment = '3' THEN adjustment_value END) AS state_adjustment_value
+                FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT"
+                WHERE payout_payment_history_id IN (SELECT id FROM payments)
+                  AND field_adjustment IN ('2', '3')
+                GROUP BY payout_payment_history_id
+            ) a ON a.payout_payment_history_id = pm.id
+            GROUP BY 1, 2, 3
+            ON CONFLICT (tax_year, pol_number, payee_party_number) DO UPDATE SET
+                payment_count = EXCLUDED.payment_count,
+                federal_fee_amt = EXCLUDED.federal_fee_amt,
+                state_fee_amt = EXCLUDED.state_fee_amt,
+                federal_adjustment_value = EXCLUDED.federal_adjustment_value,
+                state_adjustment_value = EXCLUDED.state_adjustment_value,
+                update_timestamp = EXCLUDED.update_timestamp
+            """, nativeQuery = true)
+    int applyPaymentHistory(@Param("policyNumbers") List<String> policyNumbers);
+
+    /**
+     * Ledger rows of a tax year. Columns: 0 pol_number, 1 payee_party_number, 2 payment_count,
+     * 3 federal_fee_amt, 4 state_fee_amt, 5 federal_adjustment_value, 6 state_adjustment_value,
+     * 7 whether the policy has a row that is not in status 'R'.
+     */
+    @Query(value = """
+            SELECT l.pol_number, l.payee_party_number, l.payment_count,
+                   l.federal_fee_amt, l.state_fee_amt, l.federal_adjustment_value, l.state_adjustment_value,
+                   EXISTS (SELECT 1 FROM "POLICY" p WHERE p.pol_number = l.pol_number AND p.policy_status <> 'R') AS active
+            FROM public.payout_ytd_ledger l
+            WHERE l.tax_year = :taxYear
+              AND l.pol_number IN (:policyNumbers)
+            """, nativeQuery = true)
+    List<Object[]> findByTaxYearAndPolicyNumbers(
+            @Param("taxYear") int taxYear,
+            @Param("policyNumbers") List<String> policyNumbers);
+}
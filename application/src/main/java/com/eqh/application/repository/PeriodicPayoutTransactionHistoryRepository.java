@@ -39,42 +39,52 @@ public interface PeriodicPayoutTransactionHistoryRepository extends JpaRepositor
             "IN (2024, 2025) ORDER BY trans_eff_date DESC",nativeQuery = true)
     List<Object[]> findPayoutTransactionsInRangeOfYear();
 
-    @Query(value = "SELECT message_image, gross_amt, trans_eff_date, trans_run_date " +
-            "FROM public.\"TRANSACTION_HISTORY\" " +
-            "WHERE reversed = false " +
-            "AND entity_type = 'Policy' " +
-            "AND request_name = 'PeriodicPayout' " +
-            "AND message_image \\:\\: json->>'polNumber' = :policyNumber " +
-            "AND trans_exe_date >= :startDate " + // Added a space here
-            "AND trans_exe_date <= :endDate " + // Added a space here
-            "ORDER BY trans_eff_date DESC LIMIT 1",
-            nativeQuery = true)
-    List<Object[]> findPayoutTransactionsByPolicyNumber(
-            @Param("policyNumber") String policyNumber,
+    @Query(value = """
+            SELECT message_image, gross_amt, trans_eff_date, trans_run_date
+            FROM (
+                SELECT message_image, gross_amt, trans_eff_date, trans_run_date,
+                       ROW_NUMBER() OVER (PARTITION BY pol_number ORDER BY trans_eff_date DESC) AS rn
+                FROM public."TRANSACTION_HISTORY"
+                WHERE reversed = false
+                  AND entity_type = 'Policy'
+                  AND request_name = 'PeriodicPayout'
+                  AND pol_number IN (:policyNumbers)
+                  AND trans_exe_date >= :startDate
+                  AND trans_exe_date <= :endDate
+            ) latest
+            WHERE rn = 1
+            """, nativeQuery = true)
+    List<Object[]> findLatestPayoutTransactionsByPolicyNumbers(
+            @Param("policyNumbers") List<String> policyNumbers,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
-    @Query(value = "SELECT message_image, gross_amt, trans_eff_date, trans_run_date " +
-            "FROM public.\"TRANSACTION_HISTORY\" " +
-            "WHERE reversed = false " +
-            "AND entity_type = 'Policy' " +
-            "AND request_name = 'PeriodicPayout' " +
-            "AND message_image \\:\\: json->>'polNumber' = :policyNumber " +
-            "AND trans_exe_date > :startDate " +
-            "ORDER BY trans_eff_date DESC Limit 1 ",
-            nativeQuery = true)
-    List<Object[]> findPayoutTransactionsByPolicyNumber(
-            @Param("policyNumber") String policyNumber,
+    @Query(value = """
+            SELECT message_image, gross_amt, trans_eff_date, trans_run_date
+            FROM (
+                SELECT message_image, gross_amt, trans_eff_date, trans_run_date,
+                       ROW_NUMBER() OVER (PARTITION BY pol_number ORDER BY trans_eff_date DESC) AS rn
+                FROM public."TRANSACTION_HISTORY"
+                WHERE reversed = false
+                  AND entity_type = 'Policy'
+                  AND request_name = 'PeriodicPayout'
+                  AND pol_number IN (:policyNumbers)
+                  AND trans_exe_date > :startDate
+            ) latest
+            WHERE rn = 1
+            """, nativeQuery = true)
+    List<Object[]> findLatestPayoutTransactionsByPolicyNumbers(
+            @Param("policyNumbers") List<String> policyNumbers,
             @Param("startDate") LocalDateTime startDate);
 
     @Query(value = """
             WITH RankedTransactions AS (
                                                  SELECT
-                                                     message_image\\:\\:json->>'polNumber' AS policy_number,
+                                                     pol_number AS policy_number,
                                                      trans_exe_date,
                                                      request_name,
                                                      message_image,
-                                                     ROW_NUMBER() OVER (PARTITION BY message_image\\:\\:json->>'polNumber' ORDER BY trans_exe_date DESC) AS rn
+                                                     ROW_NUMBER() OVER (PARTITION BY pol_number ORDER BY trans_exe_date DESC) AS rn
                                                  FROM
                                                      public."TRANSACTION_HISTORY"
                                                  WHERE
@@ -97,14 +107,45 @@ public interface PeriodicPayoutTransactionHistoryRepository extends JpaRepositor
             """, nativeQuery = true)
     List<Object[]> findLatestTransactions(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Policies whose YTD totals may have changed: every policy with a row read by the YTD sum
+     * queries that was executed within {@code [executedFrom, executedTo]}, or inserted or
+     * updated (reversed, for one) within {@code [updatedFrom, updatedTo]}.
+     */
+    @Query(value = """
+            SELECT pol_number
+            FROM public."TRANSACTION_HISTORY"
+            WHERE entity_type = 'Policy'
+              AND request_name IN ('OverduePayment', 'PeriodicPayout')
+              AND (trans_exe_date BETWEEN :executedFrom AND :executedTo
+                   OR update_timestamp BETWEEN :updatedFrom AND :updatedTo)
+            UNION
+            SELECT p.pol_number
+            FROM "PAYOUT_PAYMENT_HISTORY" pph
+            JOIN "PAYOUT_PAYEE" ppy ON ppy.id = pph.payout_payee_id
+            JOIN "POLICY_PAYOUT" pp ON pp.id = ppy.policy_payout_id
+            JOIN "POLICY" p ON p.id = pp.policy_id
+            WHERE pph.trans_exe_date BETWEEN :executedFrom AND :executedTo
+               OR pph.update_timestamp BETWEEN :updatedFrom AND :updatedTo
+               OR EXISTS (SELECT 1 FROM "PAYOUT_PAYMENT_HISTORY_DEDUCTION" x
+                          WHERE x.payout_payment_history_id = pph.id
+                            AND x.update_timestamp BETWEEN :updatedFrom AND :updatedTo)
+               OR EXISTS (SELECT 1 FROM "PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" x
+                          WHERE x.payout_payment_history_id = pph.id
+                            AND x.update_timestamp BETWEEN :updatedFrom AND :updatedTo)
+            """, nativeQuery = true)
+    List<String> findPolicyNumbersWithYtdChanges(
+            @Param("executedFrom") LocalDateTime executedFrom, @Param("executedTo") LocalDateTime executedTo,
+            @Param("updatedFrom") LocalDateTime updatedFrom, @Param("updatedTo") LocalDateTime updatedTo);
+
     @Query(value = """
             WITH RankedTransactions AS (
                 SELECT 
-                    message_image\\:\\:json->>'polNumber' AS policy_number,
+                    pol_number AS policy_number,
                     trans_exe_date,
                     request_name,
                     message_image,
-                    ROW_NUMBER() OVER (PARTITION BY message_image\\:\\:json->>'polNumber' ORDER BY trans_exe_date DESC) AS rn
+                    ROW_NUMBER() OVER (PARTITION BY pol_number ORDER BY trans_exe_date DESC) AS rn
                 FROM 
                     public."TRANSACTION_HISTORY"
                 WHERE 
@@ -132,7 +173,7 @@ public interface PeriodicPayoutTransactionHistoryRepository extends JpaRepositor
         WHERE reversed = false 
         AND entity_type = 'Policy' 
         AND request_name = 'OverduePayment'
-        AND message_image\\:\\:json->>'polNumber' = :policyNumber
+        AND pol_number = :policyNumber
         AND trans_exe_date > :executionDate
         ORDER BY trans_eff_date DESC
     """, nativeQuery = true)
@@ -142,7 +183,7 @@ public interface PeriodicPayoutTransactionHistoryRepository extends JpaRepositor
 
     @Query(value = """
     SELECT 
-        message_image::json->>'polNumber' AS policy_number,
+        pol_number AS policy_number,
         trans_exe_date,
         request_name,
         message_image
@@ -151,7 +192,7 @@ public interface PeriodicPayoutTransactionHistoryRepository extends JpaRepositor
     WHERE 
         request_name IN ('OverduePayment', 'PeriodicPayout')
         AND reversed = false
-        AND message_image::json->>'polNumber' = :policyNumber
+        AND pol_number = :policyNumber
         AND trans_exe_date > :executionDate
     ORDER BY 
         trans_exe_date DESC Limit 1
@@ -163,7 +204,7 @@ public interface PeriodicPayoutTransactionHistoryRepository extends JpaRepositor
 
     @Query(value = """
     SELECT 
-        message_image\\:\\:json->>'polNumber' AS policy_number,
+        pol_number AS policy_number,
         trans_exe_date,
         request_name,
         message_image
@@ -172,7 +213,7 @@ public interface PeriodicPayoutTransactionHistoryRepository extends JpaRepositor
     WHERE 
         request_name IN ('OverduePayment') 
         AND reversed = false
-        AND message_image\\:\\:json->>'polNumber' = :policyNumber
+        AND pol_number = :policyNumber
         AND message_image\\:\\:json->'adjustments'->'arrDestinations'->0->'payeeInfo'->>'taxablePartyNumber' = :taxablePartyNumber
         AND trans_exe_date > :executionDate
     ORDER BY 
@@ -2,27 +2,136 @@ package com.eqh.application.repository;
 
 import com.eqh.application.entity.TransactionHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * The {@code stream*} methods read through a server-side cursor, {@link #STREAM_FETCH_SIZE}
+ * rows per round trip. They must be called inside a transaction, since the PostgreSQL driver
+ * only honours the fetch size with auto-commit off, and the returned stream must be closed.
+ * <p>
+ * The cursor keeps its pooled connection and transaction until the stream is closed. The
+ * reports read it while they load party profiles and write to the client, so each report
+ * download holds one connection of the pool for its whole duration, slow clients included.
+ */
 @Repository
 public interface TransactionHistoryRepository extends JpaRepository<TransactionHistory, Long> {
 
-    @Query(value = "SELECT message_image, gross_amt, trans_eff_date ,trans_run_date FROM public.\"TRANSACTION_HISTORY\" WHERE reversed = false AND entity_type='Policy' AND request_name = 'PayoutDeathClaim' AND EXTRACT(YEAR FROM trans_eff_date) IN (2024, 2025) ORDER BY trans_eff_date DESC", nativeQuery = true)
-    List<Object[]> findCustomPayoutDeathClaimTransactions();
+    String STREAM_FETCH_SIZE = "500";
+
+    @Query(value = "SELECT message_image FROM public.\"TRANSACTION_HISTORY\" WHERE reversed = false AND entity_type='Policy' AND request_name = 'PayoutDeathClaim' AND EXTRACT(YEAR FROM trans_eff_date) IN (2024, 2025) ORDER BY trans_eff_date DESC", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<String> streamCustomPayoutDeathClaimMessageImages();
+
+    /**
+     * One row per arrangement.arrDestination entry of the 2024/2025 death claim transactions,
+     * with the JSON fields the report uses extracted in the database. Destinations without a
+     * taxableParty object are left out; amounts that are not JSON numbers come back as null.
+     * <p>
+     * Columns: policy_number, gross_amt, trans_eff_date, trans_run_date, first_name, last_name,
+     * residence_state, govt_id, govt_id_tc, party_number, organization_dba,
+     * settlement_interest_amt, late_interest_amt, death_benefit_payout_amt,
+     * federal_withholding_amt, state_withholding_amt.
+     */
+    @Query(value = """
+            SELECT m.msg->>'polNumber' AS policy_number,
+                   th.gross_amt, th.trans_eff_date, th.trans_run_date,
+                   d.dest->'taxableParty'->'person'->>'firstName' AS first_name,
+                   d.dest->'taxableParty'->'person'->>'lastName' AS last_name,
+                   d.dest->'taxableParty'->>'residenceState' AS residence_state,
+                   d.dest->'taxableParty'->>'govtID' AS govt_id,
+                   d.dest->'taxableParty'->>'govtIdTC' AS govt_id_tc,
+                   d.dest->'taxableParty'->>'partyNumber' AS party_number,
+                   d.dest->'taxableParty'->'organization'->>'dba' AS organization_dba,
+                   CASE WHEN json_typeof(d.dest->'settlementInterestAmt') = 'number'
+                        THEN (d.dest->>'settlementInterestAmt')\\:\\:numeric END AS settlement_interest_amt,
+                   CASE WHEN json_typeof(d.dest->'lateInterestAmt') = 'number'
+                        THEN (d.dest->>'lateInterestAmt')\\:\\:numeric END AS late_interest_amt,
+                   CASE WHEN json_typeof(d.dest->'deathBenefitPayoutAmt') = 'number'
+                        THEN (d.dest->>'deathBenefitPayoutAmt')\\:\\:numeric END AS death_benefit_payout_amt,
+                   CASE WHEN json_typeof(d.dest->'payeeWithholding'->'federalWithholdingAmt') = 'number'
+                        THEN (d.dest->'payeeWithholding'->>'federalWithholdingAmt')\\:\\:numeric END AS federal_withholding_amt,
+                   CASE WHEN json_typeof(d.dest->'payeeWithholding'->'stateWithholdingAmt') = 'number'
+                        THEN (d.dest->'payeeWithholding'->>'stateWithholdingAmt')\\:\\:numeric END AS state_withholding_amt
+            FROM public."TRANSACTION_HISTORY" th
+            CROSS JOIN LATERAL (SELECT th.message_image\\:\\:json AS msg) m
+            CROSS JOIN LATERAL json_array_elements(
+                    CASE WHEN json_typeof(m.msg->'arrangement'->'arrDestination') = 'array'
+                         THEN m.msg->'arrangement'->'arrDestination' ELSE '[]'\\:\\:json END
+            ) WITH ORDINALITY AS d(dest, dest_index)
+            WHERE th.reversed = false
+              AND th.entity_type = 'Policy'
+              AND th.request_name = 'PayoutDeathClaim'
+              AND EXTRACT(YEAR FROM th.trans_eff_date) IN (2024, 2025)
+              AND json_typeof(d.dest->'taxableParty') = 'object'
+            ORDER BY th.trans_eff_date DESC, th.id, d.dest_index
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Object[]> streamDeathClaimPayees();
 
-//    @Query(value = "SELECT message_image, gross_amt, trans_eff_date ,trans_run_date, message_image\\:\\:json->>'polNumber' AS policy_number FROM public.\"TRANSACTION_HISTORY\" WHERE reversed = false AND entity_type='Policy' AND request_name = 'OverduePayment' AND EXTRACT(YEAR FROM trans_eff_date) IN (2024, 2025) ORDER BY trans_eff_date DESC", nativeQuery = true)
+    /**
+     * One row per adjustments.arrDestinations entry of the 2024/2025 overdue payment
+     * transactions, with the JSON fields the report uses extracted in the database.
+     * Destinations without a payeeInfo object are left out; withholding amounts that are
+     * not JSON numbers come back as null.
+     * <p>
+     * Columns: policy_number, gross_amt, trans_eff_date, trans_run_date, trans_exe_date,
+     * suspend_code, party_type_code, taxable_party_number, taxable_to_govt_id,
+     * taxable_to_govt_id_tc, taxable_to_govt_id_stat, taxable_party_name,
+     * taxable_to_residence_state, taxable_to_residence_country, payee_status,
+     * federal_withholding_amt, state_withholding_amt.
+     */
+    @Query(value = """
+            SELECT m.msg->>'polNumber' AS policy_number,
+                   th.gross_amt, th.trans_eff_date, th.trans_run_date,
+                   m.msg->>'transExeDate' AS trans_exe_date,
+                   m.msg->>'suspendCode' AS suspend_code,
+                   d.dest->'payee'->>'partyTypeCode' AS party_type_code,
+                   d.dest->'payeeInfo'->>'taxablePartyNumber' AS taxable_party_number,
+                   d.dest->'payeeInfo'->>'taxableToGovtID' AS taxable_to_govt_id,
+                   d.dest->'payeeInfo'->>'taxableToGovtIdTC' AS taxable_to_govt_id_tc,
+                   d.dest->'payeeInfo'->>'taxableToGovtIDStat' AS taxable_to_govt_id_stat,
+                   d.dest->'payeeInfo'->>'taxablePartyName' AS taxable_party_name,
+                   d.dest->'payeeInfo'->>'taxableToResidenceState' AS taxable_to_residence_state,
+                   d.dest->'payeeInfo'->>'taxableToResidenceCountry' AS taxable_to_residence_country,
+                   d.dest->'payeeInfo'->>'payeeStatus' AS payee_status,
+                   CASE WHEN json_typeof(d.dest->'payeeWithholdings'->'federalWithholdingAmt') = 'number'
+                        THEN (d.dest->'payeeWithholdings'->>'federalWithholdingAmt')\\:\\:numeric END AS federal_withholding_amt,
+                   CASE WHEN json_typeof(d.dest->'payeeWithholdings'->'stateWithholdingAmt') = 'number'
+                        THEN (d.dest->'payeeWithholdings'->>'stateWithholdingAmt')\\:\\:numeric END AS state_withholding_amt
+            FROM public."TRANSACTION_HISTORY" th
+            CROSS JOIN LATERAL (SELECT th.message_image\\:\\:json AS msg) m
+            CROSS JOIN LATERAL json_array_elements(
+                    CASE WHEN json_typeof(m.msg->'adjustments'->'arrDestinations') = 'array'
+                         THEN m.msg->'adjustments'->'arrDestinations' ELSE '[]'\\:\\:json END
+            ) WITH ORDINALITY AS d(dest, dest_index)
+            WHERE th.reversed = false
+              AND th.entity_type = 'Policy'
+              AND th.request_name = 'OverduePayment'
+              AND EXTRACT(YEAR FROM th.trans_eff_date) IN (2024, 2025)
+              AND json_typeof(d.dest->'payeeInfo') = 'object'
+            ORDER BY th.trans_eff_date DESC, th.id, d.dest_index
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Object[]> streamOverduePaymentPayees();
 
-    @Query(value = "SELECT message_image, gross_amt, trans_eff_date, trans_run_date, message_image\\:\\:json->>'polNumber' AS policy_number " +
-            "FROM public.\"TRANSACTION_HISTORY\" " +
-            "WHERE reversed = false " +
-            "AND entity_type = 'Policy' " +
-            "AND request_name = 'OverduePayment' " +
-            "AND EXTRACT(YEAR FROM trans_eff_date) IN (2024, 2025) " +
-            "ORDER BY trans_eff_date DESC", nativeQuery = true)
-    List<Object[]> findOverduePaymentTransactions();
+    @Query(value = """
+            SELECT DISTINCT pol_number AS policy_number
+            FROM public."TRANSACTION_HISTORY"
+            WHERE reversed = false
+              AND entity_type = 'Policy'
+              AND request_name = 'OverduePayment'
+              AND EXTRACT(YEAR FROM trans_eff_date) IN (2024, 2025)
+            """, nativeQuery = true)
+    List<String> findOverduePaymentPolicyNumbers();
 }
 
 
@@ -2,108 +2,185 @@ package com.eqh.application.service;
 
 import com.eqh.application.dto.Address;
 import com.eqh.application.dto.Party;
+import com.eqh.application.dto.PartyProfile;
 import com.eqh.application.dto.Person;
 import com.eqh.application.dto.ProductInfo;
-import com.eqh.application.feignClient.PartyClient;
+import com.eqh.application.dto.ReportFormat;
+import com.eqh.application.dto.ReportType;
 import com.eqh.application.repository.PolicyRepository;
 import com.eqh.application.repository.TransactionHistoryRepository;
 import com.eqh.application.utility.*;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
+import org.springframework.transaction.annotation.Transactional;
 
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 @Service
 public class OverduePaymentTransactionHistoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionHistoryService.class);
-    private static final String DATE_FORMAT = "ddMMyyyy_HHmmss";
     private static final String DATE_FORMAT_FOR_EXCEL = "yyyy-MM-dd";
-    private static final String CURRENCY_FORMAT = "$#,##0.00";
     private static final String ERROR_PROCESSING_ROW = "Error processing row";
     private static final String UNKNOWN = "Unknown";
+    // Payee rows whose party profiles are loaded together before the rows are transformed
+    private static final int ENRICHMENT_CHUNK_SIZE = 500;
+    private static final int POLICY_BATCH_SIZE = 1000;
+    private static final String[] HEADERS = {
+            "runYear","transRunDate","transExeDate","Management Code","Product Code", "polNumber", "Policy Status",
+            "QualPlanType", "Suspend Code", "Party ID","Party Full Name", "Govt ID", "Govt ID Status", "govt ID Type Code",
+            "payeeStatus", "Residence State", "Residence Country", "preferredMailingAddress", "mailingAddress", "YTD Gross amount",
+            "YTD fedral amount", "YTD State amount"
+    };
+    private static final ReportSchema SCHEMA = ReportSchema.of(HEADERS, "YTD Gross amount", "YTD fedral amount",
+            "YTD State amount")
+            .withDictionary("runYear", "transRunDate", "transExeDate", "Management Code", "Product Code",
+                    "Policy Status", "QualPlanType", "Suspend Code", "Govt ID Status", "govt ID Type Code", "payeeStatus",
+                    "Residence State", "Residence Country");
 
     private final TransactionHistoryRepository transactionHistoryRepository;
     private final PolicyRepository policyRepository;
     private final ObjectMapper objectMapper;
-    private final PartyClient partyClient;
+    private final PartyProfileCache partyProfileCache;
+    private final ReportTransformExecutor transformExecutor;
+    private final ReportMetrics reportMetrics;
 
 
-    public OverduePaymentTransactionHistoryService(TransactionHistoryRepository transactionHistoryRepository, PolicyRepository policyRepository, ObjectMapper objectMapper, PartyClient partyClient) {
+    public OverduePaymentTransactionHistoryService(TransactionHistoryRepository transactionHistoryRepository, PolicyRepository policyRepository, ObjectMapper objectMapper, PartyProfileCache partyProfileCache, ReportTransformExecutor transformExecutor, ReportMetrics reportMetrics) {
         this.transactionHistoryRepository = transactionHistoryRepository;
         this.policyRepository = policyRepository;
         this.objectMapper = objectMapper;
-        this.partyClient = partyClient;
+        this.partyProfileCache = partyProfileCache;
+        this.transformExecutor = transformExecutor;
+        this.reportMetrics = reportMetrics;
     }
 
 
     /**
-     * Generates a report in Excel format and returns it as a byte array.
+     * Generates a report in Excel format and writes it to the given stream.
      *
-     * @return byte array containing the Excel report.
+     * @param out the stream receiving the Excel report; it is not closed.
      * @throws IOException if an error occurs during data retrieval or report generation.
      */
-    public byte[] generateReportAsBytes() throws IOException {
-        List<Object[]> data = transactionHistoryRepository.findOverduePaymentTransactions();
-
-        if (data.isEmpty()) {
-            throw new IOException("No data found for the report.");
-        }
-
-        // Load all policy-product mappings in advance to optimize processing
-        Map<String, String> policyProductCodes = loadPolicyProductCodes();
-
-        // Extract unique policy numbers
-        Set<String> policyNumbers = extractPolicyNumbers(data);
+    @Transactional(readOnly = true)
+    public void writeReport(OutputStream out) throws IOException {
+        writeReport(out, ReportProgress.NONE);
+    }
 
-        // Fetch product info for all policy numbers
-        Map<String, ProductInfo> productInfoMap = fetchProductInfoForPolicyNumbers(policyNumbers);
+    /**
+     * Generates the report like {@link #writeReport(OutputStream)}, reporting its progress.
+     *
+     * @param out the stream receiving the Excel report; it is not closed.
+     * @param progress receives the stage and the number of processed rows.
+     * @throws IOException if an error occurs during data retrieval or report generation.
+     */
+    @Transactional(readOnly = true)
+    public void writeReport(OutputStream out, ReportProgress progress) throws IOException {
+        writeReport(out, ReportFormat.XLSX, progress);
+    }
 
-        // Filter out rows with policy status "R"
-        List<Object[]> filteredData = data.stream()
-                .filter(row -> {
-                    String policyNumber = (String) row[4];  // Assuming policy number is at index 4
-                    ProductInfo productInfo = productInfoMap.get(policyNumber);
+    /**
+     * Generates the report in the given format, reporting its progress. CSV and NDJSON rows
+     * reach the stream as they are transformed; an Excel workbook is written at the end.
+     * <p>
+     * Like the death claim report, this keeps one database connection for as long as the
+     * report takes to write, see {@link TransactionHistoryRepository}.
+     *
+     * @param out the stream receiving the report; it is not closed.
+     * @param format the format of the report.
+     * @param progress receives the stage and the number of processed rows.
+     * @throws IOException if an error occurs during data retrieval or report generation.
+     */
+    @Transactional(readOnly = true)
+    public void writeReport(OutputStream out, ReportFormat format, ReportProgress progress) throws IOException {
+        try (ReportRun run = reportMetrics.start(ReportType.OVERDUE_PAYMENT)) {
+            progress.stage(ReportProgress.STAGE_LOADING);
+            // Load all policy-product mappings in advance to optimize processing
+            Map<String, String> policyProductCodes = run.time(ReportStage.FETCH, this::loadPolicyProductCodes);
+
+            // Fetch product info for every policy with an overdue payment before streaming the rows
+            Map<String, ProductInfo> productInfoMap = run.time(ReportStage.FETCH, () -> {
+                Set<String> policyNumbers = new HashSet<>(transactionHistoryRepository.findOverduePaymentPolicyNumbers());
+                policyNumbers.remove(null);
+                return fetchProductInfoForPolicyNumbers(policyNumbers);
+            });
+
+            // One row per payee, with the message_image fields already extracted by the database.
+            // Rows are read through a cursor and written to the report as they arrive.
+            ReportRows reportRows = new ReportRows(SCHEMA);
+            try (Stream<Object[]> data = run.time(ReportStage.FETCH, transactionHistoryRepository::streamOverduePaymentPayees);
+                 ReportWriter writer = ReportWriter.open(format, "Transaction History", SCHEMA, run.counting(out))) {
+                Iterator<Object[]> rows = run.fetching(data.iterator());
+                if (!rows.hasNext()) {
+                    throw new IOException("No data found for the report.");
+                }
+
+                progress.stage(ReportProgress.STAGE_TRANSFORMING);
+                List<Object[]> chunk = new ArrayList<>(ENRICHMENT_CHUNK_SIZE);
+                while (rows.hasNext()) {
+                    Object[] row = rows.next();
 
                     // Keep the row if the policy status is not "R"
-                    return productInfo == null || !"R".equals(productInfo.getPolicyStatus());
-                })
-                .collect(Collectors.toList());
-
-
-//        // Transform raw data into a format suitable for Excel
-//        List<List<Object>> transformedData = data.stream()
-//                .flatMap(row -> processRow(row, policyProductCodes, productInfoMap).stream())
-//                .collect(Collectors.toList());
-
-        // Transform the filtered data into a format suitable for Excel
-        List<List<Object>> transformedData = filteredData.stream()
-                .flatMap(row -> processRow(row, policyProductCodes, productInfoMap).stream())
-                .collect(Collectors.toList());
-
-
-        String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
+                    ProductInfo productInfo = productInfoMap.get((String) row[0]);
+                    if (productInfo == null || !"R".equals(productInfo.getPolicyStatus())) {
+                        chunk.add(row);
+                    }
+
+                    if (chunk.size() == ENRICHMENT_CHUNK_SIZE || (!rows.hasNext() && !chunk.isEmpty())) {
+                        writeChunk(chunk, policyProductCodes, productInfoMap, reportRows, writer, run);
+                        progress.rowsProcessed(chunk.size());
+                        chunk.clear();
+                    }
+                }
+
+                progress.stage(ReportProgress.STAGE_WRITING);
+                // Flush the remaining rows, or auto-size the columns and write the workbook
+                run.time(ReportStage.WRITE, writer::finish);
+                run.rowsEmitted(writer.rowsWritten());
+            }
+            run.succeeded();
+        }
+    }
 
-        // Generate the Excel report
-        return generateExcelReportAsBytes(transformedData, timestamp);
+    /**
+     * Loads the party profiles of a chunk of payee rows with bulk calls, then transforms the
+     * rows in parallel and writes them in their original order.
+     *
+     * @param chunk              the payee rows.
+     * @param policyProductCodes map of policy numbers to product codes.
+     * @param productInfoMap     map of policy numbers to product info.
+     * @param reportRows         the buffer the transformed rows are collected in, reused for every chunk.
+     * @param writer             the report receiving the rows.
+     * @param run                the measured report run.
+     */
+    private void writeChunk(List<Object[]> chunk, Map<String, String> policyProductCodes,
+                            Map<String, ProductInfo> productInfoMap, ReportRows reportRows, ReportWriter writer,
+                            ReportRun run) throws IOException {
+        Set<String> partyNumbers = chunk.stream()
+                .map(row -> (String) row[7]) // Taxable Party Number
+                .filter(partyNumber -> partyNumber != null && !partyNumber.isEmpty())
+                .collect(Collectors.toSet());
+        run.time(ReportStage.PARTY, () -> partyProfileCache.getAll(partyNumbers));
+
+        List<List<List<Object>>> transformed = run.time(ReportStage.TRANSFORM,
+                () -> transformExecutor.map(chunk, row -> processRow(row, policyProductCodes, productInfoMap)));
+        run.time(ReportStage.WRITE, () -> {
+            reportRows.clear();
+            for (List<List<Object>> rowData : transformed) {
+                reportRows.addAll(rowData);
+            }
+            writer.writeRows(reportRows);
+        });
     }
 
     /**
@@ -121,132 +198,90 @@ public class OverduePaymentTransactionHistoryService {
     }
 
     /**
-     * Processes a single row of transaction data.
+     * Processes a single payee row of {@link TransactionHistoryRepository#streamOverduePaymentPayees()}.
      *
-     * @param row                the raw data row.
+     * @param row                the payee row.
      * @param policyProductCodes map of policy numbers to product codes.
      * @param productInfoMap
-     * @return a list of lists containing transformed data for each row.
+     * @return a list of lists containing transformed data for the row.
      */
     private List<List<Object>> processRow(Object[] row, Map<String, String> policyProductCodes, Map<String, ProductInfo> productInfoMap) {
-        List<List<Object>> result = new ArrayList<>();
         try {
-            // Parse JSON
-            JsonNode jsonMap = objectMapper.readTree((String) row[0]);
-
-            // Extract policy number and look up product code
-            String polNumber = Optional.ofNullable(jsonMap.get("polNumber")).map(JsonNode::asText).orElse(UNKNOWN);
+            // Look up the product code of the policy
+            String polNumber = Optional.ofNullable((String) row[0]).orElse(UNKNOWN);
             String productCode = policyProductCodes.getOrDefault(polNumber, UNKNOWN);
-            String transExeDate = Optional.ofNullable(jsonMap.get("transExeDate")).map(JsonNode::asText).orElse(UNKNOWN);
-            String suspendCode = Optional.ofNullable(jsonMap.get("suspendCode")).map(JsonNode::asText).orElse(UNKNOWN);
-
-
-
-            // Extract the 'adjustments' node
-            JsonNode adjustments = jsonMap.get("adjustments");
-            if (adjustments == null) {
-                return Collections.emptyList();  // Exit if no adjustments node found
-            }
-
-            // Extract 'arrDestinations' node
-            JsonNode arrDestinations = adjustments.get("arrDestinations");
-            if (arrDestinations == null || !arrDestinations.isArray()) {
-                return Collections.emptyList();  // Exit if no arrDestinations found
-            }
-
-            // Process each jsonMap
-            result.addAll(StreamSupport.stream(arrDestinations.spliterator(), false)
-                    .map(dest -> {
-                        return processDestinationOverduePayment(dest, (BigDecimal) row[1], (Date) row[2], (Date) row[3], transExeDate, polNumber, productCode, productInfoMap, suspendCode);
-                    })
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.toList()));
+            String transExeDate = Optional.ofNullable((String) row[4]).orElse(UNKNOWN);
+            String suspendCode = Optional.ofNullable((String) row[5]).orElse(UNKNOWN);
 
+            return processPayeeOverduePayment(row, (BigDecimal) row[1], (Date) row[3], transExeDate, polNumber, productCode, productInfoMap, suspendCode);
         } catch (Exception e) {
             logger.error("Error processing row", e);
-            result.add(Collections.singletonList("ERROR_PROCESSING_ROW"));
+            return Collections.singletonList(Collections.singletonList("ERROR_PROCESSING_ROW"));
         }
-        return result;
     }
 
     /**
-     * Processes a single destination within a transaction.
+     * Processes a single payee of a transaction.
      *
-     * @param dest           the destination node.
+     * @param row            the payee row.
      * @param grossAmt       the gross amount associated with the transaction.
-     * @param transEffDate   the effective date of the transaction.
+     * @param transRunDate   the run date of the transaction.
      * @param polNumber      the policy number.
      * @param productCode    the product code.
      * @param productInfoMap
-     * @return a list of lists containing processed destination data.
+     * @return a list of lists containing processed payee data.
      */
-    private List<List<Object>> processDestinationOverduePayment(JsonNode dest, BigDecimal grossAmt, Date transEffDate, Date transRunDate, String transExecDate, String polNumber, String productCode, Map<String, ProductInfo> productInfoMap, String suspendCode) {
-
-        // Extract payee info directly from the destination
-        JsonNode payeeInfo = dest.get("payeeInfo");
+    private List<List<Object>> processPayeeOverduePayment(Object[] row, BigDecimal grossAmt, Date transRunDate, String transExecDate, String polNumber, String productCode, Map<String, ProductInfo> productInfoMap, String suspendCode) {
 
-        // Extract payee directly from the destination
-        JsonNode payee = dest.get("payee");
-
-        if (payeeInfo == null) {
-            return Collections.emptyList();
-        }
+        String partyTypeCode = (String) row[6];
 
         ProductInfo productInfo = productInfoMap.getOrDefault(polNumber, new ProductInfo("","", "", "", ""));
 
         // Extract taxable party payee details
-        String residenceState = Optional.ofNullable(payeeInfo.get("taxableToResidenceState")).map(JsonNode::asText).orElse("");
+        String residenceState = Optional.ofNullable((String) row[12]).orElse("");
 
         // Validate and convert residence state
-        String residenceStateText = UNKNOWN;
-        if (!residenceState.isEmpty()) {
-            try {
-                int residenceStateCode = Integer.parseInt(residenceState);
-                residenceStateText = ResidenceStateUtil.getStateName(residenceStateCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid residence state code: {}. Using default '{}'", residenceState, UNKNOWN, e);
+        String residenceStateText = CodeTables.RESIDENCE_STATE.name(residenceState);
+        if (residenceStateText == null) {
+            if (!residenceState.isEmpty()) {
+                logger.warn("Invalid residence state code: {}. Using default '{}'", residenceState, UNKNOWN);
             }
+            residenceStateText = UNKNOWN;
         }
 
-        String residenceCountry = Optional.ofNullable(payeeInfo.get("taxableToResidenceCountry")).map(JsonNode::asText).orElse("");
-        String  partyNumber = Optional.ofNullable(payeeInfo.get("taxablePartyNumber")).map(JsonNode::asText).orElse("");
+        String residenceCountry = Optional.ofNullable((String) row[13]).orElse("");
+        String  partyNumber = Optional.ofNullable((String) row[7]).orElse("");
 
-        //Fetch Party details using Taxable party number
-        Party party = new Party();
-        party = partyClient.getPartyDetails(partyNumber);
+        //Fetch party, person and addresses using Taxable party number, cached across rows and runs
+        PartyProfile partyProfile = partyProfileCache.get(partyNumber);
+        Party party = partyProfile != null ? partyProfile.getParty() : null;
         // Extract government ID and type code
         Party finalParty = party;
-        String govtID = Optional.ofNullable(payeeInfo.get("taxableToGovtID"))
-                .map(JsonNode::asText)
+        String govtID = Optional.ofNullable((String) row[8])
                 .or(() -> Optional.ofNullable(finalParty.getGovtId())) // This acts as an 'else if'
                 .orElse(UNKNOWN);
 
-        String govtIdTC = Optional.ofNullable(payeeInfo.get("taxableToGovtIdTC")).map(JsonNode::asText).orElse(UNKNOWN);
-        // Transform suspendCode using SuspendCodeUtil
-        String transformedSuspendCode = SuspendCodeUtil.getSuspendCodeName(suspendCode);
+        String govtIdTC = Optional.ofNullable((String) row[9]).orElse(UNKNOWN);
+        // Transform suspendCode using CodeTables.SUSPEND_CODE
+        String transformedSuspendCode = Objects.requireNonNullElse(CodeTables.SUSPEND_CODE.name(suspendCode), "Unknown");
 
-        //Fetch person using Taxable party number
-        Person person = new Person();
-        if( partyNumber!=null){
-            person = partyClient.getPersonDetails(partyNumber);
-        }
+        Person person = partyProfile != null ? partyProfile.getPerson() : null;
         String firstName = "";
         String lastName ="";
         String partyFullName = "";
-        if (payee != null && "1".equals(payee.get("partyTypeCode").asText())) {
+        if ("1".equals(partyTypeCode)) {
             firstName = Optional.ofNullable(person.getFirstName()).orElse(UNKNOWN);
             lastName = Optional.ofNullable(person.getLastName()).orElse(UNKNOWN);
             partyFullName = firstName + " " + lastName;
         }
-        else if(payee != null && "2".equals(payee.get("partyTypeCode").asText())){
-            partyFullName = Optional.ofNullable(payeeInfo.get("taxablePartyName")).map(JsonNode::asText).orElse(UNKNOWN);
+        else if("2".equals(partyTypeCode)){
+            partyFullName = Optional.ofNullable((String) row[11]).orElse(UNKNOWN);
         }
 
 
-        // Fetch addresses using Feign client
         List<Address> addresses = Collections.emptyList();
-        if ( partyNumber != null) {
-            addresses = partyClient.getAddresses( partyNumber);
+        if (partyProfile != null && partyProfile.getAddresses() != null) {
+            addresses = partyProfile.getAddresses();
         }
 
         // Find the preferred address and concatenate line1 and line2
@@ -265,7 +300,7 @@ public class OverduePaymentTransactionHistoryService {
         residenceCountry = addresses.stream()
                 .filter(Address::getPrefAddr)
                 .findFirst()
-                .map(address -> ResidenceCountryUtil.getCountryName(Integer.parseInt(address.getAddressCountrytc() != null ? address.getAddressCountrytc() : "0"))).orElse("");
+                .map(address -> CodeTables.RESIDENCE_COUNTRY.name(address.getAddressCountrytc() != null ? address.getAddressCountrytc() : "0")).orElse("");
 
 
         // Find the non-preferred address and concatenate line1 and line2
@@ -280,92 +315,69 @@ public class OverduePaymentTransactionHistoryService {
                         (address.getZip() != null ? "Zip :"+address.getZip()+" " : ""))
                 .orElse("");
 
-        // Transform taxableToGovtIdTCode using GovtIdTCodeUtil
+        // Transform taxableToGovtIdTCode using CodeTables.GOVT_ID_TYPE_CODE
         String transformedGovtIdTCode = UNKNOWN;
         if (govtIdTC != null && !govtIdTC.trim().isEmpty() && govtIdTC!=UNKNOWN) {
-            try {
-                int govtIdTCode = Integer.parseInt(govtIdTC.trim());
-                transformedGovtIdTCode = GovtIdTCodeUtil.getIdTCodeName(govtIdTCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid government ID type code: " + transformedGovtIdTCode, e);
+            transformedGovtIdTCode = CodeTables.GOVT_ID_TYPE_CODE.name(govtIdTC);
+            if (transformedGovtIdTCode == null) {
+                logger.warn("Invalid government ID type code: " + govtIdTC);
+                transformedGovtIdTCode = UNKNOWN;
             }
         }
        else if (govtIdTC.equals(UNKNOWN) && party.getGovtIdtc()!=null) {
-          transformedGovtIdTCode =  GovtIdTCodeUtil.getIdTCodeName(Integer.parseInt(party.getGovtIdtc()));
+          transformedGovtIdTCode = Objects.requireNonNullElse(CodeTables.GOVT_ID_TYPE_CODE.name(party.getGovtIdtc()), UNKNOWN);
        }
         else {
             logger.warn("Empty or null government ID type code: " + transformedGovtIdTCode);
         }
 
-        String taxableToGovtIDStatus = Optional.ofNullable(payeeInfo.get("taxableToGovtIDStat")).map(JsonNode::asText).orElse(UNKNOWN);
-        // Transform taxableToGovtIDStatus using GovtIDStatusUtil
+        String taxableToGovtIDStatus = Optional.ofNullable((String) row[10]).orElse(UNKNOWN);
+        // Transform taxableToGovtIDStatus using CodeTables.GOVT_ID_STATUS
         String transformedGovtIDStatus = "Unknown";
         if (taxableToGovtIDStatus != null && !taxableToGovtIDStatus.trim().isEmpty() && taxableToGovtIDStatus!=UNKNOWN) {
-            try {
-                int govtIDStatusCode = Integer.parseInt(taxableToGovtIDStatus.trim());
-                transformedGovtIDStatus = GovtIDStatusUtil.getStatusName(govtIDStatusCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid government ID status code: " + taxableToGovtIDStatus, e);
+            transformedGovtIDStatus = CodeTables.GOVT_ID_STATUS.name(taxableToGovtIDStatus);
+            if (transformedGovtIDStatus == null) {
+                logger.warn("Invalid government ID status code: " + taxableToGovtIDStatus);
+                transformedGovtIDStatus = "Unknown";
             }
         }
        else if(taxableToGovtIDStatus.equals(UNKNOWN) && party.getGovtIdStat()!=null){
-           transformedGovtIDStatus = GovtIDStatusUtil.getStatusName(Integer.parseInt(party.getGovtIdStat()));
+           transformedGovtIDStatus = Objects.requireNonNullElse(CodeTables.GOVT_ID_STATUS.name(party.getGovtIdStat()), "Unknown");
        }
         else {
             logger.warn("Empty or null government ID status code: " + taxableToGovtIDStatus);
         }
 
         // Extract amounts for overdue payments
-        BigDecimal federalWithholdingAmt = Optional.ofNullable(dest.get("payeeWithholdings"))
-                .map(withholding -> withholding.get("federalWithholdingAmt"))
-                .map(JsonNode::decimalValue)
-                .orElse(BigDecimal.ZERO);
-        BigDecimal stateWithholdingAmt = Optional.ofNullable(dest.get("payeeWithholdings"))
-                .map(withholding -> withholding.get("stateWithholdingAmt"))
-                .map(JsonNode::decimalValue)
-                .orElse(BigDecimal.ZERO);
+        BigDecimal federalWithholdingAmt = Optional.ofNullable((BigDecimal) row[15]).orElse(BigDecimal.ZERO);
+        BigDecimal stateWithholdingAmt = Optional.ofNullable((BigDecimal) row[16]).orElse(BigDecimal.ZERO);
 
 
         // Extract year from transRunDate
         String runYear = transRunDate == null ? "" : new SimpleDateFormat("yyyy").format(transRunDate);
 
-        // Transform productInfo policy status using PolicyStatusUtil
-        String transformedPolicyStatus = "Unknown";
-        if (productInfo.getPolicyStatus() != null && !productInfo.getPolicyStatus().trim().isEmpty()) {
-            try {
-                int policyStatusCode = Integer.parseInt(productInfo.getPolicyStatus().trim());
-                transformedPolicyStatus = PolicyStatusUtil.getPolicyStatusName(policyStatusCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid policy status code: " + productInfo.getPolicyStatus(), e);
-            }
-        } else {
-            logger.warn("Empty or null policy status code: " + productInfo.getPolicyStatus());
+        // Transform productInfo policy status using CodeTables.POLICY_STATUS
+        String transformedPolicyStatus = CodeTables.POLICY_STATUS.name(productInfo.getPolicyStatus());
+        if (transformedPolicyStatus == null) {
+            logger.warn("Invalid, empty or null policy status code: " + productInfo.getPolicyStatus());
+            transformedPolicyStatus = "Unknown";
         }
 
-        // Transform QualPlanType using QualPlanUtil
-        String transformedQualPlanType = "Unknown";
-        if (productInfo.getQualPlanType() != null && !productInfo.getQualPlanType().trim().isEmpty()) {
-            try {
-                String qualPlanType = productInfo.getQualPlanType().trim();
-                transformedQualPlanType = QualPlanUtil.getDisplayName(Integer.parseInt(qualPlanType));
-            } catch (Exception e) {
-                logger.warn("Error transforming QualPlanType: " + productInfo.getQualPlanType(), e);
-            }
-        } else {
-            logger.warn("Empty or null QualPlanType: " + productInfo.getQualPlanType());
+        // Transform QualPlanType using CodeTables.QUAL_PLAN
+        String transformedQualPlanType = CodeTables.QUAL_PLAN.name(productInfo.getQualPlanType());
+        if (transformedQualPlanType == null) {
+            logger.warn("Invalid, empty or null QualPlanType: " + productInfo.getQualPlanType());
+            transformedQualPlanType = "Unknown";
         }
 
-        // Transform payeeStatus using PayeeStatusUtil
-        String payeeStatus = Optional.ofNullable(payeeInfo.get("payeeStatus")).map(JsonNode::asText).orElse(UNKNOWN);
+        // Transform payeeStatus using CodeTables.PAYEE_STATUS
+        String payeeStatus = Optional.ofNullable((String) row[14]).orElse(UNKNOWN);
         String transformedPayeeStatus = null;
         if (payeeStatus != null && !payeeStatus.trim().isEmpty() && payeeStatus!=UNKNOWN) {
-            try {
-                transformedPayeeStatus = PayeeStatusUtil.getDisplayName(Integer.parseInt(payeeStatus.trim()));
-            } catch (NumberFormatException e) {
-                // Handle the case where the string cannot be parsed as an integer
-                // Log the error or set a default value
+            transformedPayeeStatus = CodeTables.PAYEE_STATUS.name(payeeStatus);
+            if (transformedPayeeStatus == null) {
                 System.err.println("Invalid payeeStatus value: " + payeeStatus);
-                transformedPayeeStatus = "Unknown"; // Or another appropriate default value
+                transformedPayeeStatus = "Unknown";
             }
         } else {
             // Handle the case where payeeStatus is null or empty
@@ -398,101 +410,13 @@ public class OverduePaymentTransactionHistoryService {
                 residenceCountry,
                 preferredMailingAddress,
                 mailingAddress,
-                formatBigDecimal(grossAmt),
-                formatBigDecimal(federalWithholdingAmt),
-                formatBigDecimal(stateWithholdingAmt)
+                grossAmt,
+                federalWithholdingAmt,
+                stateWithholdingAmt
 
         );
         return Collections.singletonList(processedData);
     }
-    /**
-     * Generates an Excel report from the given data and timestamp.
-     *
-     * @param data the data to populate the Excel sheet.
-     * @param timestamp the timestamp to be included in the report file name.
-     * @return byte array containing the Excel report.
-     * @throws IOException if an error occurs during Excel report generation.
-     */
-    private byte[] generateExcelReportAsBytes(List<List<Object>> data, String timestamp) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Transaction History");
-
-            // Create the header row for the Excel sheet
-            createHeaderRow(sheet);
-
-            int rowNum = 1;
-            for (List<Object> rowData : data) {
-                Row row = sheet.createRow(rowNum++);
-                // Populate each row with data
-                populateRow(row, rowData, workbook);
-            }
-
-            // Auto-size columns to fit the content
-            autoSizeColumns(sheet);
-
-            // Write the workbook to a byte array output stream
-            workbook.write(baos);
-            return baos.toByteArray();
-        }
-    }
-
-    /**
-     * Creates the header row in the Excel sheet.
-     *
-     * @param sheet the sheet to which the header row will be added.
-     */
-    private void createHeaderRow(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {
-                "runYear","transRunDate","transExeDate","Management Code","Product Code", "polNumber", "Policy Status",
-                "QualPlanType", "Suspend Code", "Party ID","Party Full Name", "Govt ID", "Govt ID Status", "govt ID Type Code",
-                "payeeStatus", "Residence State", "Residence Country", "preferredMailingAddress", "mailingAddress", "YTD Gross amount",
-                "YTD fedral amount", "YTD State amount"
-
-        };
-        IntStream.range(0, headers.length).forEach(i -> {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-        });
-    }
-
-    /**
-     * Populates a row in the Excel sheet with data.
-     *
-     * @param row the row to populate.
-     * @param rowData the data to be inserted into the row.
-     * @param workbook the workbook used to create cell styles.
-     */
-    private void populateRow(Row row, List<Object> rowData, Workbook workbook) {
-        IntStream.range(0, rowData.size()).forEach(i -> {
-            Cell cell = row.createCell(i);
-            Object value = rowData.get(i);
-            if (value instanceof String) {
-                cell.setCellValue((String) value);
-            } else if (value instanceof BigDecimal) {
-                cell.setCellValue(((BigDecimal) value).doubleValue());
-                CellStyle cellStyle = workbook.createCellStyle();
-                DataFormat format = workbook.createDataFormat();
-                cellStyle.setDataFormat(format.getFormat(CURRENCY_FORMAT));
-                cell.setCellStyle(cellStyle);
-            } else {
-                cell.setCellValue(value != null ? value.toString() : "");
-            }
-        });
-    }
-
-    /**
-     * Auto-sizes all columns in the sheet to fit the content.
-     *
-     * @param sheet the sheet in which columns will be auto-sized.
-     */
-    private void autoSizeColumns(Sheet sheet) {
-        int numberOfColumns = sheet.getRow(0).getLastCellNum();
-        IntStream.range(0, numberOfColumns).forEach(sheet::autoSizeColumn);
-    }
-
     /**
      * Formats a Date object as a string in the format "yyyy-MM-dd".
      *
@@ -503,41 +427,21 @@ public class OverduePaymentTransactionHistoryService {
         return date == null ? "" : new SimpleDateFormat(DATE_FORMAT_FOR_EXCEL).format(date);
     }
 
-    /**
-     * Formats a BigDecimal value as a currency string.
-     *
-     * @param value the BigDecimal value to format.
-     * @return formatted currency string.
-     */
-    private String formatBigDecimal(BigDecimal value) {
-        if (value == null) return "";
-        DecimalFormat df = new DecimalFormat(CURRENCY_FORMAT);
-        return df.format(value);
-    }
-
     private Map<String, ProductInfo> fetchProductInfoForPolicyNumbers(Set<String> policyNumbers) {
         // Convert Set to List
         List<String> policyNumberList = new ArrayList<>(policyNumbers);
 
-        // Fetch product info for all policy numbers
-        List<Object[]> productInfoList = policyRepository.findProductInfoByPolicyNumbersOverduePayment(policyNumberList);
-
-        // Map the results to a Map for quick lookup
-        return productInfoList.stream()
-                .collect(Collectors.toMap(
-                        arr -> (String) arr[0], // polNumber
-                        arr -> new ProductInfo((String) arr[0],(String) arr[1], (String) arr[2], (String) arr[3], (String) arr[4]) // managementCode, policyStatus, productCode
-                ));
-    }
-
-    private Set<String> extractPolicyNumbers(List<Object[]> data) {
-        Set<String> policyNumbers = new HashSet<>();
-        for (Object[] row : data) {
-            // Assuming the fourth element is the policy number
-            String policyNumber = (String) row[4]; // Adjust index as necessary
-            policyNumbers.add(policyNumber);
+        // Fetch product info for all policy numbers, one query per batch of policy numbers
+        Map<String, ProductInfo> productInfoMap = new HashMap<>();
+        for (List<String> batch : BatchUtil.partition(policyNumberList, POLICY_BATCH_SIZE)) {
+            // Map the results to a Map for quick lookup
+            productInfoMap.putAll(policyRepository.findProductInfoByPolicyNumbersOverduePayment(batch).stream()
+                    .collect(Collectors.toMap(
+                            arr -> (String) arr[0], // polNumber
+                            arr -> new ProductInfo((String) arr[0],(String) arr[1], (String) arr[2], (String) arr[3], (String) arr[4]) // managementCode, policyStatus, productCode
+                    )));
         }
-        return policyNumbers; // Return the Set directly
+        return productInfoMap;
     }
 
     public String convertDateString(String inputDate) {
@@ -0,0 +1,171 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.Address;
+import com.eqh.application.dto.PartyProfile;
+import com.eqh.application.feignClient.PartyClient;
+import com.eqh.application.utility.BatchUtil;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded, expiring cache of party profiles in front of {@link PartyClient}.
+ * <p>
+ * Parties unknown to the party service are cached as empty profiles so they are not
+ * looked up again on every row. Concurrent requests for the same party share one load.
+ * Bulk loads send their batches in parallel, at most {@code party.client.max-concurrency}
+ * calls at a time; each call is bounded by the Feign timeouts of the party client.
+ */
+@Service
+public class PartyProfileCache implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartyProfileCache.class);
+    private static final int PARTY_BATCH_SIZE = 500;
+
+    private final PartyClient partyClient;
+    private final ExecutorService enrichmentExecutor;
+    private final LoadingCache<String, PartyProfile> cache;
+    private final AtomicLong partyCalls = new AtomicLong();
+
+    @Autowired
+    public PartyProfileCache(PartyClient partyClient,
+                             @Value("${party.cache.maximum-size:50000}") long maximumSize,
+                             @Value("${party.cache.expire-after-write-minutes:60}") long expireAfterWriteMinutes,
+                             @Value("${party.client.max-concurrency:8}") int maxConcurrency) {
+        this.partyClient = partyClient;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.enrichmentExecutor = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "party-enrichment-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build(new PartyProfileLoader());
+    }
+
+    /**
+     * @param partyNumber the party number to look up.
+     * @return the cached or freshly loaded profile; its party is null if the party does not exist.
+     */
+    public PartyProfile get(String partyNumber) {
+        return cache.get(partyNumber);
+    }
+
+    /**
+     * Looks up many parties, loading the missing ones with bulk calls of up to
+     * {@value #PARTY_BATCH_SIZE} parties.
+     *
+     * @param partyNumbers the party numbers to look up.
+     * @return the profile of every requested party number.
+     */
+    public Map<String, PartyProfile> getAll(Collection<String> partyNumbers) {
+        return cache.getAll(partyNumbers);
+    }
+
+    /**
+     * @param partyNumber the party number to look up.
+     * @return the addresses of the party, empty if there are none.
+     */
+    public List<Address> getAddresses(String partyNumber) {
+        PartyProfile profile = get(partyNumber);
+        return profile.getAddresses() != null ? profile.getAddresses() : Collections.emptyList();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the number of calls made to the party service so far.
+     */
+    public long partyCalls() {
+        return partyCalls.get();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public void logStats() {
+        CacheStats stats = cache.stats();
+        logger.info("Party profile cache: size={}, hits={}, misses={}, evictions={}, hitRate={}",
+                cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                String.format("%.2f", stats.hitRate()));
+    }
+
+    @Override
+    public void destroy() {
+        enrichmentExecutor.shutdownNow();
+    }
+
+    private static PartyProfile emptyProfile(String partyNumber) {
+        return new PartyProfile(partyNumber, null, null, Collections.emptyList());
+    }
+
+    private class PartyProfileLoader implements CacheLoader<String, PartyProfile> {
+
+        @Override
+        public PartyProfile load(String partyNumber) {
+            partyCalls.incrementAndGet();
+            PartyProfile profile = partyClient.getPartyProfile(partyNumber);
+            return profile != null ? profile : emptyProfile(partyNumber);
+        }
+
+        @Override
+        public Map<String, PartyProfile> loadAll(Set<? extends String> partyNumbers) {
+            // Send the batches concurrently, bounded by the size of the enrichment pool
+            List<CompletableFuture<List<PartyProfile>>> calls = new ArrayList<>();
+            for (List<String> batch : BatchUtil.partition(new ArrayList<String>(partyNumbers), PARTY_BATCH_SIZE)) {
+                partyCalls.incrementAndGet();
+                calls.add(CompletableFuture.supplyAsync(() -> partyClient.getPartyProfiles(batch), enrichmentExecutor));
+            }
+
+            Map<String, PartyProfile> profiles = new HashMap<>();
+            try {
+                for (CompletableFuture<List<PartyProfile>> call : calls) {
+                    for (PartyProfile profile : call.join()) {
+                        profiles.put(profile.getPartyNumber(), profile);
+                    }
+                }
+            } catch (CompletionException e) {
+                calls.forEach(call -> call.cancel(true));
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+            Map<String, PartyProfile> result = new LinkedHashMap<>();
+            for (String partyNumber : partyNumbers) {
+                result.put(partyNumber, profiles.getOrDefault(partyNumber, emptyProfile(partyNumber)));
+            }
+            return result;
+        }
+    }
+}
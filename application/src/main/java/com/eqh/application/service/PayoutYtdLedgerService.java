@@ -0,0 +1,96 @@
+package com.eqh.application.service;
+
+import com.eqh.application.repository.PayoutYtdLedgerRepository;
+import com.eqh.application.utility.BatchUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Keeps the YTD withholding ledger up to date with PAYOUT_PAYMENT_HISTORY.
+ * <p>
+ * Each refresh reloads the ledger rows of every policy with a payment, deduction or
+ * adjustment updated since the previous refresh, and stores the start time of its
+ * transaction, all in one transaction that holds the watermark row lock. The rows are
+ * replaced rather than added to, so reversals and deductions or adjustments recorded after
+ * their payment are picked up, and reloading a policy twice does no harm.
+ * <p>
+ * update_timestamp is set before the writing transaction commits, so every refresh also
+ * looks again at the rows updated within {@code payout.ytd.update-overlap-minutes} before the
+ * previous one. Rows committed later than that after they were stamped need a rebuild.
+ */
+@Service
+public class PayoutYtdLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayoutYtdLedgerService.class);
+    private static final int POLICY_BATCH_SIZE = 1000;
+
+    private final PayoutYtdLedgerRepository ledgerRepository;
+    private final long updateOverlapMinutes;
+
+    @Autowired
+    public PayoutYtdLedgerService(PayoutYtdLedgerRepository ledgerRepository,
+                                  @Value("${payout.ytd.update-overlap-minutes:10}") long updateOverlapMinutes) {
+        this.ledgerRepository = ledgerRepository;
+        this.updateOverlapMinutes = updateOverlapMinutes;
+    }
+
+    /**
+     * Reloads the ledger rows of the policies with payments updated since the last refresh;
+     * the first refresh loads the whole ledger.
+     *
+     * @return the number of ledger rows inserted or updated.
+     */
+    @Transactional
+    public int refresh() {
+        Timestamp lastUpdateTimestamp = ledgerRepository.lockLastUpdateTimestamp();
+        if (lastUpdateTimestamp == null) {
+            return reloadAll();
+        }
+        Timestamp refreshTimestamp = ledgerRepository.findTransactionTimestamp();
+        Timestamp since = Timestamp.valueOf(lastUpdateTimestamp.toLocalDateTime().minusMinutes(updateOverlapMinutes));
+        List<String> policyNumbers = ledgerRepository.findPolicyNumbersUpdatedSince(since);
+        int rows = reload(policyNumbers);
+        ledgerRepository.updateLastUpdateTimestamp(refreshTimestamp);
+        logger.info("Reloaded " + policyNumbers.size() + " policies with payments updated since " + since
+                + " into the YTD ledger, " + rows + " rows updated");
+        return rows;
+    }
+
+    /**
+     * Recomputes the whole ledger from PAYOUT_PAYMENT_HISTORY.
+     *
+     * @return the number of ledger rows written.
+     */
+    @Transactional
+    public int rebuild() {
+        ledgerRepository.lockLastUpdateTimestamp();
+        return reloadAll();
+    }
+
+    private int reloadAll() {
+        Timestamp refreshTimestamp = ledgerRepository.findTransactionTimestamp();
+        int deleted = ledgerRepository.deleteAllEntries();
+        logger.info("Rebuilding YTD ledger, removed " + deleted + " rows");
+        List<String> policyNumbers = ledgerRepository.findPolicyNumbersWithPayments();
+        int rows = reload(policyNumbers);
+        ledgerRepository.updateLastUpdateTimestamp(refreshTimestamp);
+        logger.info("Loaded " + policyNumbers.size() + " policies into the YTD ledger, " + rows + " rows written");
+        return rows;
+    }
+
+    private int reload(List<String> policyNumbers) {
+        int rows = 0;
+        for (List<String> batch : BatchUtil.partition(policyNumbers, POLICY_BATCH_SIZE)) {
+            ledgerRepository.deleteEntriesByPolicyNumbers(batch);
+            rows += ledgerRepository.applyPaymentHistory(batch);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,133 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.YtdTotals;
+import com.eqh.application.repository.PayoutPaymentHistoryAdjustmentRepository;
+import com.eqh.application.repository.PayoutPaymentHistoryDeductionRepository;
+import com.eqh.application.repository.PayoutPaymentHistoryRepository;
+import com.eqh.application.repository.PayoutYtdLedgerRepository;
+import com.eqh.application.utility.BatchUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Loads the YTD gross, withholding fee and adjustment totals of the periodic payout
+ * reports with grouped queries, one round of queries per batch of policy numbers,
+ * instead of five sum queries per report row.
+ * <p>
+ * Tax year totals read the withholdings from the YTD ledger instead, see
+ * {@link PayoutYtdLedgerService}.
+ */
+@Service
+public class PayoutYtdService {
+
+    private static final int POLICY_BATCH_SIZE = 1000;
+
+    private final PayoutPaymentHistoryRepository payoutPaymentHistoryRepository;
+    private final PayoutPaymentHistoryDeductionRepository payoutPaymentHistoryDeductionRepository;
+    private final PayoutPaymentHistoryAdjustmentRepository payoutPaymentHistoryAdjustmentRepository;
+    private final PayoutYtdLedgerRepository payoutYtdLedgerRepository;
+    private final PayoutYtdLedgerService payoutYtdLedgerService;
+
+    @Autowired
+    public PayoutYtdService(PayoutPaymentHistoryRepository payoutPaymentHistoryRepository,
+                            PayoutPaymentHistoryDeductionRepository payoutPaymentHistoryDeductionRepository,
+                            PayoutPaymentHistoryAdjustmentRepository payoutPaymentHistoryAdjustmentRepository,
+                            PayoutYtdLedgerRepository payoutYtdLedgerRepository,
+                            PayoutYtdLedgerService payoutYtdLedgerService) {
+        this.payoutPaymentHistoryRepository = payoutPaymentHistoryRepository;
+        this.payoutPaymentHistoryDeductionRepository = payoutPaymentHistoryDeductionRepository;
+        this.payoutPaymentHistoryAdjustmentRepository = payoutPaymentHistoryAdjustmentRepository;
+        this.payoutYtdLedgerRepository = payoutYtdLedgerRepository;
+        this.payoutYtdLedgerService = payoutYtdLedgerService;
+    }
+
+    /**
+     * YTD totals of payouts executed within {@code [startDate, endDate]}.
+     */
+    public YtdTotals loadYtdTotals(Collection<String> policyNumbers, LocalDateTime startDate, LocalDateTime endDate) {
+        YtdTotals totals = new YtdTotals();
+        for (List<String> batch : BatchUtil.partition(policyNumbers, POLICY_BATCH_SIZE)) {
+            putGrossAmounts(totals, payoutPaymentHistoryRepository.sumGrossAmountByPolicyNumbers(batch, startDate, endDate));
+            payoutPaymentHistoryRepository.findPolicyNumbersWithPayouts(batch, startDate, endDate)
+                    .forEach(totals::addPolicyWithPayouts);
+            putFeeAmounts(totals, payoutPaymentHistoryDeductionRepository.sumFeeAmtByPolicyAndPayee(batch, startDate, endDate));
+            putAdjustmentValues(totals, payoutPaymentHistoryAdjustmentRepository.sumAdjustmentValueByPolicyAndPayee(batch, startDate, endDate));
+        }
+        return totals;
+    }
+
+    /**
+     * YTD totals of payouts executed after {@code date}.
+     */
+    public YtdTotals loadYtdTotalsAfter(Collection<String> policyNumbers, LocalDateTime date) {
+        YtdTotals totals = new YtdTotals();
+        for (List<String> batch : BatchUtil.partition(policyNumbers, POLICY_BATCH_SIZE)) {
+            putGrossAmounts(totals, payoutPaymentHistoryRepository.sumGrossAmountByPolicyNumbers(batch, date));
+            payoutPaymentHistoryRepository.findPolicyNumbersWithPayouts(batch, date)
+                    .forEach(totals::addPolicyWithPayouts);
+            putFeeAmounts(totals, payoutPaymentHistoryDeductionRepository.sumFeeAmtByPolicyAndPayee(batch, date));
+            putAdjustmentValues(totals, payoutPaymentHistoryAdjustmentRepository.sumAdjustmentValueByPolicyAndPayee(batch, date));
+        }
+        return totals;
+    }
+
+    /**
+     * YTD totals of the payouts of a tax year. The ledger is refreshed first, then the
+     * withholdings are read from it with one indexed query per batch of policy numbers.
+     * All amounts, the gross included, cover the whole calendar year.
+     */
+    public YtdTotals loadTaxYearTotals(Collection<String> policyNumbers, int taxYear) {
+        payoutYtdLedgerService.refresh();
+        LocalDateTime startDate = LocalDate.of(taxYear, 1, 1).atStartOfDay();
+        LocalDateTime endDate = LocalDate.of(taxYear, 12, 31).atTime(LocalTime.MAX);
+        YtdTotals totals = new YtdTotals();
+        for (List<String> batch : BatchUtil.partition(policyNumbers, POLICY_BATCH_SIZE)) {
+            putGrossAmounts(totals, payoutPaymentHistoryRepository.sumGrossAmountByPolicyNumbers(batch, startDate, endDate));
+            putLedgerEntries(totals, payoutYtdLedgerRepository.findByTaxYearAndPolicyNumbers(taxYear, batch));
+        }
+        return totals;
+    }
+
+    private void putLedgerEntries(YtdTotals totals, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            String polNumber = (String) row[0];
+            String payeePartyNumber = (String) row[1];
+            if (((Number) row[2]).longValue() > 0) {
+                totals.addPolicyWithPayouts(polNumber);
+            }
+            // Withholdings of policies in status 'R' are left out, as by the sum queries
+            if (Boolean.TRUE.equals(row[7])) {
+                totals.putFeeAmounts(polNumber, payeePartyNumber, toDouble(row[3]), toDouble(row[4]));
+                totals.putAdjustmentValues(polNumber, payeePartyNumber, toDouble(row[5]), toDouble(row[6]));
+            }
+        }
+    }
+
+    private void putGrossAmounts(YtdTotals totals, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            totals.putGrossAmount((String) row[0], toDouble(row[1]));
+        }
+    }
+
+    private void putFeeAmounts(YtdTotals totals, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            totals.putFeeAmounts((String) row[0], (String) row[1], toDouble(row[2]), toDouble(row[3]));
+        }
+    }
+
+    private void putAdjustmentValues(YtdTotals totals, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            totals.putAdjustmentValues((String) row[0], (String) row[1], toDouble(row[2]), toDouble(row[3]));
+        }
+    }
+
+    private Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+}
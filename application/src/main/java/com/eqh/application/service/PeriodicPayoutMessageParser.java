@@ -0,0 +1,75 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.PeriodicPayoutMessage;
+import com.eqh.application.utility.JsonFieldExtractor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Parses PeriodicPayout message_image documents into {@link PeriodicPayoutMessage}s so
+ * each document is read once per report run.
+ */
+@Component
+public class PeriodicPayoutMessageParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeriodicPayoutMessageParser.class);
+    private static final JsonFieldExtractor FIELDS = JsonFieldExtractor.forPaths(
+            "polNumber", "transExeDate", "transRunDate", "suspendCode", "payeePayouts");
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public PeriodicPayoutMessageParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param messageImage the message_image JSON of a transaction.
+     * @return the parsed message, or null if the JSON cannot be parsed.
+     */
+    public PeriodicPayoutMessage parse(String messageImage) {
+        // Only the fields the reports use are built; the rest of the document is skipped
+        ObjectNode jsonNode = objectMapper.createObjectNode();
+        try {
+            jsonNode.setAll(FIELDS.extract(objectMapper, messageImage));
+        } catch (IOException e) {
+            logger.error("Error parsing JSON for message: " + messageImage, e);
+            return null;
+        }
+
+        PeriodicPayoutMessage message = new PeriodicPayoutMessage();
+        message.setPolNumber(jsonNode.path("polNumber").asText());
+        message.setTransExeDate(jsonNode.path("transExeDate").asText());
+        message.setTransRunDate(jsonNode.path("transRunDate").asText());
+        message.setSuspendCode(jsonNode.path("suspendCode").asText());
+
+        // Process payeePayouts array, keeping the last value of each payee field
+        JsonNode payeePayoutsNode = jsonNode.path("payeePayouts");
+        if (payeePayoutsNode.isArray()) {
+            for (JsonNode payout : payeePayoutsNode) {
+                message.setTaxablePartyNumber(payout.path("taxablePartyNumber").asText(message.getTaxablePartyNumber()));
+                message.setTaxableToGovtID(payout.path("taxableToGovtID").asText(message.getTaxableToGovtID()));
+                message.setTaxablePartyName(payout.path("taxablePartyName").asText(message.getTaxablePartyName()));
+                message.setTaxableToGovtIDStatus(payout.path("taxableToGovtIDStat").asText(message.getTaxableToGovtIDStatus()));
+                message.setTaxableToGovtIdTCode(payout.path("taxableToGovtIdTC").asText(message.getTaxableToGovtIdTCode()));
+                message.setTaxableToResidenceState(payout.path("taxableToResidenceState").asText(message.getTaxableToResidenceState()));
+                message.setPayeeStatus(payout.path("payeeStatus").asText(message.getPayeeStatus()));
+                message.setTaxableToResidenceCountry(payout.path("taxableToResidenceCountry").asText(message.getTaxableToResidenceCountry()));
+
+                String taxablePartyNumber = payout.path("taxablePartyNumber").asText();
+                if (!taxablePartyNumber.isEmpty()) {
+                    message.getTaxablePartyNumbers().add(taxablePartyNumber);
+                }
+            }
+        }
+
+        return message;
+    }
+}
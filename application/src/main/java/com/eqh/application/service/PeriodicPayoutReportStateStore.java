@@ -0,0 +1,72 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.PeriodicPayoutReportState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Keeps the state of the incremental periodic payout report in a local JSON file.
+ * <p>
+ * The file is replaced atomically, so a failed run leaves the state of the previous run.
+ */
+@Component
+public class PeriodicPayoutReportStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeriodicPayoutReportStateStore.class);
+    private static final String PARTIAL_FILE_EXTENSION = ".part";
+
+    private final ObjectMapper objectMapper;
+    private final Path stateFile;
+
+    @Autowired
+    public PeriodicPayoutReportStateStore(
+            ObjectMapper objectMapper,
+            @Value("${report.incremental.state-file:${java.io.tmpdir}/report-state/periodic-payout-date-range.json}") String stateFile) {
+        this.objectMapper = objectMapper;
+        this.stateFile = Path.of(stateFile);
+    }
+
+    /**
+     * @return the stored state, empty if there is none or it cannot be read.
+     */
+    public Optional<PeriodicPayoutReportState> load() {
+        if (!Files.exists(stateFile)) {
+            return Optional.empty();
+        }
+        try (InputStream in = Files.newInputStream(stateFile)) {
+            return Optional.of(objectMapper.readValue(in, PeriodicPayoutReportState.class));
+        } catch (IOException e) {
+            // An unreadable state only costs a full rebuild
+            logger.warn("Could not read report state {}, rebuilding it", stateFile, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the stored state.
+     *
+     * @param state the state to store.
+     * @throws IOException if the state cannot be written.
+     */
+    public void save(PeriodicPayoutReportState state) throws IOException {
+        Path parent = stateFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path partialFile = parent.resolve(stateFile.getFileName() + PARTIAL_FILE_EXTENSION);
+        try (OutputStream out = Files.newOutputStream(partialFile)) {
+            objectMapper.writeValue(out, state);
+        }
+        Files.move(partialFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
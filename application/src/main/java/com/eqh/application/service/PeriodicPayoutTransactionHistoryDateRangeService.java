@@ -1,71 +1,72 @@
 package com.eqh.application.service;
 
 import com.eqh.application.dto.Address;
-import com.eqh.application.dto.ProcessedRow;
+import com.eqh.application.dto.PartyProfile;
+import com.eqh.application.dto.PeriodicPayoutMessage;
+import com.eqh.application.dto.PeriodicPayoutReportContext;
+import com.eqh.application.dto.PeriodicPayoutReportState;
 import com.eqh.application.dto.ProductInfo;
+import com.eqh.application.dto.ReportFormat;
+import com.eqh.application.dto.ReportType;
+import com.eqh.application.dto.YtdTotals;
 import com.eqh.application.dto.ytdResponse;
-import com.eqh.application.entity.PayoutPaymentHistory;
-import com.eqh.application.feignClient.PartyClient;
 import com.eqh.application.repository.*;
 import com.eqh.application.utility.*;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 @Service
 public class PeriodicPayoutTransactionHistoryDateRangeService {
 
     private static final Logger logger = LoggerFactory.getLogger(PeriodicPayoutTransactionHistoryDateRangeService.class);
-    private static final String DATE_FORMAT = "MMddyyyy_HHmmss";
-    private static final String DATE_FORMAT_FOR_EXCEL = "MM-dd-yyyy";
-    private static final String DATE_FORMAT_FOR_DISPLAY = "MM/dd/yyyy";
-    private static final String CURRENCY_FORMAT = "$#,##0.00";
     private static final String[] HEADERS = {
             "runYear", "transRunDate","transExeDate","Management Code",  "Product Code", "polNumber", "Policy Status",
             "QualPlanType","Suspend Code","Party ID", "Party Full Name","Govt ID", "Govt ID Status",
             "govt ID Type Code","payeeStatus", "Residence State" , "Residence Country", "preferredMailingAddress",
             "mailingAddress",   "YTD Gross amount" ,"YTD fedral amount ","YTD State amount"
     };
+    private static final ReportSchema SCHEMA = ReportSchema.of(HEADERS, "YTD Gross amount", "YTD fedral amount ",
+            "YTD State amount")
+            .withDictionary("runYear", "transRunDate", "transExeDate", "Management Code", "Product Code",
+                    "Policy Status", "QualPlanType", "Suspend Code", "Govt ID Status", "govt ID Type Code", "payeeStatus",
+                    "Residence State", "Residence Country");
     private static final String TWENTY_CONSTANT = "20";
     private static final String TWENTY_ONE_CONSTANT = "21";
     private static final String ZERO_CONSTANT = "0";
     private static final String TWO_CONSTANT = "2";
     private static final String ONE_CONSTANT = "1";
     private static final String THREE_CONSTANT = "3";
+    private static final int POLICY_BATCH_SIZE = 1000;
+    // Messages transformed together before their rows are added to the report buffer
+    private static final int TRANSFORM_CHUNK_SIZE = 1000;
     private final PeriodicPayoutTransactionHistoryRepository repository;
     private final PolicyRepository policyRepository;
     private final ObjectMapper objectMapper;
-    private final SimpleDateFormat excelDateFormat = new SimpleDateFormat(DATE_FORMAT_FOR_EXCEL);
-    private final SimpleDateFormat displayDateFormat = new SimpleDateFormat(DATE_FORMAT_FOR_DISPLAY);
-    private final DecimalFormat currencyFormat = new DecimalFormat(CURRENCY_FORMAT);
-    private final PartyClient partyClient;
-    private final PayoutPaymentHistoryRepository payoutPaymentHistoryRepository;
-    private final PolicyPayoutRepository policyPayoutRepository;
-    private final PayoutPayeeRepository payoutPayeeRepository;
-    private final PayoutPaymentHistoryAdjustmentRepository payoutPaymentHistoryAdjustmentRepository;
-    private final PayoutPaymentHistoryDeductionRepository payoutPaymentHistoryDeductionRepository;
-    private final ProcessedRow processedRow = new ProcessedRow();
-    private ytdResponse ytres = new ytdResponse();
+    private final PartyProfileCache partyProfileCache;
+    private final PayoutYtdService payoutYtdService;
+    private final PeriodicPayoutMessageParser payoutMessageParser;
+    private final ReportTransformExecutor transformExecutor;
+    private final PeriodicPayoutReportStateStore reportStateStore;
+    private final ReportMetrics reportMetrics;
+    private final Object incrementalStateLock = new Object();
     @Value("${payout.start.date}")
     private String startDate;
     @Value("${payout.transaction.start.date}")
@@ -73,6 +74,12 @@ public class PeriodicPayoutTransactionHistoryDateRangeService {
 
     @Value("${payout.transaction.end.date}")
     private String payoutTransExectEndDate;
+    // Read the YTD withholdings from the YTD ledger, over the whole calendar year of the end date.
+    // Only the full report does, the incremental state keeps the totals of its own range
+    @Value("${payout.ytd.use-ledger:false}")
+    private boolean ytdFromLedger;
+    @Value("${report.incremental.update-overlap-minutes:10}")
+    private long updateOverlapMinutes;
 
 
 
@@ -81,21 +88,21 @@ public class PeriodicPayoutTransactionHistoryDateRangeService {
             PeriodicPayoutTransactionHistoryRepository repository,
             PolicyRepository policyRepository,
             ObjectMapper objectMapper,
-            PartyClient partyClient,
-            PayoutPaymentHistoryRepository payoutPaymentHistoryRepository,
-            PolicyPayoutRepository policyPayoutRepository,
-            PayoutPayeeRepository payoutPayeeRepository,
-            PayoutPaymentHistoryAdjustmentRepository payoutPaymentHistoryAdjustmentRepository,
-            PayoutPaymentHistoryDeductionRepository payoutPaymentHistoryDeductionRepository) {
+            PartyProfileCache partyProfileCache,
+            PayoutYtdService payoutYtdService,
+            PeriodicPayoutMessageParser payoutMessageParser,
+            ReportTransformExecutor transformExecutor,
+            PeriodicPayoutReportStateStore reportStateStore,
+            ReportMetrics reportMetrics) {
         this.repository = repository;
         this.policyRepository = policyRepository;
         this.objectMapper = objectMapper;
-        this.partyClient = partyClient;
-        this.payoutPaymentHistoryRepository = payoutPaymentHistoryRepository;
-        this.policyPayoutRepository = policyPayoutRepository;
-        this.payoutPayeeRepository = payoutPayeeRepository;
-        this.payoutPaymentHistoryAdjustmentRepository = payoutPaymentHistoryAdjustmentRepository;
-        this.payoutPaymentHistoryDeductionRepository = payoutPaymentHistoryDeductionRepository;
+        this.partyProfileCache = partyProfileCache;
+        this.payoutYtdService = payoutYtdService;
+        this.payoutMessageParser = payoutMessageParser;
+        this.transformExecutor = transformExecutor;
+        this.reportStateStore = reportStateStore;
+        this.reportMetrics = reportMetrics;
     }
 
     public byte[] getMessageImagesAsJson() throws IOException {
@@ -127,69 +134,229 @@ public class PeriodicPayoutTransactionHistoryDateRangeService {
         return objectMapper.writeValueAsBytes(messageImages);
     }
 
-    public byte[] generateReportAsBytes() throws IOException {
-        LocalDateTime startRangeDate = LocalDateTime.parse(payoutTransExectStartDate);
-        LocalDateTime endRangeDate = LocalDateTime.parse(payoutTransExectEndDate);
-        // Convert startDate to LocalDate
-        List<Object[]> data = repository.findLatestTransactions(startRangeDate, endRangeDate);
+    public void writeReport(OutputStream out) throws IOException {
+        writeReport(out, ReportProgress.NONE);
+    }
 
-        logger.info("Fetching transactions history size: " + data.size() + " for date: " + startRangeDate);
-        if (data.isEmpty()) {
-            throw new IOException("No data found for the report.");
-        }
+    /**
+     * Generates the periodic payout report, reporting its progress.
+     *
+     * @param out the stream receiving the Excel report; it is not closed.
+     * @param progress receives the stage and the number of processed rows.
+     * @throws IOException if an error occurs during data retrieval or report generation.
+     */
+    public void writeReport(OutputStream out, ReportProgress progress) throws IOException {
+        writeReport(out, ReportFormat.XLSX, progress);
+    }
 
-        // Extract unique policy numbers
-        Set<String> policyNumbers = extractPolicyNumbers(data);
-        // Fetch product info for all policy numbers
-        Map<String, ProductInfo> productInfoMap = fetchProductInfoForPolicyNumbers(policyNumbers);
-        // Extract unique taxable party numbers
-        Set<String> uniqueTaxablePartyNumbers = extractUniqueTaxablePartyNumbers(data);
-        // Fetch mailing addresses for unique taxable party numbers
-        Map<String, Map<String, String>> mailingAddressesMap = fetchMailingAddressesForTaxablePartyNumbers(uniqueTaxablePartyNumbers);
-        // Prepare YTD response object
-        ytdResponse ytdObj = new ytdResponse();
-        // Combine all payouts from all policy numbers
-        List<Object[]> periodicPayoutUponPolNumber = new ArrayList<>();
-        List<Object[]> overduePeriodicPayoutUponPolNumber = new ArrayList<>();
-
-        for(Map.Entry<String, ProductInfo> entry : productInfoMap.entrySet()) {
-            periodicPayoutUponPolNumber.addAll(repository.findPayoutTransactionsByPolicyNumber(entry.getKey(),startRangeDate,endRangeDate));
-//            overduePeriodicPayoutUponPolNumber.addAll(repository.findOverduePaymentsByPolicyNumberAndDate(entry.getKey(), startRangeDate));
-        }
+    /**
+     * Generates the periodic payout report in the given format, reporting its progress.
+     *
+     * @param out the stream receiving the report; it is not closed.
+     * @param format the format of the report.
+     * @param progress receives the stage and the number of processed rows.
+     * @throws IOException if an error occurs during data retrieval or report generation.
+     */
+    public void writeReport(OutputStream out, ReportFormat format, ReportProgress progress) throws IOException {
+        try (ReportRun run = reportMetrics.start(ReportType.PERIODIC_PAYOUT_DATE_RANGE)) {
+            progress.stage(ReportProgress.STAGE_LOADING);
+            LocalDateTime startRangeDate = LocalDateTime.parse(payoutTransExectStartDate);
+            LocalDateTime endRangeDate = LocalDateTime.parse(payoutTransExectEndDate);
+            // Convert startDate to LocalDate
+            List<Object[]> data = run.time(ReportStage.FETCH, () -> repository.findLatestTransactions(startRangeDate, endRangeDate));
+
+            logger.info("Fetching transactions history size: " + data.size() + " for date: " + startRangeDate);
+            if (data.isEmpty()) {
+                throw new IOException("No data found for the report.");
+            }
 
-/*        for (String policyNumber : policyNumbers) {
-            periodicPayoutUponPolNumber.addAll(repository.findPayoutTransactionsByPolicyNumber(policyNumber, startRangeDate));
-        }*/
+            // Extract unique policy numbers
+            Set<String> policyNumbers = extractPolicyNumbers(data);
+            // Fetch product info for all policy numbers
+            Map<String, ProductInfo> productInfoMap = run.time(ReportStage.FETCH, () -> fetchProductInfoForPolicyNumbers(policyNumbers));
+            // Load the YTD totals of all policies with a few grouped queries
+            YtdTotals ytdTotals = run.time(ReportStage.YTD, () -> ytdFromLedger
+                    ? payoutYtdService.loadTaxYearTotals(productInfoMap.keySet(), endRangeDate.getYear())
+                    : payoutYtdService.loadYtdTotals(productInfoMap.keySet(), startRangeDate, endRangeDate));
+            // Fetch the latest payout of every policy, one query per batch of policy numbers
+            List<Object[]> periodicPayoutUponPolNumber = new ArrayList<>();
+            run.time(ReportStage.FETCH, () -> {
+                for (List<String> batch : BatchUtil.partition(productInfoMap.keySet(), POLICY_BATCH_SIZE)) {
+                    periodicPayoutUponPolNumber.addAll(repository.findLatestPayoutTransactionsByPolicyNumbers(batch, startRangeDate, endRangeDate));
+                }
+            });
+            run.rowsFetched(periodicPayoutUponPolNumber.size());
+
+            if (periodicPayoutUponPolNumber.isEmpty()) {
+                throw new IOException("No payout transactions found for the specified policies.");
+            }
 
-        if (periodicPayoutUponPolNumber.isEmpty()) {
-            throw new IOException("No payout transactions found for the specified policies.");
+            // Parse every payout message once; the later stages only read the parsed messages
+            List<PeriodicPayoutMessage> messages = run.time(ReportStage.PARSE, () -> transformExecutor.map(periodicPayoutUponPolNumber,
+                    row -> payoutMessageParser.parse((String) row[0])));
+            // Extract unique taxable party numbers
+            Set<String> uniqueTaxablePartyNumbers = messages.stream()
+                    .filter(Objects::nonNull)
+                    .flatMap(message -> message.getTaxablePartyNumbers().stream())
+                    .collect(Collectors.toSet());
+            // Fetch mailing addresses for unique taxable party numbers
+            Map<String, Map<String, String>> mailingAddressesMap = run.time(ReportStage.PARTY,
+                    () -> fetchMailingAddressesForTaxablePartyNumbers(uniqueTaxablePartyNumbers));
+
+            // Transform the rows in parallel and write them chunk by chunk; they only read the lookups of this run
+            PeriodicPayoutReportContext context = new PeriodicPayoutReportContext(productInfoMap, mailingAddressesMap, ytdTotals);
+            progress.stage(ReportProgress.STAGE_TRANSFORMING);
+            writeRows(messages, context, format, out, progress, run);
+            run.succeeded();
         }
+    }
 
-        // Transform data
-        List<List<Object>> transformedData = periodicPayoutUponPolNumber.stream()
-                .map(row -> processRow(row, productInfoMap, mailingAddressesMap, ytdObj))
-                .collect(Collectors.toList());
+    /**
+     * Generates the date range report from the stored report state, first bringing the state
+     * up to date with the transactions executed after its watermark.
+     * <p>
+     * Policies with new PeriodicPayout transactions, and known policies with any row of the YTD
+     * sums executed after the watermark or inserted or updated since the previous run, get their
+     * latest payout and YTD totals loaded again over the whole range. Reversed rows thus drop
+     * out as in a full run, and a policy left without any payout leaves the report. The YTD
+     * totals always cover the configured range, payout.ytd.use-ledger is ignored. The state is
+     * rebuilt from the start of the range when there is none, when the configured start date
+     * changed, or on request.
+     *
+     * @param out the stream receiving the Excel report; it is not closed.
+     * @param progress receives the stage and the number of processed rows.
+     * @param rebuild whether to discard the stored state and process the whole range.
+     * @throws IOException if an error occurs during data retrieval or report generation.
+     */
+    public void writeIncrementalReport(OutputStream out, ReportProgress progress, boolean rebuild) throws IOException {
+        writeIncrementalReport(out, ReportFormat.XLSX, progress, rebuild);
+    }
 
-        // Generate timestamp
-        String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
+    /**
+     * Generates the incremental date range report like
+     * {@link #writeIncrementalReport(OutputStream, ReportProgress, boolean)}, in the given format.
+     *
+     * @param out the stream receiving the report; it is not closed.
+     * @param format the format of the report.
+     * @param progress receives the stage and the number of processed rows.
+     * @param rebuild whether to discard the stored state and process the whole range.
+     * @throws IOException if an error occurs during data retrieval or report generation.
+     */
+    public void writeIncrementalReport(OutputStream out, ReportFormat format, ReportProgress progress,
+                                       boolean rebuild) throws IOException {
+        try (ReportRun run = reportMetrics.start(ReportType.PERIODIC_PAYOUT_INCREMENTAL)) {
+            progress.stage(ReportProgress.STAGE_LOADING);
+            LocalDateTime startRangeDate = LocalDateTime.parse(payoutTransExectStartDate);
+            LocalDateTime endRangeDate = LocalDateTime.parse(payoutTransExectEndDate);
+            // Never move the watermark past now, rows may still arrive for the current time
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            LocalDateTime endDate = endRangeDate.isBefore(now) ? endRangeDate : now;
+
+            PeriodicPayoutReportState state;
+            synchronized (incrementalStateLock) {
+                state = rebuild ? null : reportStateStore.load()
+                        .filter(stored -> startRangeDate.equals(stored.getRangeStart()))
+                        .filter(stored -> stored.getWatermark() != null && !stored.getWatermark().isAfter(endDate))
+                        .orElse(null);
+                LocalDateTime fromDate;
+                LocalDateTime updatedFrom;
+                if (state == null) {
+                    logger.info("Building periodic payout report state from " + startRangeDate);
+                    state = new PeriodicPayoutReportState();
+                    state.setRangeStart(startRangeDate);
+                    fromDate = startRangeDate;
+                    updatedFrom = null;
+                } else {
+                    // The range queries include both bounds, the watermark row itself is already processed
+                    fromDate = state.getWatermark().plus(1, ChronoUnit.MICROS);
+                    LocalDateTime updatedWatermark = state.getUpdatedWatermark() != null
+                            ? state.getUpdatedWatermark() : state.getWatermark();
+                    updatedFrom = updatedWatermark.minusMinutes(updateOverlapMinutes);
+                }
+
+                applyTransactions(state, fromDate, endDate, updatedFrom, now, run);
+                state.setWatermark(endDate);
+                state.setUpdatedWatermark(now);
+                reportStateStore.save(state);
+            }
+
+            if (state.getLatestPayouts().isEmpty()) {
+                throw new IOException("No data found for the report.");
+            }
 
-        // Generate and return the Excel report as bytes
-        return generateExcelReportAsBytes(transformedData, timestamp);
+            // Product info is current policy data, it is read again on every run
+            Set<String> policyNumbers = state.getLatestPayouts().keySet();
+            Map<String, ProductInfo> productInfoMap = run.time(ReportStage.FETCH, () -> fetchProductInfoForPolicyNumbers(policyNumbers));
+            List<PeriodicPayoutMessage> messages = state.getLatestPayouts().entrySet().stream()
+                    .filter(entry -> productInfoMap.containsKey(entry.getKey()))
+                    .sorted(Map.Entry.comparingByKey())
+                    .map(Map.Entry::getValue)
+                    .toList();
+            Set<String> uniqueTaxablePartyNumbers = messages.stream()
+                    .flatMap(message -> message.getTaxablePartyNumbers().stream())
+                    .collect(Collectors.toSet());
+            Map<String, Map<String, String>> mailingAddressesMap = run.time(ReportStage.PARTY,
+                    () -> fetchMailingAddressesForTaxablePartyNumbers(uniqueTaxablePartyNumbers));
+
+            PeriodicPayoutReportContext context = new PeriodicPayoutReportContext(productInfoMap, mailingAddressesMap, state.getYtdTotals());
+            progress.stage(ReportProgress.STAGE_TRANSFORMING);
+            writeRows(messages, context, format, out, progress, run);
+            run.succeeded();
+        }
     }
 
-    private Set<String> extractUniquePolicyNumbers(List<Object[]> data) {
-        return data.stream()
-                .map(row -> {
-                    try {
-                        JsonNode jsonNode = objectMapper.readTree((String) row[0]);
-                        return jsonNode.path("polNumber").asText();
-                    } catch (IOException e) {
-                        logger.error("Error parsing JSON for row: " + Arrays.toString(row), e);
-                        return "";
-                    }
-                })
-                .filter(polNumber -> !polNumber.isEmpty())
+    /**
+     * Reloads into the report state the latest payout and the YTD totals of the policies with a
+     * PeriodicPayout transaction executed within {@code [fromDate, endDate]}, and of the known
+     * policies whose rows changed since the previous run.
+     *
+     * @param updatedFrom start of the window of inserted or updated rows, null when the state
+     *                    is built from the start of the range.
+     * @param updatedTo end of the window of inserted or updated rows.
+     */
+    private void applyTransactions(PeriodicPayoutReportState state, LocalDateTime fromDate, LocalDateTime endDate,
+                                   LocalDateTime updatedFrom, LocalDateTime updatedTo, ReportRun run) {
+        Set<String> policyNumbers = fromDate.isAfter(endDate) ? Set.of() : extractPolicyNumbers(
+                run.time(ReportStage.FETCH, () -> repository.findLatestTransactions(fromDate, endDate)));
+        logger.info("Applying transactions of " + policyNumbers.size() + " policies executed from " + fromDate + " to " + endDate);
+
+        // Everything is reloaded over the whole range rather than added to: a reversal or a late
+        // row changes what was already counted, and may leave a policy without any payout
+        Set<String> reloadedPolicyNumbers = new HashSet<>(policyNumbers);
+        if (updatedFrom != null) {
+            run.time(ReportStage.FETCH, () -> repository.findPolicyNumbersWithYtdChanges(fromDate, endDate, updatedFrom, updatedTo))
+                    .stream()
+                    .filter(state.getPolicyNumbers()::contains)
+                    .forEach(reloadedPolicyNumbers::add);
+        }
+        logger.info("Reloading latest payouts and YTD totals of " + reloadedPolicyNumbers.size() + " policies");
+
+        List<Object[]> latestPayouts = new ArrayList<>();
+        run.time(ReportStage.FETCH, () -> {
+            for (List<String> batch : BatchUtil.partition(reloadedPolicyNumbers, POLICY_BATCH_SIZE)) {
+                latestPayouts.addAll(repository.findLatestPayoutTransactionsByPolicyNumbers(batch, state.getRangeStart(), endDate));
+            }
+        });
+        run.rowsFetched(latestPayouts.size());
+        List<PeriodicPayoutMessage> messages = run.time(ReportStage.PARSE, () -> transformExecutor.map(latestPayouts,
+                row -> payoutMessageParser.parse((String) row[0])));
+        state.getLatestPayouts().keySet().removeAll(reloadedPolicyNumbers);
+        state.getPolicyNumbers().removeAll(reloadedPolicyNumbers);
+        state.getPolicyNumbers().addAll(policyNumbers);
+        for (PeriodicPayoutMessage message : messages) {
+            if (message != null) {
+                state.getLatestPayouts().put(message.getPolNumber(), message);
+                state.getPolicyNumbers().add(message.getPolNumber());
+            }
+        }
+
+        Set<String> payoutPolicyNumbers = reloadedPolicyNumbers.stream()
+                .filter(state.getPolicyNumbers()::contains)
                 .collect(Collectors.toSet());
+        run.time(ReportStage.YTD, () -> {
+            state.getYtdTotals().removePolicies(reloadedPolicyNumbers);
+            state.getYtdTotals().merge(payoutYtdService.loadYtdTotals(payoutPolicyNumbers, state.getRangeStart(), endDate));
+        });
     }
 
     private Set<String> extractPolicyNumbers(List<Object[]> data) {
@@ -202,41 +369,19 @@ public class PeriodicPayoutTransactionHistoryDateRangeService {
         return policyNumbers; // Return the Set directly
     }
 
-    private Set<String> extractUniqueTaxablePartyNumbers(List<Object[]> data) {
-        return data.stream()
-                .flatMap(row -> {
-                    try {
-                        JsonNode jsonNode = objectMapper.readTree((String) row[3]);
-                        JsonNode payeePayoutsNode = jsonNode.path("payeePayouts");
-                        Set<String> taxablePartyNumbers = new HashSet<>();
-
-                        if (payeePayoutsNode.isArray()) {
-                            for (JsonNode payoutNode : payeePayoutsNode) {
-                                String taxablePartyNumber = payoutNode.path("taxablePartyNumber").asText();
-                                if (!taxablePartyNumber.isEmpty()) {
-                                    taxablePartyNumbers.add(taxablePartyNumber);
-                                }
-                            }
-                        }
-                        return taxablePartyNumbers.stream(); // Return a stream of taxable party numbers
-                    } catch (IOException e) {
-                        logger.error("Error parsing JSON for row: " + Arrays.toString(row), e);
-                        return Stream.empty(); // Return an empty stream on error
-                    }
-                })
-                .collect(Collectors.toSet()); // Collect unique taxable party numbers
-    }
-
     public Map<String, Map<String, String>> fetchMailingAddressesForTaxablePartyNumbers(Set<String> uniqueTaxablePartyNumbers) {
         // Initialize a map to hold the mailing addresses for each taxable party number
         Map<String, Map<String, String>> mailingAddressesMap = new HashMap<>();
 
+        // Fetch the profiles of all parties from the cache, loading missing ones in bulk
+        List<String> partyNumbers = uniqueTaxablePartyNumbers.stream().filter(Objects::nonNull).toList();
+        Map<String, PartyProfile> partyProfiles = partyProfileCache.getAll(partyNumbers);
+        partyProfileCache.logStats();
+
         for (String taxablePartyNumber : uniqueTaxablePartyNumbers) {
-            // Fetch addresses using Feign client
-            List<Address> addresses = Collections.emptyList();
-            if (taxablePartyNumber != null) {
-                addresses = partyClient.getAddresses(taxablePartyNumber);
-            }
+            PartyProfile partyProfile = partyProfiles.get(taxablePartyNumber);
+            List<Address> addresses = partyProfile != null && partyProfile.getAddresses() != null
+                    ? partyProfile.getAddresses() : Collections.emptyList();
 
             // Process addresses to get preferred and non-preferred mailing addresses
             String preferredMailingAddress = getFormattedAddress(
@@ -291,162 +436,84 @@ public class PeriodicPayoutTransactionHistoryDateRangeService {
                 ));
     }
 
-    private List<Object> processRow(Object[] row, Map<String, ProductInfo> productInfoMap, Map<String, Map<String, String>> mailingAddressesMap, ytdResponse ytdObj) {
-        JsonNode jsonNode;
-        try {
-            jsonNode = objectMapper.readTree((String) row[0]);
-        } catch (IOException e) {
-            logger.error("Error parsing JSON for row: " + Arrays.toString(row), e);
+    private List<Object> processRow(PeriodicPayoutMessage message, PeriodicPayoutReportContext context) {
+        if (message == null) {
             return Collections.singletonList("Error processing JSON");
         }
+        Map<String, ProductInfo> productInfoMap = context.getProductInfoMap();
+        Map<String, Map<String, String>> mailingAddressesMap = context.getMailingAddressesMap();
+        YtdTotals ytdTotals = context.getYtdTotals();
 
-        String polNumber = jsonNode.path("polNumber").asText();
+        String polNumber = message.getPolNumber();
         ProductInfo productInfo = productInfoMap.getOrDefault(polNumber, new ProductInfo("","", "", "", ""));
 
-        String transExeDate = convertDateString(jsonNode.path("transExeDate").asText());
-        String transRunDate = convertDateString(jsonNode.path("transRunDate").asText());
+        String transExeDate = convertDateString(message.getTransExeDate());
+        String transRunDate = convertDateString(message.getTransRunDate());
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
         LocalDate date = LocalDate.parse(transRunDate, formatter);
         String runYear = String.valueOf(date.getYear());
-        String suspendCode = jsonNode.path("suspendCode").asText();
-
-        // Initialize variables for aggregated or extracted data
-        BigDecimal federalNonTaxableAmt = BigDecimal.ZERO;
-        BigDecimal grossAmt = BigDecimal.ZERO;
-        BigDecimal modalBenefit = BigDecimal.ZERO;
-        LocalDateTime startRangeDate = LocalDateTime.parse(payoutTransExectStartDate);
-        LocalDateTime endRangeDate = LocalDateTime.parse(payoutTransExectEndDate);
-        String taxablePartyNumber = "";
-        String endDate = "";
-        String taxableToGovtID = "";
-        String taxablePartyName = "";
-        String taxableToGovtIDStatus = "";
-        String taxableToGovtIdTCode = "";
-        String taxableToResidenceState = "";
-        String payeeStatus = "";
-        String taxableToResidenceCountry = "";
-
-        // Process payeePayouts array
-        JsonNode payeePayoutsNode = jsonNode.path("payeePayouts");
-        if (payeePayoutsNode.isArray()) {
-            for (JsonNode payout : payeePayoutsNode) {
-                federalNonTaxableAmt = federalNonTaxableAmt.add(payout.path("federalNonTaxableAmt").decimalValue());
-                grossAmt = grossAmt.add(payout.path("grossAmt").decimalValue());
-                taxablePartyNumber = payout.path("taxablePartyNumber").asText(taxablePartyNumber); // Use last non-empty value
-                taxableToGovtID = payout.path("taxableToGovtID").asText(taxableToGovtID); // Use last non-empty value
-                taxablePartyName = payout.path("taxablePartyName").asText(taxablePartyName); // Use last non-empty value
-                taxableToGovtIDStatus = payout.path("taxableToGovtIDStat").asText(taxableToGovtIDStatus); // Use last non-empty value
-                taxableToGovtIdTCode = payout.path("taxableToGovtIdTC").asText(taxableToGovtIdTCode); // Use last non-empty value
-                taxableToResidenceState = payout.path("taxableToResidenceState").asText(taxableToResidenceState); // Use last non-empty value
-                payeeStatus = payout.path("payeeStatus").asText(payeeStatus); // Use last non-empty value
-                taxableToResidenceCountry = payout.path("taxableToResidenceCountry").asText(taxableToResidenceCountry);
-            }
+        String suspendCode = message.getSuspendCode();
+
+        // Payee values, last value of the payeePayouts array
+        String taxablePartyNumber = message.getTaxablePartyNumber();
+        String taxableToGovtID = message.getTaxableToGovtID();
+        String taxablePartyName = message.getTaxablePartyName();
+        String taxableToGovtIDStatus = message.getTaxableToGovtIDStatus();
+        String taxableToGovtIdTCode = message.getTaxableToGovtIdTCode();
+        String taxableToResidenceState = message.getTaxableToResidenceState();
+        String payeeStatus = message.getPayeeStatus();
+        String taxableToResidenceCountry = message.getTaxableToResidenceCountry();
+
+        // Transform suspendCode using CodeTables.SUSPEND_CODE
+        String transformedSuspendCode = Objects.requireNonNullElse(CodeTables.SUSPEND_CODE.name(suspendCode), "Unknown");
+
+        // Transform QualPlanType using CodeTables.QUAL_PLAN
+        String transformedQualPlanType = CodeTables.QUAL_PLAN.name(productInfo.getQualPlanType());
+        if (transformedQualPlanType == null) {
+            logger.warn("Invalid, empty or null QualPlanType: " + productInfo.getQualPlanType());
+            transformedQualPlanType = "Unknown";
         }
 
-        // Process benefits array
-        JsonNode benefitsNode = jsonNode.path("benefits");
-        if (benefitsNode.isArray()) {
-            for (JsonNode benefit : benefitsNode) {
-                endDate = benefit.path("endDate").asText(endDate); // Use last non-empty value
-                modalBenefit = modalBenefit.add(benefit.path("modalBenefit").decimalValue()); // Aggregate modal benefits
-            }
+        // Transform taxableToResidenceState using CodeTables.RESIDENCE_STATE
+        String transformedResidenceState = CodeTables.RESIDENCE_STATE.name(taxableToResidenceState);
+        if (transformedResidenceState == null) {
+            logger.warn("Invalid, empty or null residence state code: " + taxableToResidenceState);
+            transformedResidenceState = "Unknown";
         }
 
-        // Transform suspendCode using SuspendCodeUtil
-        String transformedSuspendCode = SuspendCodeUtil.getSuspendCodeName(suspendCode);
-
-        // Transform QualPlanType using QualPlanUtil
-        String transformedQualPlanType = "Unknown";
-        if (productInfo.getQualPlanType() != null && !productInfo.getQualPlanType().trim().isEmpty()) {
-            try {
-                String qualPlanType = productInfo.getQualPlanType().trim();
-                transformedQualPlanType = QualPlanUtil.getDisplayName(Integer.parseInt(qualPlanType));
-            } catch (Exception e) {
-                logger.warn("Error transforming QualPlanType: " + productInfo.getQualPlanType(), e);
-            }
-        } else {
-            logger.warn("Empty or null QualPlanType: " + productInfo.getQualPlanType());
+        // Transform taxableToResidenceCountry using CodeTables.RESIDENCE_COUNTRY
+        String transformedResidenceCountry = CodeTables.RESIDENCE_COUNTRY.name(taxableToResidenceCountry);
+        if (transformedResidenceCountry == null) {
+            logger.warn("Invalid, empty or null residence country code: " + taxableToResidenceCountry);
+            transformedResidenceCountry = "Unknown";
         }
 
-        // Transform taxableToResidenceState using ResidenceStateUtil
-        String transformedResidenceState = "Unknown";
-        if (taxableToResidenceState != null && !taxableToResidenceState.trim().isEmpty()) {
-            try {
-                int residenceStateCode = Integer.parseInt(taxableToResidenceState.trim());
-                transformedResidenceState = ResidenceStateUtil.getStateName(residenceStateCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid residence state code: " + taxableToResidenceState, e);
-            }
-        } else {
-            logger.warn("Empty or null residence state code: " + taxableToResidenceState);
+        // Transform taxableToGovtIDStatus using CodeTables.GOVT_ID_STATUS
+        String transformedGovtIDStatus = CodeTables.GOVT_ID_STATUS.name(taxableToGovtIDStatus);
+        if (transformedGovtIDStatus == null) {
+            logger.warn("Invalid, empty or null government ID status code: " + taxableToGovtIDStatus);
+            transformedGovtIDStatus = "Unknown";
         }
 
-        // Transform taxableToResidenceCountry using ResidenceStateUtil
-        String transformedResidenceCountry = "Unknown";
-        if (taxableToResidenceCountry != null && !taxableToResidenceCountry.trim().isEmpty()) {
-            try {
-                int residenceCountryCode = Integer.parseInt(taxableToResidenceCountry.trim());
-                transformedResidenceCountry = ResidenceCountryUtil.getCountryName(residenceCountryCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid residence state code: " + taxableToResidenceCountry, e);
-            }
-        } else {
-            logger.warn("Empty or null residence state code: " + taxableToResidenceCountry);
-        }
-
-        // Transform taxableToGovtIDStatus using GovtIDStatusUtil
-        String transformedGovtIDStatus = "Unknown";
-        if (taxableToGovtIDStatus != null && !taxableToGovtIDStatus.trim().isEmpty()) {
-            try {
-                int govtIDStatusCode = Integer.parseInt(taxableToGovtIDStatus.trim());
-                transformedGovtIDStatus = GovtIDStatusUtil.getStatusName(govtIDStatusCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid government ID status code: " + taxableToGovtIDStatus, e);
-            }
-        } else {
-            logger.warn("Empty or null government ID status code: " + taxableToGovtIDStatus);
+        // Transform taxableToGovtIdTCode using CodeTables.GOVT_ID_TYPE_CODE
+        String transformedGovtIdTCode = CodeTables.GOVT_ID_TYPE_CODE.name(taxableToGovtIdTCode);
+        if (transformedGovtIdTCode == null) {
+            logger.warn("Invalid, empty or null government ID type code: " + taxableToGovtIdTCode);
+            transformedGovtIdTCode = "Unknown";
         }
 
-        // Transform taxableToGovtIdTCode using GovtIdTCodeUtil
-        String transformedGovtIdTCode = "Unknown";
-        if (taxableToGovtIdTCode != null && !taxableToGovtIdTCode.trim().isEmpty()) {
-            try {
-                int govtIdTCode = Integer.parseInt(taxableToGovtIdTCode.trim());
-                transformedGovtIdTCode = GovtIdTCodeUtil.getIdTCodeName(govtIdTCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid government ID type code: " + taxableToGovtIdTCode, e);
-            }
-        } else {
-            logger.warn("Empty or null government ID type code: " + taxableToGovtIdTCode);
-        }
-
-        // Transform productInfo policy status using PolicyStatusUtil
-        String transformedPolicyStatus = "Unknown";
-        if (productInfo.getPolicyStatus() != null && !productInfo.getPolicyStatus().trim().isEmpty()) {
-            try {
-                int policyStatusCode = Integer.parseInt(productInfo.getPolicyStatus().trim());
-                transformedPolicyStatus = PolicyStatusUtil.getPolicyStatusName(policyStatusCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid policy status code: " + productInfo.getPolicyStatus(), e);
-            }
-        } else {
-            logger.warn("Empty or null policy status code: " + productInfo.getPolicyStatus());
+        // Transform productInfo policy status using CodeTables.POLICY_STATUS
+        String transformedPolicyStatus = CodeTables.POLICY_STATUS.name(productInfo.getPolicyStatus());
+        if (transformedPolicyStatus == null) {
+            logger.warn("Invalid, empty or null policy status code: " + productInfo.getPolicyStatus());
+            transformedPolicyStatus = "Unknown";
         }
 
-        // Transform payeeStatus using PayeeStatusUtil
-        String transformedPayeeStatus = null;
-        if (payeeStatus != null && !payeeStatus.trim().isEmpty()) {
-            try {
-                transformedPayeeStatus = PayeeStatusUtil.getDisplayName(Integer.parseInt(payeeStatus.trim()));
-            } catch (NumberFormatException e) {
-                // Handle the case where the string cannot be parsed as an integer
-                // Log the error or set a default value
-                System.err.println("Invalid payeeStatus value: " + payeeStatus);
-                transformedPayeeStatus = "Unknown"; // Or another appropriate default value
-            }
-        } else {
-            // Handle the case where payeeStatus is null or empty
-            transformedPayeeStatus = "Unknown"; // Or another appropriate default value
+        // Transform payeeStatus using CodeTables.PAYEE_STATUS
+        String transformedPayeeStatus = CodeTables.PAYEE_STATUS.name(payeeStatus);
+        if (transformedPayeeStatus == null) {
+            // Null, empty or not a number
+            transformedPayeeStatus = "Unknown";
         }
 
         // Retrieve addresses from the map
@@ -455,57 +522,7 @@ public class PeriodicPayoutTransactionHistoryDateRangeService {
         String mailingAddress = addressesMap.getOrDefault("mailingAddress", "");
 
 
-        LocalDateTime payoutTransExecdate = LocalDateTime.parse(payoutTransExectStartDate);
-        ytres.setYtdDisbursePeriodicPayout(BigDecimal.ZERO);//Sum of gross amunt
-        ytres.setYtdDisburseFederalWithholdingAmt(BigDecimal.ZERO);//Sum of fedral Withholdingamount
-        ytres.setYtdDisburseStateWithholdingAmt(BigDecimal.ZERO);//Sum of state Withholding amunt
-        Double totalGrossAmount = 0.0;
-        Double totalFeeAmtForState = 0.0;
-        Double totalFeeAmtForFederal = 0.0;
-        Double totalAdjustmentValueForState = 0.0;
-        Double totalAdjustmentValueForFederal = 0.0;
-        Calendar ytdCalendar = Calendar.getInstance();
-        ytdCalendar.set(Calendar.YEAR, 2025);
-        ytdCalendar.set(Calendar.MONTH, Calendar.AUGUST); // Note: Months are zero-based (0 = January, 6 = July)
-        ytdCalendar.set(Calendar.DATE, 21);
-
-        Double policyPayoutsGrossAmt = payoutPaymentHistoryRepository.findPolicyPayoutWithGrossAmount(productInfo.getPolNumber(), startRangeDate,endRangeDate);
-
-        totalFeeAmtForFederal = payoutPaymentHistoryDeductionRepository.sumFeeAmtByFeeTypeFederal(taxablePartyNumber, startRangeDate,endRangeDate, productInfo.getPolNumber());
-        totalFeeAmtForState = payoutPaymentHistoryDeductionRepository.sumFeeAmtByFeeTypeState(taxablePartyNumber,startRangeDate,endRangeDate,productInfo.getPolNumber());
-
-        totalAdjustmentValueForFederal = payoutPaymentHistoryAdjustmentRepository.sumAdjustmentValueByFieldAdjustmentFederal(taxablePartyNumber,startRangeDate,endRangeDate ,productInfo.getPolNumber());
-        totalAdjustmentValueForState = payoutPaymentHistoryAdjustmentRepository.sumAdjustmentValueByFieldAdjustmentState(taxablePartyNumber,startRangeDate,endRangeDate ,productInfo.getPolNumber());
-        List<PayoutPaymentHistory> policyPayouts = payoutPaymentHistoryRepository.findPolicyPayouts(productInfo.getPolNumber(),startRangeDate,endRangeDate);
-
-        Double finalTotalGrossAmount = policyPayoutsGrossAmt;
-        Double finalTotalFeeAmtForFederal = totalFeeAmtForFederal;
-        Double finalTotalFeeAmtForState = totalFeeAmtForState;
-
-        Double finalTotalAdjustmentValueForFederal = totalAdjustmentValueForFederal;
-        Double finalTotalAdjustmentValueForState = totalAdjustmentValueForState;
-
-        if(finalTotalGrossAmount != null && finalTotalGrossAmount > 0) {
-            ytres.setYtdDisbursePeriodicPayout(BigDecimal.valueOf(finalTotalGrossAmount));
-        }
-
-        policyPayouts.forEach(policyPayout -> {
-               /* This checks if the payout due date is on or before the transaction effective date and is on or after the year start
-            If this part is true, it means the payout is either due today or has already passed.
-           and
-        This checks if the payout due date is on or after the start of the year (or whatever date ytdCalendar.getTime() represents).
-            If this part is true, it means the payout is due any time from the beginning of the year up to today.*/
-//            if (policyPayout.getPayoutDueDate().compareTo(transEffDate) <= 0 &&
-//                    policyPayout.getPayoutDueDate().compareTo(ytdCalendar.getTime()) >= 0) {
-
-            if((finalTotalFeeAmtForFederal != null && finalTotalFeeAmtForFederal > 0) || (finalTotalAdjustmentValueForFederal != null && finalTotalAdjustmentValueForFederal > 0)) {
-                ytres.setYtdDisburseFederalWithholdingAmt(BigDecimal.valueOf(finalTotalFeeAmtForFederal + finalTotalAdjustmentValueForFederal));
-            }
-            if((finalTotalFeeAmtForState != null && finalTotalFeeAmtForState > 0) || (finalTotalAdjustmentValueForState != null && finalTotalAdjustmentValueForState > 0)) {
-                ytres.setYtdDisburseStateWithholdingAmt(BigDecimal.valueOf(finalTotalFeeAmtForState + finalTotalAdjustmentValueForState));
-            }
-//             }
-        });
+        ytdResponse ytd = ytdTotals.toYtdResponse(productInfo.getPolNumber(), taxablePartyNumber);
 
         return Arrays.asList(
                 runYear,
@@ -527,9 +544,9 @@ public class PeriodicPayoutTransactionHistoryDateRangeService {
                 transformedResidenceCountry,
                 preferredMailingAddress,
                 mailingAddress,
-                ytres.getYtdDisbursePeriodicPayout(),
-                ytres.getYtdDisburseFederalWithholdingAmt(),
-                ytres.getYtdDisburseStateWithholdingAmt()
+                ytd.getYtdDisbursePeriodicPayout(),
+                ytd.getYtdDisburseFederalWithholdingAmt(),
+                ytd.getYtdDisburseStateWithholdingAmt()
         );
     }
 
@@ -556,57 +573,34 @@ public class PeriodicPayoutTransactionHistoryDateRangeService {
         return date == null ? "" : displayDateFormat.format(date);
     }
 
-    private byte[] generateExcelReportAsBytes(List<List<Object>> data, String timestamp) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Transaction History");
-            createHeaderRow(sheet);
-            CellStyle currencyCellStyle = createCurrencyCellStyle(workbook);
-            int rowNum = 1;
-            for (List<Object> rowData : data) {
-                Row row = sheet.createRow(rowNum++);
-                populateRow(row, rowData, currencyCellStyle);
-            }
-            autoSizeColumns(sheet);
-            workbook.write(baos);
-            return baos.toByteArray();
-        }
-    }
-
-    private CellStyle createCurrencyCellStyle(Workbook workbook) {
-        CellStyle cellStyle = workbook.createCellStyle();
-        DataFormat format = workbook.createDataFormat();
-        cellStyle.setDataFormat(format.getFormat(CURRENCY_FORMAT));
-        return cellStyle;
-    }
-
-    private void createHeaderRow(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        IntStream.range(0, HEADERS.length).forEach(i -> {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(HEADERS[i]);
-        });
-    }
-
-    private void populateRow(Row row, List<Object> rowData, CellStyle currencyCellStyle) {
-        IntStream.range(0, rowData.size()).forEach(i -> {
-            Cell cell = row.createCell(i);
-            Object value = rowData.get(i);
-            if (value instanceof String) {
-                cell.setCellValue((String) value);
-            } else if (value instanceof BigDecimal) {
-                cell.setCellValue(((BigDecimal) value).doubleValue());
-                cell.setCellStyle(currencyCellStyle);
-            } else {
-                cell.setCellValue(value != null ? value.toString() : "");
+    /**
+     * Transforms the messages in parallel into report rows, a chunk at a time, and writes every
+     * chunk through one reused columnar buffer before the next one is transformed. CSV and
+     * NDJSON rows reach the stream chunk by chunk; an Excel workbook is written at the end.
+     */
+    private void writeRows(List<PeriodicPayoutMessage> messages, PeriodicPayoutReportContext context, ReportFormat format,
+                           OutputStream out, ReportProgress progress, ReportRun run) throws IOException {
+        ReportRows reportRows = new ReportRows(SCHEMA);
+        try (ReportWriter writer = ReportWriter.open(format, "Transaction History", SCHEMA, run.counting(out))) {
+            for (int from = 0; from < messages.size(); from += TRANSFORM_CHUNK_SIZE) {
+                List<PeriodicPayoutMessage> chunk = messages.subList(from, Math.min(from + TRANSFORM_CHUNK_SIZE, messages.size()));
+                List<List<Object>> transformed = run.time(ReportStage.TRANSFORM, () -> transformExecutor.map(chunk, message -> {
+                    List<Object> rowData = processRow(message, context);
+                    progress.rowsProcessed(1);
+                    return rowData;
+                }));
+                run.time(ReportStage.WRITE, () -> {
+                    reportRows.clear();
+                    reportRows.addAll(transformed);
+                    writer.writeRows(reportRows);
+                });
             }
-        });
-    }
 
-    private void autoSizeColumns(Sheet sheet) {
-        int numberOfColumns = sheet.getRow(0).getLastCellNum();
-        IntStream.range(0, numberOfColumns).forEach(sheet::autoSizeColumn);
+            progress.stage(ReportProgress.STAGE_WRITING);
+            // Flush the remaining rows, or auto-size the columns and write the workbook
+            run.time(ReportStage.WRITE, writer::finish);
+            run.rowsEmitted(writer.rowsWritten());
+        }
     }
 
 }
\ No newline at end of file
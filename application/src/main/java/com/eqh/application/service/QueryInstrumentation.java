@@ -0,0 +1,112 @@
+package com.eqh.application.service;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Feeds every SQL statement executed through the DataSource to {@link QueryMetrics}.
+ * <p>
+ * The DataSource bean is wrapped so its connections hand out statements that time their
+ * {@code execute*} calls, and every Spring Data repository gets an advice that marks the
+ * repository method running on the thread. Everything else is passed through to the pooled
+ * objects, including {@code unwrap}, so the pool can still be reached for its own metrics.
+ */
+@Component
+public class QueryInstrumentation implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryMetrics> queryMetrics;
+
+    public QueryInstrumentation(ObjectProvider<QueryMetrics> queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+            repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice((MethodInterceptor) invocation ->
+                            queryMetrics.getObject().invokeRepositoryMethod(
+                                    repositoryInformation.getRepositoryInterface(), invocation))));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(dataSource, new Class<?>[]{DataSource.class, AutoCloseable.class}, null);
+        }
+        return bean;
+    }
+
+    private Object proxy(Object target, Class<?>[] interfaces, String sql) {
+        return Proxy.newProxyInstance(QueryInstrumentation.class.getClassLoader(), interfaces,
+                new TimingHandler(target, sql));
+    }
+
+    private class TimingHandler implements InvocationHandler {
+
+        private final Object target;
+        // SQL of a prepared statement, null for other objects
+        private final String sql;
+
+        TimingHandler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == AutoCloseable.class && !(target instanceof AutoCloseable)) {
+                return null;
+            }
+            boolean execute = target instanceof Statement && method.getName().startsWith("execute");
+            long start = execute ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execute) {
+                    String executedSql = args != null && args.length > 0 && args[0] instanceof String statementSql
+                            ? statementSql : sql;
+                    queryMetrics.getObject().recordQuery(executedSql, System.nanoTime() - start);
+                }
+            }
+
+            if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                return proxy(connection, new Class<?>[]{Connection.class}, null);
+            }
+            if (result instanceof Statement statement && target instanceof Connection) {
+                String statementSql = args != null && args.length > 0 && args[0] instanceof String preparedSql
+                        ? preparedSql : null;
+                return proxy(statement, new Class<?>[]{statementInterface(statement)}, statementSql);
+            }
+            return result;
+        }
+
+        private Class<?> statementInterface(Statement statement) {
+            if (statement instanceof CallableStatement) {
+                return CallableStatement.class;
+            }
+            if (statement instanceof PreparedStatement) {
+                return PreparedStatement.class;
+            }
+            return Statement.class;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.eqh.application.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every SQL statement the application executes, see {@link QueryInstrumentation}.
+ * <p>
+ * Statements are timed into the {@code report.query.duration} histogram, tagged with the
+ * report run active on the executing thread and the repository method that issued them
+ * ({@code none} outside a report run or a repository method), and added to the statistics
+ * of the active {@link ReportRun}. The time is that of the execute call: for a query read
+ * through a cursor it covers the first fetch only.
+ */
+@Service
+public class QueryMetrics {
+
+    static final String NONE = "none";
+    private static final RepositoryMethod NO_REPOSITORY_METHOD = new RepositoryMethod(NONE, NONE);
+
+    private final MeterRegistry registry;
+    private final ThreadLocal<RepositoryMethod> repositoryMethod = new ThreadLocal<>();
+
+    @Autowired
+    public QueryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * The repository method a statement was executed by.
+     */
+    record RepositoryMethod(String repository, String method) {
+
+        @Override
+        public String toString() {
+            return repository + "." + method;
+        }
+    }
+
+    /**
+     * Proceeds with the invocation of a repository method, attributing the statements it
+     * executes on this thread to the method.
+     *
+     * @param repositoryInterface the repository interface the method belongs to.
+     * @param invocation the repository method invocation.
+     * @return the result of the invocation.
+     */
+    Object invokeRepositoryMethod(Class<?> repositoryInterface, MethodInvocation invocation) throws Throwable {
+        RepositoryMethod previous = repositoryMethod.get();
+        repositoryMethod.set(new RepositoryMethod(repositoryInterface.getSimpleName(), invocation.getMethod().getName()));
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous == null) {
+                repositoryMethod.remove();
+            } else {
+                repositoryMethod.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Records an executed statement.
+     *
+     * @param sql the SQL of the statement, null if unknown.
+     * @param nanos how long the execute call took.
+     */
+    void recordQuery(String sql, long nanos) {
+        RepositoryMethod method = repositoryMethod.get();
+        if (method == null) {
+            method = NO_REPOSITORY_METHOD;
+        }
+        ReportRun run = ReportRun.current();
+        Timer.builder("report.query.duration")
+                .description("Duration of the SQL statements, by report and repository method")
+                .tags("report", run != null ? run.report().name() : NONE,
+                        "repository", method.repository(), "method", method.method())
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (run != null) {
+            run.queryExecuted(method, sql, nanos);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.ReportJobStatus;
+import com.eqh.application.dto.ReportJobStatus.State;
+import com.eqh.application.dto.ReportType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs reports as background jobs and keeps their output on local disk.
+ * <p>
+ * At most {@code report.jobs.max-concurrent} reports are generated at a time. A request for
+ * a report that is already queued or running joins that job instead of starting another one.
+ * Finished jobs and their files are removed after {@code report.jobs.retention-minutes}, checked
+ * every {@code report.jobs.purge-interval-minutes}; report files left behind by an earlier run
+ * of the application are removed once they are as old.
+ */
+@Service
+public class ReportJobService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+    private static final String TIMESTAMP_FORMAT = "MM-dd-yyyy_HHmmss";
+    private static final String FILE_EXTENSION = ".xlsx";
+    private static final String PARTIAL_FILE_EXTENSION = ".part";
+
+    /**
+     * Writes one report to a stream, reporting its progress.
+     */
+    @FunctionalInterface
+    interface ReportWriter {
+        void write(OutputStream out, ReportProgress progress) throws IOException;
+    }
+
+    private final Map<ReportType, ReportWriter> writers = new EnumMap<>(ReportType.class);
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<ReportType, ReportJob> activeJobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final Path outputDir;
+    private final Duration retention;
+
+    @Autowired
+    public ReportJobService(TransactionHistoryService transactionHistoryService,
+                            OverduePaymentTransactionHistoryService overduePaymentTransactionHistoryService,
+                            PeriodicPayoutTransactionHistoryService periodicPayoutTransactionHistoryService,
+                            PeriodicPayoutTransactionHistoryDateRangeService periodicPayoutTransactionHistoryDateRangeService,
+                            @Value("${report.jobs.output-dir:${java.io.tmpdir}/report-jobs}") String outputDir,
+                            @Value("${report.jobs.max-concurrent:2}") int maxConcurrent,
+                            @Value("${report.jobs.retention-minutes:1440}") long retentionMinutes) throws IOException {
+        writers.put(ReportType.DEATH_CLAIM, transactionHistoryService::writeReport);
+        writers.put(ReportType.OVERDUE_PAYMENT, overduePaymentTransactionHistoryService::writeReport);
+        writers.put(ReportType.PERIODIC_PAYOUT, periodicPayoutTransactionHistoryService::writeReport);
+        writers.put(ReportType.PERIODIC_PAYOUT_DATE_RANGE, periodicPayoutTransactionHistoryDateRangeService::writeReport);
+        writers.put(ReportType.PERIODIC_PAYOUT_INCREMENTAL,
+                (out, progress) -> periodicPayoutTransactionHistoryDateRangeService.writeIncrementalReport(out, progress, false));
+        this.outputDir = Files.createDirectories(Path.of(outputDir));
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrent, runnable -> {
+            Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a report job, or joins the queued or running job of the same report.
+     *
+     * @param reportType the report to generate.
+     * @return the status of the new or joined job.
+     */
+    public ReportJobStatus submit(ReportType reportType) {
+        ReportJob job = activeJobs.computeIfAbsent(reportType, type -> {
+            ReportJob created = new ReportJob(UUID.randomUUID().toString(), type);
+            jobs.put(created.id, created);
+            return created;
+        });
+
+        // Only the request that created the job hands it to the executor
+        if (job.submitted.compareAndSet(false, true)) {
+            executor.execute(() -> run(job));
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * @param jobId the job id.
+     * @return the current status of the job, empty if there is no such job.
+     */
+    public Optional<ReportJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ReportJob::toStatus);
+    }
+
+    /**
+     * @param jobId the job id.
+     * @return the report file of the job, empty unless the job has completed.
+     */
+    public Optional<Path> getOutputFile(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        return job != null && job.state == State.COMPLETED ? Optional.of(job.file) : Optional.empty();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run(ReportJob job) {
+        Path partialFile = outputDir.resolve(job.id + FILE_EXTENSION + PARTIAL_FILE_EXTENSION);
+        Path file = outputDir.resolve(job.id + FILE_EXTENSION);
+        job.start();
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partialFile))) {
+                writers.get(job.type).write(out, job);
+            }
+            Files.move(partialFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.error("Report job {} ({}) failed", job.id, job.type, e);
+            deleteQuietly(partialFile);
+            activeJobs.remove(job.type, job);
+            job.fail(e);
+            return;
+        }
+
+        // Leave the active jobs before finishing, so a request that sees the job finished starts a new one
+        activeJobs.remove(job.type, job);
+        String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
+        job.complete(file, job.type.getFilenamePrefix() + timestamp + FILE_EXTENSION);
+        logger.info("Report job {} ({}) completed with {} rows", job.id, job.type, job.rowsProcessed.get());
+    }
+
+    /**
+     * Removes the jobs that finished before the retention period, with their files, and the
+     * report files of unknown jobs last written before it.
+     */
+    @Scheduled(fixedDelayString = "${report.jobs.purge-interval-minutes:10}", timeUnit = TimeUnit.MINUTES)
+    public void purgeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            if (job.file != null) {
+                deleteQuietly(job.file);
+            }
+            return true;
+        });
+
+        try (Stream<Path> files = Files.list(outputDir)) {
+            files.filter(file -> !jobs.containsKey(jobId(file)))
+                    .filter(file -> isModifiedBefore(file, cutoff))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            logger.warn("Could not list report files in {}", outputDir, e);
+        }
+    }
+
+    private static String jobId(Path file) {
+        String name = file.getFileName().toString();
+        int extension = name.indexOf('.');
+        return extension < 0 ? name : name.substring(0, extension);
+    }
+
+    private boolean isModifiedBefore(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            // Deleted meanwhile
+            return false;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete report file {}", path, e);
+        }
+    }
+
+    /**
+     * Mutable state of one job. Updated by the job thread and read by status requests.
+     */
+    private static final class ReportJob implements ReportProgress {
+
+        private final String id;
+        private final ReportType type;
+        private final Instant createdAt = Instant.now();
+        private final AtomicBoolean submitted = new AtomicBoolean();
+        private final AtomicLong rowsProcessed = new AtomicLong();
+        private volatile State state = State.QUEUED;
+        private volatile String stage;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Path file;
+        private volatile String fileName;
+        private volatile String error;
+
+        private ReportJob(String id, ReportType type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        @Override
+        public void stage(String stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public void rowsProcessed(int rows) {
+            rowsProcessed.addAndGet(rows);
+        }
+
+        private void start() {
+            startedAt = Instant.now();
+            state = State.RUNNING;
+        }
+
+        private void complete(Path file, String fileName) {
+            this.file = file;
+            this.fileName = fileName;
+            this.stage = null;
+            this.finishedAt = Instant.now();
+            this.state = State.COMPLETED;
+        }
+
+        private void fail(Exception e) {
+            this.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            this.finishedAt = Instant.now();
+            this.state = State.FAILED;
+        }
+
+        private ReportJobStatus toStatus() {
+            return new ReportJobStatus(id, type, state, stage, rowsProcessed.get(), createdAt, startedAt,
+                    finishedAt, fileName, error);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.ReportType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Micrometer metrics of report generation, exposed on {@code /actuator/prometheus}.
+ * <p>
+ * Every report run is measured by a {@link ReportRun}, which records these meters, tagged
+ * with the report type, when the run finishes:
+ * <ul>
+ *     <li>{@code report.duration}: the whole run, also tagged with its outcome</li>
+ *     <li>{@code report.stage.duration}: the time spent in each {@link ReportStage}</li>
+ *     <li>{@code report.rows.fetched}: transaction rows the report is built from, read from the database</li>
+ *     <li>{@code report.rows.emitted}: rows written to the report</li>
+ *     <li>{@code report.bytes.written}: size of the report</li>
+ *     <li>{@code report.party.calls}, {@code report.party.cache.hits}, {@code report.party.cache.misses}:
+ *     party service calls and party profile cache lookups</li>
+ *     <li>{@code report.queries}: SQL statements executed, see {@link QueryMetrics}</li>
+ *     <li>{@code report.query.repeated}: statements executed more than {@code report.query.repeat-threshold}
+ *     times in a run, tagged with the repository method</li>
+ * </ul>
+ * The party profile cache is also measured as a whole, including lookups outside reports.
+ */
+@Service
+public class ReportMetrics {
+
+    private final MeterRegistry registry;
+    private final PartyProfileCache partyProfileCache;
+    private final int queryRepeatThreshold;
+
+    @Autowired
+    public ReportMetrics(MeterRegistry registry, PartyProfileCache partyProfileCache,
+                         @Value("${report.query.repeat-threshold:100}") int queryRepeatThreshold) {
+        this.registry = registry;
+        this.partyProfileCache = partyProfileCache;
+        this.queryRepeatThreshold = queryRepeatThreshold;
+
+        FunctionCounter.builder("party.cache.hits", partyProfileCache, cache -> cache.stats().hitCount())
+                .description("Party profile cache hits")
+                .register(registry);
+        FunctionCounter.builder("party.cache.misses", partyProfileCache, cache -> cache.stats().missCount())
+                .description("Party profile cache misses")
+                .register(registry);
+        FunctionCounter.builder("party.client.calls", partyProfileCache, PartyProfileCache::partyCalls)
+                .description("Calls to the party service")
+                .register(registry);
+        Gauge.builder("party.cache.size", partyProfileCache, PartyProfileCache::size)
+                .description("Party profiles in the cache")
+                .register(registry);
+    }
+
+    /**
+     * Starts measuring a report run; close the run when the report is finished.
+     *
+     * @param report the report being generated.
+     * @return the run, bound to the calling thread until it is closed.
+     */
+    public ReportRun start(ReportType report) {
+        return new ReportRun(report, registry, partyProfileCache, queryRepeatThreshold);
+    }
+}
@@ -0,0 +1,32 @@
+package com.eqh.application.service;
+
+/**
+ * Receives progress updates from a report while it is generated.
+ */
+public interface ReportProgress {
+
+    /** Discards all updates; used when a report is streamed straight to the client. */
+    ReportProgress NONE = new ReportProgress() {
+        @Override
+        public void stage(String stage) {
+        }
+
+        @Override
+        public void rowsProcessed(int rows) {
+        }
+    };
+
+    String STAGE_LOADING = "Loading transactions and lookups";
+    String STAGE_TRANSFORMING = "Transforming rows";
+    String STAGE_WRITING = "Writing report";
+
+    /**
+     * @param stage what the report is doing from now on.
+     */
+    void stage(String stage);
+
+    /**
+     * @param rows the number of rows processed since the last update.
+     */
+    void rowsProcessed(int rows);
+}
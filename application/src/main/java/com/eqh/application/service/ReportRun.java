@@ -0,0 +1,276 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.ReportType;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one report run: the time spent in each {@link ReportStage}, the rows fetched and
+ * emitted, the bytes written, the party service calls and cache lookups and the SQL
+ * statements executed.
+ * <p>
+ * Stage times add up over every timed call of the run. Closing the run records its meters,
+ * see {@link ReportMetrics}, and logs a summary. A run is not thread-safe; stages that fan
+ * out to the transform pool are timed by the thread waiting for them. Party calls and cache
+ * lookups are read from the shared cache, so they include those of concurrent runs.
+ * <p>
+ * A run is bound to the thread that started it until it is closed; {@link QueryMetrics}
+ * adds the statements executed on that thread to it. A statement executed more than the
+ * repeat threshold times in one run, usually one query per row or per policy, is logged
+ * as a warning and counted in {@code report.query.repeated}.
+ */
+public class ReportRun implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportRun.class);
+    private static final ThreadLocal<ReportRun> CURRENT = new ThreadLocal<>();
+    private static final int LOGGED_SQL_LENGTH = 200;
+
+    private final ReportType report;
+    private final MeterRegistry registry;
+    private final PartyProfileCache partyProfileCache;
+    private final long startNanos = System.nanoTime();
+    private final CacheStats cacheStatsAtStart;
+    private final long partyCallsAtStart;
+    private final int queryRepeatThreshold;
+    private final ReportRun previous;
+    private final Map<String, StatementStats> statements = new HashMap<>();
+    private long queries;
+    private long queryNanos;
+    private final Map<ReportStage, Long> stageNanos = new EnumMap<>(ReportStage.class);
+    private long rowsFetched;
+    private long rowsEmitted;
+    private long bytesWritten;
+    private boolean succeeded;
+
+    ReportRun(ReportType report, MeterRegistry registry, PartyProfileCache partyProfileCache, int queryRepeatThreshold) {
+        this.report = report;
+        this.registry = registry;
+        this.partyProfileCache = partyProfileCache;
+        this.cacheStatsAtStart = partyProfileCache.stats();
+        this.partyCallsAtStart = partyProfileCache.partyCalls();
+        this.queryRepeatThreshold = queryRepeatThreshold;
+        this.previous = CURRENT.get();
+        CURRENT.set(this);
+    }
+
+    /**
+     * @return the run bound to the current thread, null if there is none.
+     */
+    static ReportRun current() {
+        return CURRENT.get();
+    }
+
+    public ReportType report() {
+        return report;
+    }
+
+    /**
+     * Work of a stage that returns a result.
+     */
+    @FunctionalInterface
+    public interface StageCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Work of a stage without a result.
+     */
+    @FunctionalInterface
+    public interface StageAction<E extends Exception> {
+        void run() throws E;
+    }
+
+    /**
+     * Runs the work and adds its duration to the stage.
+     *
+     * @return the result of the work.
+     */
+    public <T, E extends Exception> T time(ReportStage stage, StageCall<T, E> work) throws E {
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            addStageTime(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs the work and adds its duration to the stage.
+     */
+    public <E extends Exception> void time(ReportStage stage, StageAction<E> work) throws E {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            addStageTime(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Wraps an iterator over database rows so reading them counts as {@link ReportStage#FETCH}
+     * and every row read as fetched; used for rows streamed through a cursor.
+     */
+    public <T> Iterator<T> fetching(Iterator<T> rows) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return time(ReportStage.FETCH, rows::hasNext);
+            }
+
+            @Override
+            public T next() {
+                T row = time(ReportStage.FETCH, rows::next);
+                rowsFetched++;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Wraps the stream receiving the report so the bytes written to it are counted.
+     * Closing the returned stream does not close the given one.
+     */
+    public OutputStream counting(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesWritten++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                bytesWritten += len;
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * @param rows the number of rows read from the database.
+     */
+    public void rowsFetched(long rows) {
+        rowsFetched += rows;
+    }
+
+    /**
+     * @param rows the number of rows written to the report.
+     */
+    public void rowsEmitted(long rows) {
+        rowsEmitted += rows;
+    }
+
+    /**
+     * Adds an executed SQL statement to the run.
+     *
+     * @param repositoryMethod the repository method that executed it.
+     * @param sql the SQL of the statement, null if unknown.
+     * @param nanos how long the execute call took.
+     */
+    void queryExecuted(QueryMetrics.RepositoryMethod repositoryMethod, String sql, long nanos) {
+        queries++;
+        queryNanos += nanos;
+        if (sql != null) {
+            statements.computeIfAbsent(sql, key -> new StatementStats(repositoryMethod)).count++;
+        }
+    }
+
+    /**
+     * Marks the run as successful; runs closed without it are recorded as failed.
+     */
+    public void succeeded() {
+        succeeded = true;
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+        long durationNanos = System.nanoTime() - startNanos;
+        CacheStats cacheStats = partyProfileCache.stats().minus(cacheStatsAtStart);
+        long partyCalls = partyProfileCache.partyCalls() - partyCallsAtStart;
+        String outcome = succeeded ? "success" : "error";
+        Tags tags = Tags.of("report", report.name());
+
+        Timer.builder("report.duration")
+                .description("Duration of report runs")
+                .tags(tags.and("outcome", outcome))
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        StringJoiner stages = new StringJoiner(", ");
+        for (Map.Entry<ReportStage, Long> stage : stageNanos.entrySet()) {
+            Timer.builder("report.stage.duration")
+                    .description("Time a report run spent in a stage")
+                    .tags(tags.and("stage", stage.getKey().tag()))
+                    .register(registry)
+                    .record(stage.getValue(), TimeUnit.NANOSECONDS);
+            stages.add(stage.getKey().tag() + "=" + TimeUnit.NANOSECONDS.toMillis(stage.getValue()) + "ms");
+        }
+        registry.counter("report.rows.fetched", tags).increment(rowsFetched);
+        registry.counter("report.rows.emitted", tags).increment(rowsEmitted);
+        registry.counter("report.bytes.written", tags).increment(bytesWritten);
+        registry.counter("report.party.calls", tags).increment(partyCalls);
+        registry.counter("report.party.cache.hits", tags).increment(cacheStats.hitCount());
+        registry.counter("report.party.cache.misses", tags).increment(cacheStats.missCount());
+        registry.counter("report.queries", tags).increment(queries);
+
+        for (Map.Entry<String, StatementStats> statement : statements.entrySet()) {
+            StatementStats stats = statement.getValue();
+            if (stats.count > queryRepeatThreshold) {
+                registry.counter("report.query.repeated", tags.and("repository", stats.repositoryMethod.repository(),
+                        "method", stats.repositoryMethod.method())).increment();
+                logger.warn("Report {} executed the same statement {} times through {}, possible N+1 query: {}",
+                        report, stats.count, stats.repositoryMethod, abbreviate(statement.getKey()));
+            }
+        }
+
+        logger.info("Report {} finished ({}) in {} ms: rowsFetched={}, rowsEmitted={}, bytesWritten={}, "
+                        + "partyCalls={}, partyCacheHits={}, partyCacheMisses={}, queries={}, queryTime={}ms, stages=[{}]",
+                report, outcome, TimeUnit.NANOSECONDS.toMillis(durationNanos), rowsFetched, rowsEmitted,
+                bytesWritten, partyCalls, cacheStats.hitCount(), cacheStats.missCount(), queries,
+                TimeUnit.NANOSECONDS.toMillis(queryNanos), stages);
+    }
+
+    private static String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").strip();
+        return singleLine.length() <= LOGGED_SQL_LENGTH ? singleLine : singleLine.substring(0, LOGGED_SQL_LENGTH) + "...";
+    }
+
+    private void addStageTime(ReportStage stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+
+    /**
+     * How often one SQL statement was executed in the run.
+     */
+    private static class StatementStats {
+        private final QueryMetrics.RepositoryMethod repositoryMethod;
+        private long count;
+
+        StatementStats(QueryMetrics.RepositoryMethod repositoryMethod) {
+            this.repositoryMethod = repositoryMethod;
+        }
+    }
+}
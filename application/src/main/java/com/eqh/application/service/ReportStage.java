@@ -0,0 +1,29 @@
+package com.eqh.application.service;
+
+import java.util.Locale;
+
+/**
+ * The stages of report generation timed by {@link ReportRun}.
+ */
+public enum ReportStage {
+
+    /** Database queries and reading their rows. */
+    FETCH,
+    /** Parsing message_image JSON documents. */
+    PARSE,
+    /** Loading party profiles through the party profile cache. */
+    PARTY,
+    /** Summing the YTD gross and withholding amounts. */
+    YTD,
+    /** Turning the fetched rows into report rows. */
+    TRANSFORM,
+    /** Writing the rows and the workbook. */
+    WRITE;
+
+    /**
+     * @return the value of the {@code stage} tag of the stage timer.
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
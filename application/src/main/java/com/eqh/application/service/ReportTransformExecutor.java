@@ -0,0 +1,70 @@
+package com.eqh.application.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded pool for the CPU-bound stages of report generation (message parsing and row
+ * transformation).
+ * <p>
+ * Work runs on a dedicated {@link ForkJoinPool} instead of the common pool, so concurrent
+ * report downloads share a fixed number of threads and do not starve other parallel streams.
+ * The transform functions must not mutate shared state.
+ */
+@Service
+public class ReportTransformExecutor implements DisposableBean {
+
+    private final ForkJoinPool pool;
+
+    public ReportTransformExecutor(@Value("${report.transform.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("report-transform-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Applies the transform to every item in parallel.
+     *
+     * @param items the items to transform.
+     * @param transform a stateless function applied to each item.
+     * @return the results, in the order of the items.
+     */
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> transform) {
+        ForkJoinTask<List<R>> task = pool.submit(() -> items.parallelStream()
+                .<R>map(transform)
+                .collect(Collectors.toList()));
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while transforming report rows", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Error transforming report rows", cause);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -1,111 +1,205 @@
 package com.eqh.application.service;
 
 import com.eqh.application.dto.Address;
-import com.eqh.application.feignClient.PartyClient;
+import com.eqh.application.dto.ReportFormat;
+import com.eqh.application.dto.ReportType;
 import com.eqh.application.repository.PolicyRepository;
 import com.eqh.application.repository.TransactionHistoryRepository;
-import com.eqh.application.utility.GovtIdTCodeUtil;
-import com.eqh.application.utility.ResidenceCountryUtil;
-import com.eqh.application.utility.ResidenceStateUtil;
+import com.eqh.application.utility.CodeTables;
+import com.eqh.application.utility.ReportRows;
+import com.eqh.application.utility.ReportSchema;
+import com.eqh.application.utility.ReportWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionHistoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionHistoryService.class);
-    private static final String DATE_FORMAT = "ddMMyyyy_HHmmss";
     private static final String DATE_FORMAT_FOR_EXCEL = "MM-dd-yyyy";
-    private static final String CURRENCY_FORMAT = "$#,##0.00";
     private static final String ERROR_PROCESSING_ROW = "Error processing row";
     private static final String UNKNOWN = "Unknown";
+    // Payee rows whose party profiles are loaded together before the rows are transformed
+    private static final int ENRICHMENT_CHUNK_SIZE = 500;
+    private static final String[] HEADERS = {
+            "Run Year" ,"Product Code", "Policy Number", "Transaction Effective Date", "Transaction Run Date",
+            "Party Id", "govtID","GovtIdTC","First Name", "Last Name","Gross Amount", "Federal Withholding Amount", "State Withholding Amount",
+            "Settlement Interest Amount", "Late Interest Amount","Residence State","Organization","residenceCountry",
+            "Preferred Mailing Address","mailingAddress"
+    };
+    // Policy and party numbers, names, govt IDs and addresses are mostly unique per row and stay plain text
+    private static final ReportSchema SCHEMA = ReportSchema.of(HEADERS, "Gross Amount", "Federal Withholding Amount",
+            "State Withholding Amount", "Settlement Interest Amount", "Late Interest Amount")
+            .withDictionary("Run Year", "Product Code", "Transaction Effective Date", "Transaction Run Date",
+                    "GovtIdTC", "Residence State", "residenceCountry");
 
     private final TransactionHistoryRepository transactionHistoryRepository;
     private final PolicyRepository policyRepository;
     private final ObjectMapper objectMapper;
 
-    private final PartyClient partyClient;
+    private final PartyProfileCache partyProfileCache;
+    private final ReportTransformExecutor transformExecutor;
+    private final ReportMetrics reportMetrics;
 
     @Autowired
     public TransactionHistoryService(TransactionHistoryRepository transactionHistoryRepository,
                                      PolicyRepository policyRepository,
-                                     ObjectMapper objectMapper, PartyClient partyClient) {
+                                     ObjectMapper objectMapper, PartyProfileCache partyProfileCache,
+                                     ReportTransformExecutor transformExecutor, ReportMetrics reportMetrics) {
         this.transactionHistoryRepository = transactionHistoryRepository;
         this.policyRepository = policyRepository;
         this.objectMapper = objectMapper;
-        this.partyClient = partyClient;
+        this.partyProfileCache = partyProfileCache;
+        this.transformExecutor = transformExecutor;
+        this.reportMetrics = reportMetrics;
     }
 
     /**
-     * Generates a report in Excel format and returns it as a byte array.
+     * Generates a report in Excel format and writes it to the given stream.
      *
-     * @return byte array containing the Excel report.
+     * @param out the stream receiving the Excel report; it is not closed.
      * @throws IOException if an error occurs during data retrieval or report generation.
      */
-    public byte[] generateReportAsBytes() throws IOException {
-        List<Object[]> data = transactionHistoryRepository.findCustomPayoutDeathClaimTransactions();
-
-        if (data.isEmpty()) {
-            throw new IOException("No data found for the report.");
-        }
-
-        // Load all policy-product mappings in advance to optimize processing
-        Map<String, String> policyProductCodes = loadPolicyProductCodes();
+    @Transactional(readOnly = true)
+    public void writeReport(OutputStream out) throws IOException {
+        writeReport(out, ReportProgress.NONE);
+    }
 
-        // Transform raw data into a format suitable for Excel
-        List<List<Object>> transformedData = data.stream()
-                .flatMap(row -> processRow(row, policyProductCodes).stream())
-                .collect(Collectors.toList());
+    /**
+     * Generates the report like {@link #writeReport(OutputStream)}, reporting its progress.
+     *
+     * @param out the stream receiving the Excel report; it is not closed.
+     * @param progress receives the stage and the number of processed rows.
+     * @throws IOException if an error occurs during data retrieval or report generation.
+     */
+    @Transactional(readOnly = true)
+    public void writeReport(OutputStream out, ReportProgress progress) throws IOException {
+        writeReport(out, ReportFormat.XLSX, progress);
+    }
 
-        String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
+    /**
+     * Generates the report in the given format, reporting its progress. CSV and NDJSON rows
+     * reach the stream as they are transformed; an Excel workbook is written at the end.
+     * <p>
+     * The payee cursor holds a database connection until the report is written, see
+     * {@link TransactionHistoryRepository}.
+     *
+     * @param out the stream receiving the report; it is not closed.
+     * @param format the format of the report.
+     * @param progress receives the stage and the number of processed rows.
+     * @throws IOException if an error occurs during data retrieval or report generation.
+     */
+    @Transactional(readOnly = true)
+    public void writeReport(OutputStream out, ReportFormat format, ReportProgress progress) throws IOException {
+        try (ReportRun run = reportMetrics.start(ReportType.DEATH_CLAIM)) {
+            progress.stage(ReportProgress.STAGE_LOADING);
+            // Load all policy-product mappings in advance to optimize processing
+            Map<String, String> policyProductCodes = run.time(ReportStage.FETCH, this::loadPolicyProductCodes);
+
+            // One row per payee, with the message_image fields already extracted by the database.
+            // Rows are read through a cursor and written to the report as they arrive.
+            ReportRows reportRows = new ReportRows(SCHEMA);
+            try (Stream<Object[]> data = run.time(ReportStage.FETCH, transactionHistoryRepository::streamDeathClaimPayees);
+                 ReportWriter writer = ReportWriter.open(format, "Transaction History", SCHEMA, run.counting(out))) {
+                Iterator<Object[]> rows = run.fetching(data.iterator());
+                if (!rows.hasNext()) {
+                    throw new IOException("No data found for the report.");
+                }
+
+                progress.stage(ReportProgress.STAGE_TRANSFORMING);
+                List<Object[]> chunk = new ArrayList<>(ENRICHMENT_CHUNK_SIZE);
+                while (rows.hasNext()) {
+                    chunk.add(rows.next());
+                    if (chunk.size() == ENRICHMENT_CHUNK_SIZE || !rows.hasNext()) {
+                        writeChunk(chunk, policyProductCodes, reportRows, writer, run);
+                        progress.rowsProcessed(chunk.size());
+                        chunk.clear();
+                    }
+                }
 
-        // Generate the Excel report
-        return generateExcelReportAsBytes(transformedData, timestamp);
+                progress.stage(ReportProgress.STAGE_WRITING);
+                // Flush the remaining rows, or auto-size the columns and write the workbook
+                run.time(ReportStage.WRITE, writer::finish);
+                run.rowsEmitted(writer.rowsWritten());
+            }
+            run.succeeded();
+        }
     }
 
     /**
-     * Retrieves transaction data as JSON and returns it as a byte array.
+     * Writes the message_image of every death claim transaction as a JSON array to the given stream.
+     * Documents that are not valid JSON are logged and left out.
      *
-     * @return byte array containing JSON data.
-     * @throws IOException if an error occurs during data retrieval or JSON processing.
+     * @param out the stream receiving the JSON array; it is not closed.
+     * @throws IOException if an error occurs during data retrieval or JSON writing.
      */
-    public byte[] getJsonDataAsBytes() throws IOException {
-        List<Object[]> data = transactionHistoryRepository.findCustomPayoutDeathClaimTransactions();
+    @Transactional(readOnly = true)
+    public void writeJsonData(OutputStream out) throws IOException {
+        try (Stream<String> messageImages = transactionHistoryRepository.streamCustomPayoutDeathClaimMessageImages();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<String> documents = messageImages.iterator();
+            if (!documents.hasNext()) {
+                throw new IOException("No data found for the JSON data.");
+            }
 
-        if (data.isEmpty()) {
-            throw new IOException("No data found for the JSON data.");
+            generator.writeStartArray();
+            while (documents.hasNext()) {
+                JsonNode jsonNode;
+                try {
+                    jsonNode = objectMapper.readTree(documents.next());
+                } catch (JsonProcessingException e) {
+                    logger.error(ERROR_PROCESSING_ROW, e);
+                    continue;
+                }
+                generator.writeTree(jsonNode);
+            }
+            generator.writeEndArray();
         }
+    }
 
-        // Convert raw transaction data into JSON nodes
-        List<JsonNode> jsonNodes = data.stream()
-                .map(row -> {
-                    try {
-                        return objectMapper.readTree((String) row[0]);
-                    } catch (IOException e) {
-                        logger.error(ERROR_PROCESSING_ROW, e);
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        return objectMapper.writeValueAsBytes(jsonNodes);
+    /**
+     * Loads the party profiles of a chunk of payee rows with bulk calls, then transforms the
+     * rows in parallel and writes them in their original order.
+     *
+     * @param chunk the payee rows.
+     * @param policyProductCodes map of policy numbers to product codes.
+     * @param reportRows the buffer the transformed rows are collected in, reused for every chunk.
+     * @param writer the report receiving the rows.
+     * @param run the measured report run.
+     */
+    private void writeChunk(List<Object[]> chunk, Map<String, String> policyProductCodes, ReportRows reportRows,
+                            ReportWriter writer, ReportRun run) throws IOException {
+        Set<String> partyNumbers = chunk.stream()
+                .map(row -> (String) row[9]) // Party Number
+                .filter(partyNumber -> partyNumber != null && !partyNumber.isEmpty())
+                .collect(Collectors.toSet());
+        run.time(ReportStage.PARTY, () -> partyProfileCache.getAll(partyNumbers));
+
+        List<List<List<Object>>> transformed = run.time(ReportStage.TRANSFORM,
+                () -> transformExecutor.map(chunk, row -> processRow(row, policyProductCodes)));
+        run.time(ReportStage.WRITE, () -> {
+            reportRows.clear();
+            for (List<List<Object>> rowData : transformed) {
+                reportRows.addAll(rowData);
+            }
+            writer.writeRows(reportRows);
+        });
     }
 
     /**
@@ -123,110 +217,82 @@ public class TransactionHistoryService {
     }
 
     /**
-     * Processes a single row of transaction data.
+     * Processes a single payee row of {@link TransactionHistoryRepository#streamDeathClaimPayees()}.
      *
-     * @param row the raw data row.
+     * @param row the payee row.
      * @param policyProductCodes map of policy numbers to product codes.
-     * @return a list of lists containing transformed data for each row.
+     * @return a list of lists containing transformed data for the row.
      */
     private List<List<Object>> processRow(Object[] row, Map<String, String> policyProductCodes) {
-        List<List<Object>> result = new ArrayList<>();
         try {
-            JsonNode jsonMap = objectMapper.readTree((String) row[0]);
-
-            // Extract policy number and look up product code
-            String polNumber = Optional.ofNullable(jsonMap.get("polNumber")).map(JsonNode::asText).orElse(UNKNOWN);
+            // Look up the product code of the policy
+            String polNumber = Optional.ofNullable((String) row[0]).orElse(UNKNOWN);
             String productCode = policyProductCodes.getOrDefault(polNumber, UNKNOWN);
 
-            // Extract the 'arrangement' node
-            JsonNode arrDestination = Optional.ofNullable(jsonMap.get("arrangement"))
-                    .map(arr -> arr.get("arrDestination"))
-                    .orElse(null);
-
-            // Process each destination if available
-            if (arrDestination != null && arrDestination.isArray() && !productCode.equalsIgnoreCase(UNKNOWN)) {
-                result.addAll(StreamSupport.stream(arrDestination.spliterator(), false)
-                        .map(dest -> processDestination(dest, (BigDecimal) row[1], (Date) row[2],(Date) row[3] , polNumber, productCode))
-                        .flatMap(Collection::stream)
-                        .collect(Collectors.toList()));
+            if (productCode.equalsIgnoreCase(UNKNOWN)) {
+                return Collections.emptyList();
             }
+            return processPayee(row, polNumber, productCode);
         } catch (Exception e) {
             logger.error(ERROR_PROCESSING_ROW, e);
-            result.add(Collections.singletonList(ERROR_PROCESSING_ROW));
+            return Collections.singletonList(Collections.singletonList(ERROR_PROCESSING_ROW));
         }
-        return result;
     }
 
     /**
-     * Processes a single destination within a transaction.
+     * Processes a single payee of a transaction.
      *
-     * @param dest the destination node.
-     * @param grossAmt the gross amount associated with the transaction.
-     * @param transEffDate the effective date of the transaction.
+     * @param row the payee row.
      * @param polNumber the policy number.
      * @param productCode the product code.
-     * @return a list of lists containing processed destination data.
+     * @return a list of lists containing processed payee data.
      */
-    private List<List<Object>> processDestination(JsonNode dest, BigDecimal grossAmt, Date transEffDate,Date transRunDate, String polNumber, String productCode) {
-        JsonNode taxableParty = dest.get("taxableParty");
-        if (taxableParty == null ) return Collections.emptyList();
+    private List<List<Object>> processPayee(Object[] row, String polNumber, String productCode) {
+        Date transEffDate = (Date) row[2];
+        Date transRunDate = (Date) row[3];
 
         // Extract payee details
-        String firstName = Optional.ofNullable(taxableParty.get("person")).map(person -> person.get("firstName").asText()).orElse(UNKNOWN);
-        String lastName = Optional.ofNullable(taxableParty.get("person")).map(person -> person.get("lastName").asText()).orElse(UNKNOWN);
-        String residenceState = Optional.ofNullable(taxableParty.get("residenceState")).map(JsonNode::asText).orElse("");
+        String firstName = Optional.ofNullable((String) row[4]).orElse(UNKNOWN);
+        String lastName = Optional.ofNullable((String) row[5]).orElse(UNKNOWN);
+        String residenceState = Optional.ofNullable((String) row[6]).orElse("");
 
-        String govtID = Optional.ofNullable(taxableParty.get("govtID").asText()).orElse(UNKNOWN);
-        String govtIdTC = Optional.ofNullable(taxableParty.get("govtIdTC").asText()).orElse(UNKNOWN);
+        String govtID = Optional.ofNullable((String) row[7]).orElse(UNKNOWN);
+        String govtIdTC = Optional.ofNullable((String) row[8]).orElse(UNKNOWN);
 
         // Validate and convert residence state
-        String residenceStateText = UNKNOWN;
-        if (!residenceState.isEmpty()) {
-            try {
-                int residenceStateCode = Integer.parseInt(residenceState);
-                residenceStateText = ResidenceStateUtil.getStateName(residenceStateCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid residence state code: {}. Using default '{}'", residenceState, UNKNOWN, e);
+        String residenceStateText = CodeTables.RESIDENCE_STATE.name(residenceState);
+        if (residenceStateText == null) {
+            if (!residenceState.isEmpty()) {
+                logger.warn("Invalid residence state code: {}. Using default '{}'", residenceState, UNKNOWN);
             }
+            residenceStateText = UNKNOWN;
         }
 
-        // Transform taxableToGovtIdTCode using GovtIdTCodeUtil
-        String transformedGovtIdTCode = "Unknown";
-        if (govtIdTC != null && !govtIdTC.trim().isEmpty()) {
-            try {
-                int govtIdTCode = Integer.parseInt(govtIdTC.trim());
-                transformedGovtIdTCode = GovtIdTCodeUtil.getIdTCodeName(govtIdTCode);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid government ID type code: " + transformedGovtIdTCode, e);
-            }
-        } else {
-            logger.warn("Empty or null government ID type code: " + transformedGovtIdTCode);
+        // Transform taxableToGovtIdTCode using CodeTables.GOVT_ID_TYPE_CODE
+        String transformedGovtIdTCode = CodeTables.GOVT_ID_TYPE_CODE.name(govtIdTC);
+        if (transformedGovtIdTCode == null) {
+            logger.warn("Invalid, empty or null government ID type code: " + govtIdTC);
+            transformedGovtIdTCode = "Unknown";
         }
 
         // Extract financial amounts
-        BigDecimal settlementInterestAmt = Optional.ofNullable(dest.get("settlementInterestAmt")).map(JsonNode::decimalValue).orElse(BigDecimal.ZERO);
-        BigDecimal lateInterestAmt = Optional.ofNullable(dest.get("lateInterestAmt")).map(JsonNode::decimalValue).orElse(BigDecimal.ZERO);
-        BigDecimal deathBenefitPayoutAmt = Optional.ofNullable(dest.get("deathBenefitPayoutAmt")).map(JsonNode::decimalValue).orElse(BigDecimal.ZERO);
-        String partyNumber = Optional.ofNullable(taxableParty.get("partyNumber")).map(JsonNode::asText).orElse("");
-
-        BigDecimal federalWithholdingAmt = Optional.ofNullable(dest.get("payeeWithholding")).map(withholding -> withholding.get("federalWithholdingAmt")).map(JsonNode::decimalValue).orElse(BigDecimal.ZERO);
-        BigDecimal stateWithholdingAmt = Optional.ofNullable(dest.get("payeeWithholding")).map(withholding -> withholding.get("stateWithholdingAmt")).map(JsonNode::decimalValue).orElse(BigDecimal.ZERO);
+        String partyNumber = Optional.ofNullable((String) row[9]).orElse("");
+        BigDecimal settlementInterestAmt = Optional.ofNullable((BigDecimal) row[11]).orElse(BigDecimal.ZERO);
+        BigDecimal lateInterestAmt = Optional.ofNullable((BigDecimal) row[12]).orElse(BigDecimal.ZERO);
+        BigDecimal deathBenefitPayoutAmt = Optional.ofNullable((BigDecimal) row[13]).orElse(BigDecimal.ZERO);
+        BigDecimal federalWithholdingAmt = Optional.ofNullable((BigDecimal) row[14]).orElse(BigDecimal.ZERO);
+        BigDecimal stateWithholdingAmt = Optional.ofNullable((BigDecimal) row[15]).orElse(BigDecimal.ZERO);
 
         // Determine organization if names are unknown
         String organization = UNKNOWN;
-        if (UNKNOWN.equals(firstName) && UNKNOWN.equals(lastName)) {
-            JsonNode organizationNode = Optional.ofNullable(taxableParty.get("organization"))
-                    .map(org -> org.get("dba"))
-                    .orElse(null);
-            if (organizationNode != null) {
-                organization = organizationNode.asText();
-            }
+        if (UNKNOWN.equals(firstName) && UNKNOWN.equals(lastName) && row[10] != null) {
+            organization = (String) row[10];
         }
 
-        // Fetch addresses using Feign client
+        // Fetch addresses through the party profile cache
         List<Address> addresses = Collections.emptyList();
         if (partyNumber != null) {
-            addresses = partyClient.getAddresses(partyNumber);
+            addresses = partyProfileCache.getAddresses(partyNumber);
         }
 
         // Find the preferred address and concatenate line1 and line2
@@ -245,7 +311,7 @@ public class TransactionHistoryService {
         String residenceCountry = addresses.stream()
                 .filter(Address::getPrefAddr)
                 .findFirst()
-                .map(address -> ResidenceCountryUtil.getCountryName(Integer.parseInt(address.getAddressCountrytc() != null ? address.getAddressCountrytc() : "0"))).orElse("");
+                .map(address -> CodeTables.RESIDENCE_COUNTRY.name(address.getAddressCountrytc() != null ? address.getAddressCountrytc() : "0")).orElse("");
 
 
         // Find the non-preferred address and concatenate line1 and line2
@@ -274,11 +340,11 @@ public class TransactionHistoryService {
                 transformedGovtIdTCode,
                 firstName,
                 lastName,
-                formatBigDecimal(deathBenefitPayoutAmt),//Gross Amount
-                formatBigDecimal(federalWithholdingAmt),
-                formatBigDecimal(stateWithholdingAmt),
-                formatBigDecimal(settlementInterestAmt),
-                formatBigDecimal(lateInterestAmt),
+                deathBenefitPayoutAmt,//Gross Amount
+                federalWithholdingAmt,
+                stateWithholdingAmt,
+                settlementInterestAmt,
+                lateInterestAmt,
                 residenceStateText,
                 organization, // Moved "Organization" after "Last Name"
                 residenceCountry,
@@ -287,18 +353,6 @@ public class TransactionHistoryService {
         ));
     }
 
-    /**
-     * Formats a BigDecimal value as a currency string.
-     *
-     * @param value the BigDecimal value to format.
-     * @return formatted currency string.
-     */
-    private String formatBigDecimal(BigDecimal value) {
-        if (value == null) return "";
-        DecimalFormat df = new DecimalFormat(CURRENCY_FORMAT);
-        return df.format(value);
-    }
-
     /**
      * Formats a Date object as a string in the format "yyyy-MM-dd".
      *
@@ -308,91 +362,4 @@ public class TransactionHistoryService {
     private String formatDate(Date date) {
         return date == null ? "" : new SimpleDateFormat(DATE_FORMAT_FOR_EXCEL).format(date);
     }
-
-    /**
-     * Generates an Excel report from the given data and timestamp.
-     *
-     * @param data the data to populate the Excel sheet.
-     * @param timestamp the timestamp to be included in the report file name.
-     * @return byte array containing the Excel report.
-     * @throws IOException if an error occurs during Excel report generation.
-     */
-    private byte[] generateExcelReportAsBytes(List<List<Object>> data, String timestamp) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Transaction History");
-
-            // Create the header row for the Excel sheet
-            createHeaderRow(sheet);
-
-            int rowNum = 1;
-            for (List<Object> rowData : data) {
-                Row row = sheet.createRow(rowNum++);
-                // Populate each row with data
-                populateRow(row, rowData, workbook);
-            }
-
-            // Auto-size columns to fit the content
-            autoSizeColumns(sheet);
-
-            // Write the workbook to a byte array output stream
-            workbook.write(baos);
-            return baos.toByteArray();
-        }
-    }
-
-    /**
-     * Creates the header row in the Excel sheet.
-     *
-     * @param sheet the sheet to which the header row will be added.
-     */
-    private void createHeaderRow(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {
-                "Run Year" ,"Product Code", "Policy Number", "Transaction Effective Date", "Transaction Run Date",
-                "Party Id", "govtID","GovtIdTC","First Name", "Last Name","Gross Amount", "Federal Withholding Amount", "State Withholding Amount",
-                "Settlement Interest Amount", "Late Interest Amount","Residence State","Organization","residenceCountry",
-                "Preferred Mailing Address","mailingAddress"
-        };
-        IntStream.range(0, headers.length).forEach(i -> {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-        });
-    }
-
-    /**
-     * Populates a row in the Excel sheet with data.
-     *
-     * @param row the row to populate.
-     * @param rowData the data to be inserted into the row.
-     * @param workbook the workbook used to create cell styles.
-     */
-    private void populateRow(Row row, List<Object> rowData, Workbook workbook) {
-        IntStream.range(0, rowData.size()).forEach(i -> {
-            Cell cell = row.createCell(i);
-            Object value = rowData.get(i);
-            if (value instanceof String) {
-                cell.setCellValue((String) value);
-            } else if (value instanceof BigDecimal) {
-                cell.setCellValue(((BigDecimal) value).doubleValue());
-                CellStyle cellStyle = workbook.createCellStyle();
-                DataFormat format = workbook.createDataFormat();
-                cellStyle.setDataFormat(format.getFormat(CURRENCY_FORMAT));
-                cell.setCellStyle(cellStyle);
-            } else {
-                cell.setCellValue(value != null ? value.toString() : "");
-            }
-        });
-    }
-
-    /**
-     * Auto-sizes all columns in the sheet to fit the content.
-     *
-     * @param sheet the sheet in which columns will be auto-sized.
-     */
-    private void autoSizeColumns(Sheet sheet) {
-        int numberOfColumns = sheet.getRow(0).getLastCellNum();
-        IntStream.range(0, numberOfColumns).forEach(sheet::autoSizeColumn);
-    }
 }
@@ -0,0 +1,38 @@
+package com.eqh.application.utility;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class BatchUtil {
+
+    private BatchUtil() {
+    }
+
+    /**
+     * Splits a collection into consecutive batches of at most {@code batchSize} elements,
+     * used to keep native IN lists within a sane bind-parameter count.
+     *
+     * @param items the elements to split.
+     * @param batchSize the maximum number of elements per batch.
+     * @return the batches in iteration order of the source collection.
+     */
+    public static <T> List<List<T>> partition(Collection<T> items, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        List<List<T>> batches = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(batchSize, items.size()));
+        for (T item : items) {
+            current.add(item);
+            if (current.size() == batchSize) {
+                batches.add(current);
+                current = new ArrayList<>(batchSize);
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,208 @@
+package com.eqh.application.utility;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable table of OLI code display names.
+ * <p>
+ * Codes are ints except for a few text codes of the extension tables. Small int codes are
+ * stored in a dense array indexed by the code; large ones (10005xxxxx and the like) and text
+ * codes in sorted arrays searched by binary search. Lookups by {@link CharSequence} parse or
+ * compare the code in place, so a lookup never allocates.
+ */
+public final class CodeTable {
+
+    public static final String UNKNOWN = "Unknown";
+
+    // Int codes below this limit go to the dense array
+    private static final int DENSE_LIMIT = 4096;
+    private static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private final String name;
+    private final String[] dense;
+    private final int[] sparseCodes;
+    private final String[] sparseNames;
+    private final String[] textCodes;
+    private final String[] textNames;
+
+    private CodeTable(String name, String[] dense, int[] sparseCodes, String[] sparseNames,
+                      String[] textCodes, String[] textNames) {
+        this.name = name;
+        this.dense = dense;
+        this.sparseCodes = sparseCodes;
+        this.sparseNames = sparseNames;
+        this.textCodes = textCodes;
+        this.textNames = textNames;
+    }
+
+    /**
+     * Builds a table from parallel arrays of codes and display names. A code given more
+     * than once keeps its last display name.
+     *
+     * @param name the name of the table, used in messages.
+     * @param codes the codes; surrounding whitespace is ignored.
+     * @param displayNames the display name of each code.
+     * @return the table.
+     */
+    public static CodeTable of(String name, String[] codes, String[] displayNames) {
+        if (codes.length != displayNames.length) {
+            throw new IllegalArgumentException("Codes and display names of " + name + " differ in length");
+        }
+        Map<Integer, String> intEntries = new LinkedHashMap<>();
+        Map<String, String> textEntries = new LinkedHashMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            String code = codes[i].trim();
+            if (code.isEmpty()) {
+                continue;
+            }
+            long intCode = parseInt(code, 0, code.length());
+            if (intCode != NOT_AN_INT) {
+                intEntries.put((int) intCode, displayNames[i]);
+            } else {
+                textEntries.put(code, displayNames[i]);
+            }
+        }
+
+        int denseLength = intEntries.keySet().stream()
+                .filter(code -> code >= 0 && code < DENSE_LIMIT)
+                .mapToInt(code -> code + 1)
+                .max().orElse(0);
+        String[] dense = new String[denseLength];
+        intEntries.forEach((code, displayName) -> {
+            if (code >= 0 && code < DENSE_LIMIT) {
+                dense[code] = displayName;
+            }
+        });
+        int[] sparseCodes = intEntries.keySet().stream()
+                .mapToInt(Integer::intValue)
+                .filter(code -> code < 0 || code >= DENSE_LIMIT)
+                .sorted()
+                .toArray();
+        String[] sparseNames = Arrays.stream(sparseCodes).mapToObj(intEntries::get).toArray(String[]::new);
+        String[] textCodes = textEntries.keySet().stream().sorted().toArray(String[]::new);
+        String[] textNames = Arrays.stream(textCodes).map(textEntries::get).toArray(String[]::new);
+
+        return new CodeTable(name, dense, sparseCodes, sparseNames, textCodes, textNames);
+    }
+
+    /**
+     * @param code the code.
+     * @return the display name of the code, {@link #UNKNOWN} if the table has no such code.
+     */
+    public String name(int code) {
+        if (code >= 0 && code < dense.length) {
+            String displayName = dense[code];
+            return displayName != null ? displayName : UNKNOWN;
+        }
+        int index = Arrays.binarySearch(sparseCodes, code);
+        return index >= 0 ? sparseNames[index] : UNKNOWN;
+    }
+
+    /**
+     * @param code the code as text; surrounding whitespace is ignored.
+     * @return the display name of the code, {@link #UNKNOWN} if the code is an int the table
+     * does not have, or null if the text is null, blank, or neither an int nor a text code of
+     * the table.
+     */
+    public String name(CharSequence code) {
+        if (code == null) {
+            return null;
+        }
+        int start = 0;
+        int end = code.length();
+        while (start < end && Character.isWhitespace(code.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(code.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        long intCode = parseInt(code, start, end);
+        if (intCode != NOT_AN_INT) {
+            return name((int) intCode);
+        }
+        int index = findTextCode(code, start, end);
+        return index >= 0 ? textNames[index] : null;
+    }
+
+    /**
+     * @return the number of codes in the table.
+     */
+    public int size() {
+        int size = sparseCodes.length + textCodes.length;
+        for (String displayName : dense) {
+            if (displayName != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + size() + " codes)";
+    }
+
+    /**
+     * Parses {@code code[start, end)} as a decimal int.
+     *
+     * @return the value, or {@link #NOT_AN_INT}.
+     */
+    private static long parseInt(CharSequence code, int start, int end) {
+        boolean negative = code.charAt(start) == '-';
+        if (negative || code.charAt(start) == '+') {
+            if (++start == end) {
+                return NOT_AN_INT;
+            }
+        }
+        // Accumulate negatively so Integer.MIN_VALUE parses without overflow
+        long limit = negative ? Integer.MIN_VALUE : -(long) Integer.MAX_VALUE;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = code.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_AN_INT;
+            }
+            value = value * 10 - digit;
+            if (value < limit) {
+                return NOT_AN_INT;
+            }
+        }
+        return negative ? value : -value;
+    }
+
+    private int findTextCode(CharSequence code, int start, int end) {
+        int low = 0;
+        int high = textCodes.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(textCodes[mid], code, start, end);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Same order as String.compareTo
+    private static int compare(String textCode, CharSequence code, int start, int end) {
+        int length = end - start;
+        int common = Math.min(textCode.length(), length);
+        for (int i = 0; i < common; i++) {
+            char a = textCode.charAt(i);
+            char b = code.charAt(start + i);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return textCode.length() - length;
+    }
+}
@@ -0,0 +1,71 @@
+package com.eqh.application.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build step compiling the lookup XML files of {@link CodeTables} into the binary
+ * {@value CodeTables#COMPILED_RESOURCE} resource. Run by the exec-maven-plugin in the
+ * process-classes phase, so the resource is packaged with the classes; the compiler itself
+ * is left out of the jar.
+ * <p>
+ * Format: magic, version and table count as ints, then per table the resource name, the
+ * entry count and per entry the code and display name, written with {@link DataOutputStream}.
+ */
+public final class CodeTableCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodeTableCompiler.class);
+
+    private CodeTableCompiler() {
+    }
+
+    /**
+     * @param args the output file.
+     */
+    public static void main(String[] args) throws IOException, XMLStreamException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: CodeTableCompiler <output file>");
+        }
+        Path output = Path.of(args[0]);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            compile(out);
+        }
+        logger.info("Compiled {} code tables to {}", CodeTables.Source.values().length, output);
+    }
+
+    static void compile(OutputStream outputStream) throws IOException, XMLStreamException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(CodeTables.COMPILED_MAGIC);
+        out.writeInt(CodeTables.COMPILED_VERSION);
+        out.writeInt(CodeTables.Source.values().length);
+        for (CodeTables.Source source : CodeTables.Source.values()) {
+            List<String> codes = new ArrayList<>();
+            List<String> displayNames = new ArrayList<>();
+            try (InputStream inputStream = CodeTableCompiler.class.getClassLoader().getResourceAsStream(source.resource)) {
+                if (inputStream == null) {
+                    throw new IllegalStateException("XML file not found in classpath: " + source.resource);
+                }
+                CodeTableXmlReader.readEntries(inputStream, source.displayType, codes, displayNames);
+            }
+            out.writeUTF(source.resource);
+            out.writeInt(codes.size());
+            for (int i = 0; i < codes.size(); i++) {
+                out.writeUTF(codes.get(i));
+                out.writeUTF(displayNames.get(i));
+            }
+        }
+        out.flush();
+    }
+}
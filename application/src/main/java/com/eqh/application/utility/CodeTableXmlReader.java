@@ -0,0 +1,65 @@
+package com.eqh.application.utility;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * StAX reader of the OLI lookup XML files, shared by {@link CodeTables} and the build time
+ * {@link CodeTableCompiler}. Kept apart from {@link CodeTables} so the compiler does not
+ * load the tables it is compiling.
+ */
+final class CodeTableXmlReader {
+
+    private CodeTableXmlReader() {
+    }
+
+    /**
+     * Reads the codes and display names of a lookup XML file, in document order.
+     */
+    static void readEntries(InputStream inputStream, String displayType,
+                            List<String> codes, List<String> displayNames) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+
+        String internalValue = null;
+        String displayName = null;
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                // The files use different URIs for the fsc namespace, elements are matched by local name
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "allowedvalue" -> {
+                            internalValue = null;
+                            displayName = null;
+                        }
+                        case "internal" -> {
+                            if (internalValue == null) {
+                                internalValue = reader.getAttributeValue(null, "value");
+                            }
+                        }
+                        case "display" -> {
+                            if (displayName == null
+                                    && (displayType == null || displayType.equals(reader.getAttributeValue(null, "type")))) {
+                                displayName = reader.getAttributeValue(null, "value");
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "allowedvalue".equals(reader.getLocalName())) {
+                    codes.add(internalValue != null ? internalValue.trim() : "");
+                    displayNames.add(displayName != null ? displayName.trim() : CodeTable.UNKNOWN);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
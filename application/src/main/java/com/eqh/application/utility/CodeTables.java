@@ -0,0 +1,152 @@
+package com.eqh.application.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The OLI code tables used by the reports.
+ * <p>
+ * Each {@code fsc:allowedvalue} of a lookup XML file maps its {@code fsc:internal} value to
+ * the value of its first {@code fsc:display}, or of its first display of a given type. The
+ * build compiles the XML files into the binary {@value #COMPILED_RESOURCE} resource with
+ * {@link CodeTableCompiler}, so no XML is parsed at runtime; the XML files are only read
+ * when the compiled resource is missing, e.g. when running from an IDE without the build.
+ */
+public final class CodeTables {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodeTables.class);
+
+    public static final String COMPILED_RESOURCE = "code-tables.bin";
+    static final int COMPILED_MAGIC = 0x4F4C4943; // "OLIC"
+    static final int COMPILED_VERSION = 1;
+
+    /**
+     * The lookup XML files of the tables.
+     */
+    enum Source {
+        POLICY_STATUS("OLI_LU_POLSTAT.xml", null),
+        RESIDENCE_STATE("OLI_LU_STATE.xml", null),
+        RESIDENCE_COUNTRY("OLI_LU_NATION.xml", "html"),
+        GOVT_ID_TYPE_CODE("OLI_LU_GOVTIDTC.xml", null),
+        GOVT_ID_STATUS("OLI_LU_GOVTIDSTAT.xml", null),
+        QUAL_PLAN("OLI_LU_QUALPLAN.xml", null),
+        PAYEE_STATUS("OLIEXT_LU_PAYEESTATUS.xml", null),
+        SUSPEND_CODE("OLIEXT_LU_SUSPEND.xml", null);
+
+        final String resource;
+        final String displayType;
+
+        Source(String resource, String displayType) {
+            this.resource = resource;
+            this.displayType = displayType;
+        }
+    }
+
+    private static final Map<Source, CodeTable> TABLES = loadAll();
+
+    public static final CodeTable POLICY_STATUS = TABLES.get(Source.POLICY_STATUS);
+    public static final CodeTable RESIDENCE_STATE = TABLES.get(Source.RESIDENCE_STATE);
+    public static final CodeTable RESIDENCE_COUNTRY = TABLES.get(Source.RESIDENCE_COUNTRY);
+    public static final CodeTable GOVT_ID_TYPE_CODE = TABLES.get(Source.GOVT_ID_TYPE_CODE);
+    public static final CodeTable GOVT_ID_STATUS = TABLES.get(Source.GOVT_ID_STATUS);
+    public static final CodeTable QUAL_PLAN = TABLES.get(Source.QUAL_PLAN);
+    public static final CodeTable PAYEE_STATUS = TABLES.get(Source.PAYEE_STATUS);
+    public static final CodeTable SUSPEND_CODE = TABLES.get(Source.SUSPEND_CODE);
+
+    private CodeTables() {
+    }
+
+    /**
+     * @return every code table; calling it loads the tables if they are not loaded yet.
+     */
+    public static List<CodeTable> all() {
+        return List.copyOf(TABLES.values());
+    }
+
+    private static Map<Source, CodeTable> loadAll() {
+        Map<String, CodeTable> compiled = Map.of();
+        try (InputStream inputStream = CodeTables.class.getClassLoader().getResourceAsStream(COMPILED_RESOURCE)) {
+            if (inputStream != null) {
+                compiled = readCompiled(inputStream);
+            } else {
+                logger.warn(COMPILED_RESOURCE + " not found in classpath, parsing the lookup XML files");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read " + COMPILED_RESOURCE + ", parsing the lookup XML files", e);
+        }
+        Map<Source, CodeTable> tables = new EnumMap<>(Source.class);
+        for (Source source : Source.values()) {
+            CodeTable table = compiled.get(source.resource);
+            tables.put(source, table != null ? table : load(source));
+        }
+        return tables;
+    }
+
+    /**
+     * Reads the code tables written by {@link CodeTableCompiler}.
+     *
+     * @param inputStream the compiled resource.
+     * @return the code tables by the name of their XML file.
+     * @throws IOException if the stream cannot be read or is not in the compiled format.
+     */
+    public static Map<String, CodeTable> readCompiled(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != COMPILED_MAGIC || in.readInt() != COMPILED_VERSION) {
+            throw new IOException("Unsupported format of " + COMPILED_RESOURCE);
+        }
+        int tableCount = in.readInt();
+        Map<String, CodeTable> tables = new HashMap<>();
+        for (int t = 0; t < tableCount; t++) {
+            String resource = in.readUTF();
+            int size = in.readInt();
+            String[] codes = new String[size];
+            String[] displayNames = new String[size];
+            for (int i = 0; i < size; i++) {
+                codes[i] = in.readUTF();
+                displayNames[i] = in.readUTF();
+            }
+            tables.put(resource, CodeTable.of(resource, codes, displayNames));
+        }
+        return tables;
+    }
+
+    static CodeTable load(Source source) {
+        return load(source.resource, source.displayType);
+    }
+
+    /**
+     * Reads a code table from a lookup XML file with StAX.
+     *
+     * @param resource the classpath resource of the XML file.
+     * @param displayType the type attribute of the display to use, null for the first display.
+     * @return the code table.
+     */
+    public static CodeTable load(String resource, String displayType) {
+        try (InputStream inputStream = CodeTables.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("XML file not found in classpath: " + resource);
+            }
+            return read(resource, inputStream, displayType);
+        } catch (IOException | XMLStreamException e) {
+            throw new IllegalStateException("Failed to load or parse XML file: " + resource, e);
+        }
+    }
+
+    static CodeTable read(String name, InputStream inputStream, String displayType) throws XMLStreamException {
+        List<String> codes = new ArrayList<>();
+        List<String> displayNames = new ArrayList<>();
+        CodeTableXmlReader.readEntries(inputStream, displayType, codes, displayNames);
+        return CodeTable.of(name, codes.toArray(new String[0]), displayNames.toArray(new String[0]));
+    }
+}
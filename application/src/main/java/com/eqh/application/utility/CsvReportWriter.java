@@ -0,0 +1,106 @@
+package com.eqh.application.utility;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming CSV writer (RFC 4180): a header line, then one line per row, written to the
+ * stream as the buffer fills.
+ * <p>
+ * Values containing a comma, a quote or a line break are quoted. Money columns are written
+ * as plain numbers without currency formatting and nulls as empty values.
+ */
+public class CsvReportWriter implements ReportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final ReportSchema schema;
+    private final Writer writer;
+    private int rowsWritten;
+
+    public CsvReportWriter(ReportSchema schema, OutputStream out) {
+        this.schema = schema;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            for (int i = 0; i < schema.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeText(schema.name(i));
+            }
+            writer.write(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void writeRows(ReportRows rows) throws IOException {
+        for (int r = 0; r < rows.size(); r++) {
+            for (int i = 0; i < schema.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (rows.isNull(r, i)) {
+                    continue;
+                }
+                if (schema.type(i) == ReportSchema.ColumnType.MONEY) {
+                    writer.write(ReportRows.formatCents(rows.cents(r, i)));
+                } else {
+                    writeText(rows.text(r, i));
+                }
+            }
+            writer.write(LINE_SEPARATOR);
+            rowsWritten++;
+        }
+    }
+
+    @Override
+    public int rowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Does nothing; the underlying stream is not closed and unfinished rows are not flushed.
+     */
+    @Override
+    public void close() {
+    }
+
+    private void writeText(String text) throws IOException {
+        if (!needsQuotes(text)) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,116 @@
+package com.eqh.application.utility;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming single-sheet Excel writer shared by the report services.
+ * <p>
+ * Only the last {@code rowWindow} rows are kept in memory; older rows are flushed to a
+ * compressed temp file, so heap use does not grow with the number of report rows.
+ * Column widths are tracked while rows are flushed so the sheet can still be auto-sized.
+ * Nothing is written to the stream before {@link #finish()}.
+ */
+public class ExcelReportWriter implements ReportWriter {
+
+    public static final int DEFAULT_ROW_WINDOW = 100;
+    private static final String CURRENCY_FORMAT = "$#,##0.00";
+
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final CellStyle currencyCellStyle;
+    private final ReportSchema schema;
+    private final OutputStream out;
+    private int rowNum;
+
+    public ExcelReportWriter(String sheetName, ReportSchema schema, OutputStream out) {
+        this(sheetName, schema, DEFAULT_ROW_WINDOW, out);
+    }
+
+    public ExcelReportWriter(String sheetName, ReportSchema schema, int rowWindow, OutputStream out) {
+        this.schema = schema;
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+        this.sheet.trackAllColumnsForAutoSizing();
+        this.currencyCellStyle = createCurrencyCellStyle();
+        writeHeaderRow();
+    }
+
+    /**
+     * Appends the rows of the buffer. Text columns are written as text, money columns as
+     * currency formatted numbers; null values leave their cell empty.
+     *
+     * @param rows the rows to write.
+     */
+    @Override
+    public void writeRows(ReportRows rows) {
+        for (int r = 0; r < rows.size(); r++) {
+            Row row = sheet.createRow(rowNum++);
+            for (int i = 0; i < schema.size(); i++) {
+                if (rows.isNull(r, i)) {
+                    continue;
+                }
+                Cell cell = row.createCell(i);
+                if (schema.type(i) == ReportSchema.ColumnType.MONEY) {
+                    cell.setCellValue(rows.cents(r, i) / 100.0);
+                    cell.setCellStyle(currencyCellStyle);
+                } else {
+                    cell.setCellValue(rows.text(r, i));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of data rows written so far, not counting the header row.
+     */
+    @Override
+    public int rowsWritten() {
+        return rowNum - 1;
+    }
+
+    /**
+     * Auto-sizes the columns and writes the finished workbook to the stream; it is not closed.
+     *
+     * @throws IOException if writing the workbook fails.
+     */
+    @Override
+    public void finish() throws IOException {
+        for (int i = 0; i < schema.size(); i++) {
+            sheet.autoSizeColumn(i);
+        }
+        workbook.write(out);
+    }
+
+    /**
+     * Deletes the temp files backing the flushed rows.
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void writeHeaderRow() {
+        Row headerRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < schema.size(); i++) {
+            headerRow.createCell(i).setCellValue(schema.name(i));
+        }
+    }
+
+    private CellStyle createCurrencyCellStyle() {
+        CellStyle cellStyle = workbook.createCellStyle();
+        DataFormat format = workbook.createDataFormat();
+        cellStyle.setDataFormat(format.getFormat(CURRENCY_FORMAT));
+        return cellStyle;
+    }
+}
@@ -0,0 +1,96 @@
+package com.eqh.application.utility;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pulls a fixed set of dotted field paths out of a JSON document with a token stream.
+ * <p>
+ * Only the values at the declared paths are materialized as {@link JsonNode}s; every other
+ * subtree is skipped without being built. A path such as {@code arrangement.arrDestination}
+ * returns the whole node found there, so callers can keep reading it like the result of a
+ * full {@code readTree}. Instances are immutable and thread-safe.
+ */
+public final class JsonFieldExtractor {
+
+    private final PathNode root = new PathNode();
+
+    private JsonFieldExtractor(String... paths) {
+        for (String path : paths) {
+            PathNode node = root;
+            for (String segment : path.split("\\.")) {
+                node = node.children.computeIfAbsent(segment, s -> new PathNode());
+            }
+            node.path = path;
+        }
+    }
+
+    /**
+     * @param paths the dotted paths to extract, e.g. {@code polNumber} or {@code adjustments.arrDestinations}.
+     * @return an extractor for the given paths.
+     */
+    public static JsonFieldExtractor forPaths(String... paths) {
+        return new JsonFieldExtractor(paths);
+    }
+
+    /**
+     * Extracts the declared paths of a document.
+     *
+     * @param objectMapper the mapper used to build the extracted nodes.
+     * @param json the JSON document; anything other than an object yields no values.
+     * @return the node of every declared path present in the document, keyed by path.
+     * @throws IOException if the document is not valid JSON.
+     */
+    public Map<String, JsonNode> extract(ObjectMapper objectMapper, String json) throws IOException {
+        Map<String, JsonNode> values = new HashMap<>();
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                readObject(objectMapper, parser, root, values);
+            }
+        }
+        return values;
+    }
+
+    private void readObject(ObjectMapper objectMapper, JsonParser parser, PathNode node,
+                            Map<String, JsonNode> values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            PathNode child = node.children.get(parser.currentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.path != null) {
+                JsonNode value = objectMapper.readTree(parser);
+                values.put(child.path, value);
+                // Paths below a declared path are taken from its node
+                putDescendants(child, value, values);
+            } else if (token == JsonToken.START_OBJECT) {
+                readObject(objectMapper, parser, child, values);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void putDescendants(PathNode node, JsonNode value, Map<String, JsonNode> values) {
+        node.children.forEach((name, child) -> {
+            JsonNode childValue = value.isObject() ? value.get(name) : null;
+            if (childValue != null) {
+                if (child.path != null) {
+                    values.put(child.path, childValue);
+                }
+                putDescendants(child, childValue, values);
+            }
+        });
+    }
+
+    private static final class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private String path;
+    }
+}
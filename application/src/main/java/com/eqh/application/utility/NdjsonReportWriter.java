@@ -0,0 +1,80 @@
+package com.eqh.application.utility;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streaming newline-delimited JSON writer: one JSON object per row and line, keyed by the
+ * column names, written to the stream as the generator buffer fills.
+ * <p>
+ * Money columns are written as JSON numbers, text columns as strings and nulls as JSON null.
+ */
+public class NdjsonReportWriter implements ReportWriter {
+
+    // Rows are separated by the newline written after each object, not by the default space
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+            .rootValueSeparator((String) null)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .build();
+
+    private final ReportSchema schema;
+    private final OutputStream out;
+    private final JsonGenerator generator;
+    private int rowsWritten;
+
+    public NdjsonReportWriter(ReportSchema schema, OutputStream out) {
+        this.schema = schema;
+        this.out = out;
+        try {
+            this.generator = JSON_FACTORY.createGenerator(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void writeRows(ReportRows rows) throws IOException {
+        for (int r = 0; r < rows.size(); r++) {
+            generator.writeStartObject();
+            for (int i = 0; i < schema.size(); i++) {
+                generator.writeFieldName(schema.name(i));
+                if (rows.isNull(r, i)) {
+                    generator.writeNull();
+                } else if (schema.type(i) == ReportSchema.ColumnType.MONEY) {
+                    generator.writeNumber(ReportRows.formatCents(rows.cents(r, i)));
+                } else {
+                    generator.writeString(rows.text(r, i));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rowsWritten++;
+        }
+    }
+
+    @Override
+    public int rowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+        out.flush();
+    }
+
+    /**
+     * Releases the generator; the underlying stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
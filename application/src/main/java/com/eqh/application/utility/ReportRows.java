@@ -0,0 +1,253 @@
+package com.eqh.application.utility;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented buffer of report rows, read by the {@link ReportWriter}s.
+ * <p>
+ * Every column of the {@link ReportSchema} is one array: text columns hold their values,
+ * dictionary columns hold codes into a per-column dictionary, so values repeated across rows
+ * such as "Unknown" or state names are stored once, and money columns hold whole cents.
+ * Money values are thus not boxed, and dictionary columns only keep their distinct values.
+ * <p>
+ * Rows shorter than the schema have their missing values null. A buffer is not thread-safe;
+ * rows transformed in parallel are added by the thread collecting them.
+ */
+public class ReportRows {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int CENTS_SCALE = 2;
+
+    private final ReportSchema schema;
+    private final Column[] columns;
+    private int size;
+
+    public ReportRows(ReportSchema schema) {
+        this.schema = schema;
+        this.columns = new Column[schema.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = switch (schema.type(i)) {
+                case TEXT -> new PlainTextColumn();
+                case DICTIONARY -> new DictionaryColumn();
+                case MONEY -> new MoneyColumn();
+            };
+        }
+    }
+
+    public ReportSchema schema() {
+        return schema;
+    }
+
+    /**
+     * Appends one row. Values of text columns are stored through {@code toString()}, values
+     * of money columns must be numbers and are rounded half up to cents.
+     *
+     * @param rowData the values of the row, in column order.
+     * @throws IllegalArgumentException if the row has more values than the schema has
+     *                                  columns, or a money value is not a number.
+     */
+    public void add(List<Object> rowData) {
+        if (rowData.size() > columns.length) {
+            throw new IllegalArgumentException("Row has " + rowData.size() + " values, the report has "
+                    + columns.length + " columns");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].set(size, i < rowData.size() ? rowData.get(i) : null);
+        }
+        size++;
+    }
+
+    /**
+     * Appends every row in order, see {@link #add(List)}.
+     */
+    public void addAll(List<? extends List<Object>> rows) {
+        for (List<Object> rowData : rows) {
+            add(rowData);
+        }
+    }
+
+    /**
+     * @return the number of rows in the buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all rows and dictionary entries, keeping the allocated arrays for reuse.
+     */
+    public void clear() {
+        for (Column column : columns) {
+            column.clear(size);
+        }
+        size = 0;
+    }
+
+    public boolean isNull(int row, int column) {
+        return columns[column].isNull(checkRow(row));
+    }
+
+    /**
+     * @return the value of a text or dictionary column, null if the row has none.
+     */
+    public String text(int row, int column) {
+        return ((TextColumn) columns[column]).get(checkRow(row));
+    }
+
+    /**
+     * @return the value of a money column in cents; check {@link #isNull(int, int)} first.
+     */
+    public long cents(int row, int column) {
+        return ((MoneyColumn) columns[column]).cents[checkRow(row)];
+    }
+
+    /**
+     * Formats an amount in cents as a plain decimal number with two fraction digits, e.g. -1234.50.
+     */
+    public static String formatCents(long cents) {
+        long units = Math.abs(cents / 100);
+        long fraction = Math.abs(cents % 100);
+        return (cents < 0 ? "-" : "") + units + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    private static int grownCapacity(int capacity, int required) {
+        return Math.max(required, Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1)));
+    }
+
+    private abstract static class Column {
+
+        abstract void set(int row, Object value);
+
+        abstract boolean isNull(int row);
+
+        /**
+         * @param size the number of rows set since the last clear.
+         */
+        abstract void clear(int size);
+    }
+
+    private abstract static class TextColumn extends Column {
+
+        abstract String get(int row);
+    }
+
+    private static class PlainTextColumn extends TextColumn {
+
+        private String[] values = new String[0];
+
+        @Override
+        void set(int row, Object value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grownCapacity(values.length, row + 1));
+            }
+            values[row] = value == null ? null : value.toString();
+        }
+
+        @Override
+        String get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return values[row] == null;
+        }
+
+        @Override
+        void clear(int size) {
+            // Release the values, the buffer may be kept for the next chunk
+            Arrays.fill(values, 0, size, null);
+        }
+    }
+
+    private static class DictionaryColumn extends TextColumn {
+
+        private static final int NULL_CODE = -1;
+
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] codes = new int[0];
+
+        @Override
+        void set(int row, Object value) {
+            if (row >= codes.length) {
+                codes = Arrays.copyOf(codes, grownCapacity(codes.length, row + 1));
+            }
+            codes[row] = value == null ? NULL_CODE : codesByValue.computeIfAbsent(value.toString(), text -> {
+                values.add(text);
+                return values.size() - 1;
+            });
+        }
+
+        @Override
+        String get(int row) {
+            int code = codes[row];
+            return code == NULL_CODE ? null : values.get(code);
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return codes[row] == NULL_CODE;
+        }
+
+        @Override
+        void clear(int size) {
+            codesByValue.clear();
+            values.clear();
+        }
+    }
+
+    private static class MoneyColumn extends Column {
+
+        // No amount rounds to it, see toCents
+        private static final long NULL_CENTS = Long.MIN_VALUE;
+
+        private long[] cents = new long[0];
+
+        @Override
+        void set(int row, Object value) {
+            if (row >= cents.length) {
+                cents = Arrays.copyOf(cents, grownCapacity(cents.length, row + 1));
+            }
+            cents[row] = value == null ? NULL_CENTS : toCents(value);
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return cents[row] == NULL_CENTS;
+        }
+
+        @Override
+        void clear(int size) {
+        }
+
+        private static long toCents(Object value) {
+            BigDecimal amount;
+            if (value instanceof BigDecimal decimal) {
+                amount = decimal;
+            } else if (value instanceof Number) {
+                amount = new BigDecimal(value.toString());
+            } else {
+                throw new IllegalArgumentException("Not an amount: " + value);
+            }
+            long cents = amount.setScale(CENTS_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            if (cents == NULL_CENTS) {
+                throw new ArithmeticException("Amount out of range: " + value);
+            }
+            return cents;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.eqh.application.utility;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The columns of a report: their names, in order, and how {@link ReportRows} stores their values.
+ */
+public final class ReportSchema {
+
+    public enum ColumnType {
+        /** Text stored as is; for values mostly unique per row such as policy numbers or names. */
+        TEXT,
+        /** Text of a few distinct values such as codes or states, dictionary-encoded so each is stored once. */
+        DICTIONARY,
+        /** Currency amounts, stored as whole cents. */
+        MONEY
+    }
+
+    private final String[] names;
+    private final ColumnType[] types;
+
+    private ReportSchema(String[] names, ColumnType[] types) {
+        this.names = names;
+        this.types = types;
+    }
+
+    /**
+     * Creates a schema of text columns, except for the named money columns.
+     *
+     * @param headers the column names, in order.
+     * @param moneyColumns the names of the columns holding currency amounts.
+     * @return the schema.
+     * @throws IllegalArgumentException if a money column is not one of the headers.
+     */
+    public static ReportSchema of(String[] headers, String... moneyColumns) {
+        ColumnType[] types = new ColumnType[headers.length];
+        Arrays.fill(types, ColumnType.TEXT);
+        List<String> names = Arrays.asList(headers);
+        for (String moneyColumn : moneyColumns) {
+            int column = names.indexOf(moneyColumn);
+            if (column < 0) {
+                throw new IllegalArgumentException("Unknown report column: " + moneyColumn);
+            }
+            types[column] = ColumnType.MONEY;
+        }
+        return new ReportSchema(headers.clone(), types);
+    }
+
+    /**
+     * Creates a copy of this schema with the named text columns dictionary-encoded.
+     *
+     * @param columns the names of the text columns holding few distinct values.
+     * @return the new schema.
+     * @throws IllegalArgumentException if a column is not one of the headers or not a text column.
+     */
+    public ReportSchema withDictionary(String... columns) {
+        ColumnType[] dictionaryTypes = types.clone();
+        List<String> headers = Arrays.asList(names);
+        for (String name : columns) {
+            int column = headers.indexOf(name);
+            if (column < 0) {
+                throw new IllegalArgumentException("Unknown report column: " + name);
+            }
+            if (types[column] != ColumnType.TEXT) {
+                throw new IllegalArgumentException("Not a text column: " + name);
+            }
+            dictionaryTypes[column] = ColumnType.DICTIONARY;
+        }
+        return new ReportSchema(names, dictionaryTypes);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int column) {
+        return names[column];
+    }
+
+    public ColumnType type(int column) {
+        return types[column];
+    }
+}
@@ -0,0 +1,54 @@
+package com.eqh.application.utility;
+
+import com.eqh.application.dto.ReportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the rows of a report in one {@link ReportFormat}.
+ * <p>
+ * Rows are read straight from {@link ReportRows} buffers of the writer's schema, in buffer
+ * order; the buffers can be reused once written. Call {@link #finish()} once all rows are
+ * written; closing a writer releases its resources but never closes the stream it writes to.
+ */
+public interface ReportWriter extends Closeable {
+
+    /**
+     * Appends the rows of the buffer.
+     *
+     * @param rows the rows, with the schema the writer was opened with.
+     * @throws IOException if writing to the stream fails.
+     */
+    void writeRows(ReportRows rows) throws IOException;
+
+    /**
+     * @return the number of data rows written so far, not counting any header.
+     */
+    int rowsWritten();
+
+    /**
+     * Completes the report and flushes it to the stream.
+     *
+     * @throws IOException if writing to the stream fails.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Opens a writer for the given format.
+     *
+     * @param format the format of the report.
+     * @param sheetName the name of the sheet, used by Excel reports only.
+     * @param schema the columns of the report.
+     * @param out the stream receiving the report; it is not closed.
+     * @return the writer.
+     */
+    static ReportWriter open(ReportFormat format, String sheetName, ReportSchema schema, OutputStream out) {
+        return switch (format) {
+            case XLSX -> new ExcelReportWriter(sheetName, schema, out);
+            case CSV -> new CsvReportWriter(schema, out);
+            case NDJSON -> new NdjsonReportWriter(schema, out);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+-- Policy number of the message_image, stored once per row instead of being parsed out of
+-- the JSON by every query that filters, groups or partitions on it. Only the request types
+-- the reports read are parsed, so other messages are never required to be valid JSON.
+-- Adding a stored generated column rewrites TRANSACTION_HISTORY under an exclusive lock;
+-- run it in a maintenance window on large databases.
+ALTER TABLE public."TRANSACTION_HISTORY"
+    ADD COLUMN IF NOT EXISTS pol_number varchar(255)
+        GENERATED ALWAYS AS (
+            CASE WHEN request_name IN ('PeriodicPayout', 'OverduePayment', 'PayoutDeathClaim')
+                 THEN message_image::json ->> 'polNumber'
+            END
+        ) STORED;
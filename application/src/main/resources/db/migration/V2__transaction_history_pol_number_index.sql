@@ -0,0 +1,6 @@
+-- Serves the per-policy lookups of the report queries: an equality or IN list on
+-- request_name and pol_number followed by a trans_exe_date range, always on rows that
+-- are not reversed. Built concurrently so writes to TRANSACTION_HISTORY are not blocked.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_history_request_pol_number_exe_date
+    ON public."TRANSACTION_HISTORY" (request_name, pol_number, trans_exe_date)
+    WHERE reversed = false;
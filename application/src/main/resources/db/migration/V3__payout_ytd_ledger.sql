@@ -0,0 +1,30 @@
+-- YTD withholding ledger: fee and adjustment totals of non-reversed payments per policy,
+-- payee party and tax year (the calendar year of the payment's trans_exe_date), so the
+-- reports read one row per payee instead of summing PAYOUT_PAYMENT_HISTORY and its
+-- deductions and adjustments on every run.
+CREATE TABLE IF NOT EXISTS public.payout_ytd_ledger (
+    id                       bigserial     PRIMARY KEY,
+    tax_year                 integer       NOT NULL,
+    pol_number               varchar(255)  NOT NULL,
+    payee_party_number       varchar(15)   NOT NULL,
+    payment_count            bigint        NOT NULL DEFAULT 0,
+    federal_fee_amt          numeric(17,2) NOT NULL DEFAULT 0,
+    state_fee_amt            numeric(17,2) NOT NULL DEFAULT 0,
+    federal_adjustment_value numeric(17,2) NOT NULL DEFAULT 0,
+    state_adjustment_value   numeric(17,2) NOT NULL DEFAULT 0,
+    update_timestamp         timestamp     NOT NULL DEFAULT now(),
+    CONSTRAINT uk_payout_ytd_ledger_year_policy_payee UNIQUE (tax_year, pol_number, payee_party_number)
+);
+
+-- Time up to which PAYOUT_PAYMENT_HISTORY and its deductions and adjustments have been added
+-- to the ledger, by update_timestamp; refreshes reload the ledger rows of every policy with a
+-- row updated since then. A single row, locked by each refresh. Left empty here, the first
+-- refresh loads the whole ledger.
+CREATE TABLE IF NOT EXISTS public.payout_ytd_ledger_watermark (
+    id                    integer   PRIMARY KEY,
+    last_update_timestamp timestamp
+);
+
+INSERT INTO public.payout_ytd_ledger_watermark (id)
+VALUES (1)
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,10 @@
+-- Serve the YTD ledger refresh, which looks up the payments, deductions and adjustments
+-- updated since its previous run. Built concurrently so payment writes are not blocked.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payout_payment_history_update_timestamp
+    ON public."PAYOUT_PAYMENT_HISTORY" (update_timestamp);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payout_payment_history_deduction_update_timestamp
+    ON public."PAYOUT_PAYMENT_HISTORY_DEDUCTION" (update_timestamp);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payout_payment_history_adjustment_update_timestamp
+    ON public."PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" (update_timestamp);
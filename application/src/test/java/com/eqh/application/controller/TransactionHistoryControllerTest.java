@@ -0,0 +1,79 @@
+package com.eqh.application.controller;
+
+import com.eqh.application.service.OverduePaymentTransactionHistoryService;
+import com.eqh.application.service.PeriodicPayoutTransactionHistoryDateRangeService;
+import com.eqh.application.service.PeriodicPayoutTransactionHistoryService;
+import com.eqh.application.service.TransactionHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TransactionHistoryControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TransactionHistoryController(
+                mock(TransactionHistoryService.class),
+                mock(OverduePaymentTransactionHistoryService.class),
+                mock(PeriodicPayoutTransactionHistoryService.class),
+                mock(PeriodicPayoutTransactionHistoryDateRangeService.class))).build();
+    }
+
+    @Test
+    void unknownFormatIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/transactions/deathclaim/generate-report").param("format", "xlsm"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/transactions/periodicpayout/dateRange/incremental/generate-report").param("format", "pdf"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void compressesCsvWhenGzipIsAccepted() throws Exception {
+        mockMvc.perform(get("/api/transactions/overduepayment/generate-report").param("format", "CSV")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"));
+    }
+
+    @Test
+    void neverCompressesExcel() throws Exception {
+        mockMvc.perform(get("/api/transactions/deathclaim/generate-report")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().doesNotExist(HttpHeaders.VARY));
+    }
+
+    @Test
+    void acceptsGzipListedWithoutZeroQuality() {
+        assertThat(TransactionHistoryController.acceptsGzip("gzip")).isTrue();
+        assertThat(TransactionHistoryController.acceptsGzip("deflate, GZIP")).isTrue();
+        assertThat(TransactionHistoryController.acceptsGzip("gzip;q=0.5")).isTrue();
+        assertThat(TransactionHistoryController.acceptsGzip("gzip; q=1.0, br;q=0")).isTrue();
+        assertThat(TransactionHistoryController.acceptsGzip("gzip;q=0.01")).isTrue();
+    }
+
+    @Test
+    void refusesGzipExcludedOrNotListed() {
+        assertThat(TransactionHistoryController.acceptsGzip(null)).isFalse();
+        assertThat(TransactionHistoryController.acceptsGzip("")).isFalse();
+        assertThat(TransactionHistoryController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(TransactionHistoryController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(TransactionHistoryController.acceptsGzip("gzip; q=0.0")).isFalse();
+        assertThat(TransactionHistoryController.acceptsGzip("gzip;Q=0.000")).isFalse();
+        assertThat(TransactionHistoryController.acceptsGzip("x-gzip")).isFalse();
+    }
+}
@@ -0,0 +1,146 @@
+package com.eqh.application.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YtdTotalsTest {
+
+    @Test
+    void toYtdResponseOfPolicyWithoutPayoutsIsZero() {
+        YtdTotals totals = new YtdTotals();
+        totals.putFeeAmounts("POL1", "PARTY1", 10.0, 5.0);
+
+        ytdResponse ytd = totals.toYtdResponse("POL1", "PARTY1");
+
+        assertThat(ytd.getYtdDisbursePeriodicPayout()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ytd.getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ytd.getYtdDisburseStateWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ytd.getYtdDisburseInterest()).isNull();
+    }
+
+    @Test
+    void toYtdResponseOfUnknownPolicyIsZero() {
+        ytdResponse ytd = new YtdTotals().toYtdResponse("POL1", "PARTY1");
+
+        assertThat(ytd.getYtdDisbursePeriodicPayout()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ytd.getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ytd.getYtdDisburseStateWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void toYtdResponseAddsFeesAndAdjustmentsOfPayee() {
+        YtdTotals totals = new YtdTotals();
+        totals.putGrossAmount("POL1", 1000.0);
+        totals.addPolicyWithPayouts("POL1");
+        totals.putFeeAmounts("POL1", "PARTY1", 100.0, 40.0);
+        totals.putAdjustmentValues("POL1", "PARTY1", 10.0, 4.0);
+        totals.putFeeAmounts("POL1", "PARTY2", 7.0, 3.0);
+
+        ytdResponse ytd = totals.toYtdResponse("POL1", "PARTY1");
+
+        assertThat(ytd.getYtdDisbursePeriodicPayout()).isEqualByComparingTo("1000");
+        assertThat(ytd.getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo("110");
+        assertThat(ytd.getYtdDisburseStateWithholdingAmt()).isEqualByComparingTo("44");
+    }
+
+    @Test
+    void toYtdResponseKeepsZeroUnlessAnAmountIsPositive() {
+        YtdTotals totals = new YtdTotals();
+        totals.putGrossAmount("POL1", 0.0);
+        totals.putGrossAmount("POL2", -50.0);
+        totals.addPolicyWithPayouts("POL1");
+        // Only the adjustment is positive: the sum of both is reported
+        totals.putFeeAmounts("POL1", "PARTY1", -20.0, 0.0);
+        totals.putAdjustmentValues("POL1", "PARTY1", 5.0, 0.0);
+
+        ytdResponse ytd = totals.toYtdResponse("POL1", "PARTY1");
+
+        assertThat(ytd.getYtdDisbursePeriodicPayout()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ytd.getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo("-15");
+        assertThat(ytd.getYtdDisburseStateWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(totals.toYtdResponse("POL2", "PARTY1").getYtdDisbursePeriodicPayout())
+                .isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void toYtdResponseIgnoresAmountsWithoutPayee() {
+        YtdTotals totals = new YtdTotals();
+        totals.addPolicyWithPayouts("POL1");
+        totals.putFeeAmounts("POL1", null, 100.0, 40.0);
+
+        ytdResponse ytd = totals.toYtdResponse("POL1", "PARTY1");
+
+        assertThat(ytd.getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ytd.getYtdDisburseStateWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void mergeAddsUpTotalsOfDisjointRanges() {
+        YtdTotals first = new YtdTotals();
+        first.putGrossAmount("POL1", 100.0);
+        first.putGrossAmount("POL2", null);
+        first.addPolicyWithPayouts("POL1");
+        first.putFeeAmounts("POL1", "PARTY1", 10.0, 5.0);
+        first.putAdjustmentValues("POL1", "PARTY1", 1.0, 0.5);
+
+        YtdTotals second = new YtdTotals();
+        second.putGrossAmount("POL1", 200.0);
+        second.putGrossAmount("POL2", 30.0);
+        second.putGrossAmount("POL3", 40.0);
+        second.addPolicyWithPayouts("POL3");
+        second.putFeeAmounts("POL1", "PARTY1", 20.0, 10.0);
+        second.putFeeAmounts("POL3", "PARTY3", 4.0, 2.0);
+
+        first.merge(second);
+
+        ytdResponse pol1 = first.toYtdResponse("POL1", "PARTY1");
+        assertThat(pol1.getYtdDisbursePeriodicPayout()).isEqualByComparingTo("300");
+        assertThat(pol1.getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo("31");
+        assertThat(pol1.getYtdDisburseStateWithholdingAmt()).isEqualByComparingTo("15.5");
+        assertThat(first.toYtdResponse("POL2", "PARTY2").getYtdDisbursePeriodicPayout()).isEqualByComparingTo("30");
+        ytdResponse pol3 = first.toYtdResponse("POL3", "PARTY3");
+        assertThat(pol3.getYtdDisbursePeriodicPayout()).isEqualByComparingTo("40");
+        assertThat(pol3.getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo("4");
+    }
+
+    @Test
+    void removePoliciesDropsAllTheirTotals() {
+        YtdTotals totals = new YtdTotals();
+        totals.putGrossAmount("POL1", 100.0);
+        totals.putGrossAmount("POL2", 200.0);
+        totals.addPolicyWithPayouts("POL1");
+        totals.putFeeAmounts("POL1", "PARTY1", 10.0, 5.0);
+        totals.putAdjustmentValues("POL1", "PARTY1", 1.0, 0.5);
+
+        totals.removePolicies(List.of("POL1"));
+        YtdTotals reloaded = new YtdTotals();
+        reloaded.putGrossAmount("POL1", 30.0);
+        totals.merge(reloaded);
+
+        ytdResponse pol1 = totals.toYtdResponse("POL1", "PARTY1");
+        assertThat(pol1.getYtdDisbursePeriodicPayout()).isEqualByComparingTo("30");
+        assertThat(pol1.getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+        totals.addPolicyWithPayouts("POL1");
+        assertThat(totals.toYtdResponse("POL1", "PARTY1").getYtdDisburseStateWithholdingAmt()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(totals.toYtdResponse("POL2", "PARTY1").getYtdDisbursePeriodicPayout()).isEqualByComparingTo("200");
+    }
+
+    @Test
+    void mergeDoesNotShareAmountsWithTheMergedTotals() {
+        YtdTotals first = new YtdTotals();
+        first.addPolicyWithPayouts("POL1");
+        YtdTotals second = new YtdTotals();
+        second.putFeeAmounts("POL1", "PARTY1", 10.0, 5.0);
+
+        first.merge(second);
+        first.merge(second);
+
+        assertThat(first.toYtdResponse("POL1", "PARTY1").getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo("20");
+        second.addPolicyWithPayouts("POL1");
+        assertThat(second.toYtdResponse("POL1", "PARTY1").getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo("10");
+    }
+}
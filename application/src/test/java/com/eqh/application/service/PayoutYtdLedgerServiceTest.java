@@ -0,0 +1,92 @@
+package com.eqh.application.service;
+
+import com.eqh.application.repository.PayoutYtdLedgerRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PayoutYtdLedgerServiceTest {
+
+    private static final Timestamp LAST_REFRESH = Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 12, 0));
+    private static final Timestamp NOW = Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 13, 0));
+
+    private final PayoutYtdLedgerRepository ledgerRepository = mock(PayoutYtdLedgerRepository.class);
+    private final PayoutYtdLedgerService service = new PayoutYtdLedgerService(ledgerRepository, 10);
+
+    @Test
+    void refreshReplacesTheRowsOfPoliciesUpdatedSinceTheLastRefreshLessTheOverlap() {
+        when(ledgerRepository.lockLastUpdateTimestamp()).thenReturn(LAST_REFRESH);
+        when(ledgerRepository.findTransactionTimestamp()).thenReturn(NOW);
+        when(ledgerRepository.findPolicyNumbersUpdatedSince(any())).thenReturn(List.of("POL1", "POL2"));
+        when(ledgerRepository.applyPaymentHistory(List.of("POL1", "POL2"))).thenReturn(3);
+
+        assertThat(service.refresh()).isEqualTo(3);
+
+        InOrder order = inOrder(ledgerRepository);
+        order.verify(ledgerRepository).lockLastUpdateTimestamp();
+        order.verify(ledgerRepository).findPolicyNumbersUpdatedSince(Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 11, 50)));
+        order.verify(ledgerRepository).deleteEntriesByPolicyNumbers(List.of("POL1", "POL2"));
+        order.verify(ledgerRepository).applyPaymentHistory(List.of("POL1", "POL2"));
+        order.verify(ledgerRepository).updateLastUpdateTimestamp(NOW);
+        verify(ledgerRepository, never()).deleteAllEntries();
+    }
+
+    @Test
+    void refreshWithoutUpdatedPaymentsOnlyMovesTheWatermark() {
+        when(ledgerRepository.lockLastUpdateTimestamp()).thenReturn(LAST_REFRESH);
+        when(ledgerRepository.findTransactionTimestamp()).thenReturn(NOW);
+        when(ledgerRepository.findPolicyNumbersUpdatedSince(any())).thenReturn(List.of());
+
+        assertThat(service.refresh()).isZero();
+
+        verify(ledgerRepository, never()).deleteEntriesByPolicyNumbers(anyList());
+        verify(ledgerRepository, never()).applyPaymentHistory(anyList());
+        verify(ledgerRepository).updateLastUpdateTimestamp(NOW);
+    }
+
+    @Test
+    void firstRefreshLoadsEveryPolicyInBatches() {
+        List<String> policyNumbers = IntStream.range(0, 1500).mapToObj(i -> "POL" + i).toList();
+        when(ledgerRepository.findTransactionTimestamp()).thenReturn(NOW);
+        when(ledgerRepository.findPolicyNumbersWithPayments()).thenReturn(policyNumbers);
+        when(ledgerRepository.applyPaymentHistory(anyList())).thenReturn(2);
+
+        assertThat(service.refresh()).isEqualTo(4);
+
+        InOrder order = inOrder(ledgerRepository);
+        order.verify(ledgerRepository).deleteAllEntries();
+        order.verify(ledgerRepository).applyPaymentHistory(policyNumbers.subList(0, 1000));
+        order.verify(ledgerRepository).applyPaymentHistory(policyNumbers.subList(1000, 1500));
+        order.verify(ledgerRepository).updateLastUpdateTimestamp(NOW);
+        verify(ledgerRepository, never()).findPolicyNumbersUpdatedSince(any());
+    }
+
+    @Test
+    void rebuildReloadsEveryPolicyEvenAfterARefresh() {
+        when(ledgerRepository.lockLastUpdateTimestamp()).thenReturn(LAST_REFRESH);
+        when(ledgerRepository.findTransactionTimestamp()).thenReturn(NOW);
+        when(ledgerRepository.findPolicyNumbersWithPayments()).thenReturn(List.of("POL1"));
+        when(ledgerRepository.applyPaymentHistory(List.of("POL1"))).thenReturn(1);
+
+        assertThat(service.rebuild()).isEqualTo(1);
+
+        InOrder order = inOrder(ledgerRepository);
+        order.verify(ledgerRepository).lockLastUpdateTimestamp();
+        order.verify(ledgerRepository).deleteAllEntries();
+        order.verify(ledgerRepository).applyPaymentHistory(List.of("POL1"));
+        order.verify(ledgerRepository).updateLastUpdateTimestamp(NOW);
+    }
+}
@@ -0,0 +1,228 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.PeriodicPayoutMessage;
+import com.eqh.application.dto.PeriodicPayoutReportState;
+import com.eqh.application.dto.YtdTotals;
+import com.eqh.application.repository.PeriodicPayoutTransactionHistoryRepository;
+import com.eqh.application.repository.PolicyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the incremental report against in-memory TRANSACTION_HISTORY and PAYOUT_PAYMENT_HISTORY
+ * rows, answering the repository queries the way their SQL does.
+ */
+class PeriodicPayoutTransactionHistoryDateRangeServiceTest {
+
+    private static final List<String> POLICIES = List.of("POL1", "POL2", "POL3", "POL4");
+    private static final List<String> PAYEES = List.of("PARTY1", "PARTY2");
+
+    private final List<Transaction> transactions = new ArrayList<>();
+    private final List<Payment> payments = new ArrayList<>();
+    private final LocalDateTime rangeStart = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(60);
+
+    private final PeriodicPayoutTransactionHistoryRepository repository = mock(PeriodicPayoutTransactionHistoryRepository.class);
+    private final PayoutYtdService payoutYtdService = mock(PayoutYtdService.class);
+    private final PeriodicPayoutReportStateStore reportStateStore = mock(PeriodicPayoutReportStateStore.class);
+    private final ReportTransformExecutor transformExecutor = new ReportTransformExecutor(1);
+    private PeriodicPayoutReportState storedState;
+    private PeriodicPayoutTransactionHistoryDateRangeService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(repository.findLatestTransactions(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> latestPayouts(null, invocation.getArgument(0), invocation.getArgument(1)).stream()
+                        .map(t -> new Object[]{t.polNumber, Timestamp.valueOf(t.executed), t.requestName, t.polNumber})
+                        .toList());
+        when(repository.findLatestPayoutTransactionsByPolicyNumbers(anyList(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> latestPayouts(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2))
+                        .stream()
+                        .map(t -> new Object[]{t.polNumber + " " + t.executed, BigDecimal.valueOf(t.grossAmt),
+                                Timestamp.valueOf(t.executed), Timestamp.valueOf(t.executed)})
+                        .toList());
+        when(repository.findPolicyNumbersWithYtdChanges(any(), any(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime executedFrom = invocation.getArgument(0);
+            LocalDateTime executedTo = invocation.getArgument(1);
+            LocalDateTime updatedFrom = invocation.getArgument(2);
+            LocalDateTime updatedTo = invocation.getArgument(3);
+            return Stream.concat(
+                            transactions.stream().filter(t -> within(t.executed, executedFrom, executedTo)
+                                    || within(t.updated, updatedFrom, updatedTo)).map(t -> t.polNumber),
+                            payments.stream().filter(p -> within(p.executed, executedFrom, executedTo)
+                                    || within(p.updated, updatedFrom, updatedTo)).map(p -> p.polNumber))
+                    .distinct()
+                    .toList();
+        });
+        when(payoutYtdService.loadYtdTotals(any(), any(), any())).thenAnswer(invocation ->
+                ytdTotals(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        PeriodicPayoutMessageParser payoutMessageParser = mock(PeriodicPayoutMessageParser.class);
+        when(payoutMessageParser.parse(anyString())).thenAnswer(invocation -> {
+            String[] messageImage = invocation.<String>getArgument(0).split(" ");
+            PeriodicPayoutMessage message = new PeriodicPayoutMessage();
+            message.setPolNumber(messageImage[0]);
+            message.setTransExeDate(messageImage[1]);
+            return message;
+        });
+        when(reportStateStore.load()).thenAnswer(invocation -> Optional.ofNullable(storedState));
+        doAnswer(invocation -> storedState = invocation.getArgument(0)).when(reportStateStore).save(any());
+        PartyProfileCache partyProfileCache = mock(PartyProfileCache.class);
+        when(partyProfileCache.stats()).thenReturn(CacheStats.empty());
+
+        service = new PeriodicPayoutTransactionHistoryDateRangeService(repository, mock(PolicyRepository.class),
+                new ObjectMapper(), partyProfileCache, payoutYtdService, payoutMessageParser, transformExecutor,
+                reportStateStore, new ReportMetrics(new SimpleMeterRegistry(), partyProfileCache, 100));
+        ReflectionTestUtils.setField(service, "payoutTransExectStartDate", rangeStart.toString());
+        ReflectionTestUtils.setField(service, "payoutTransExectEndDate", rangeStart.plusYears(1).toString());
+        ReflectionTestUtils.setField(service, "updateOverlapMinutes", 10L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transformExecutor.destroy();
+    }
+
+    @Test
+    void incrementalRunMatchesRebuild() throws IOException {
+        Transaction reversedLater = new Transaction("POL2", "OverduePayment", 50.0, rangeStart.plusDays(3));
+        Transaction latestReversedLater = new Transaction("POL2", "PeriodicPayout", 200.0, rangeStart.plusDays(2));
+        transactions.add(new Transaction("POL1", "PeriodicPayout", 100.0, rangeStart.plusDays(1)));
+        transactions.add(new Transaction("POL2", "PeriodicPayout", 150.0, rangeStart.plusDays(1)));
+        transactions.add(latestReversedLater);
+        transactions.add(reversedLater);
+        payments.add(new Payment("POL1", "PARTY1", rangeStart.plusDays(1), 10.0, 5.0));
+        service.writeIncrementalReport(new ByteArrayOutputStream(), mock(ReportProgress.class), false);
+
+        LocalDateTime later = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        // A known policy with only an overdue payment and a payment history row since the watermark
+        transactions.add(new Transaction("POL1", "OverduePayment", 30.0, later));
+        payments.add(new Payment("POL1", "PARTY1", later, 7.0, 3.0));
+        // Counted rows reversed after the previous run, one of them the latest payout of its policy
+        reversedLater.reversed = true;
+        reversedLater.updated = later;
+        latestReversedLater.reversed = true;
+        latestReversedLater.updated = later;
+        // A new policy, and a policy without periodic payouts that is not part of the report
+        transactions.add(new Transaction("POL3", "PeriodicPayout", 70.0, later));
+        transactions.add(new Transaction("POL4", "OverduePayment", 40.0, later));
+        service.writeIncrementalReport(new ByteArrayOutputStream(), mock(ReportProgress.class), false);
+        PeriodicPayoutReportState incremental = storedState;
+
+        service.writeIncrementalReport(new ByteArrayOutputStream(), mock(ReportProgress.class), true);
+        PeriodicPayoutReportState rebuilt = storedState;
+
+        assertThat(rebuilt).isNotSameAs(incremental);
+        assertThat(incremental.getLatestPayouts()).containsOnlyKeys("POL1", "POL2", "POL3");
+        assertThat(incremental.getLatestPayouts()).isEqualTo(rebuilt.getLatestPayouts());
+        assertThat(incremental.getLatestPayouts().get("POL2").getTransExeDate()).isEqualTo(rangeStart.plusDays(1).toString());
+        assertThat(incremental.getPolicyNumbers()).isEqualTo(rebuilt.getPolicyNumbers());
+        for (String polNumber : POLICIES) {
+            for (String payee : PAYEES) {
+                assertThat(incremental.getYtdTotals().toYtdResponse(polNumber, payee))
+                        .as(polNumber + " " + payee)
+                        .usingRecursiveComparison()
+                        .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                        .isEqualTo(rebuilt.getYtdTotals().toYtdResponse(polNumber, payee));
+            }
+        }
+        YtdTotals totals = incremental.getYtdTotals();
+        assertThat(totals.toYtdResponse("POL1", "PARTY1").getYtdDisbursePeriodicPayout()).isEqualByComparingTo("130");
+        assertThat(totals.toYtdResponse("POL1", "PARTY1").getYtdDisburseFederalWithholdingAmt()).isEqualByComparingTo("17");
+        assertThat(totals.toYtdResponse("POL2", "PARTY1").getYtdDisbursePeriodicPayout()).isEqualByComparingTo("150");
+        assertThat(totals.toYtdResponse("POL3", "PARTY1").getYtdDisbursePeriodicPayout()).isEqualByComparingTo("70");
+    }
+
+    /** The latest PeriodicPayout row per policy, as the ROW_NUMBER queries pick it. */
+    private List<Transaction> latestPayouts(Collection<String> policyNumbers, LocalDateTime from, LocalDateTime to) {
+        Map<String, Optional<Transaction>> latest = transactions.stream()
+                .filter(t -> !t.reversed && t.requestName.equals("PeriodicPayout") && within(t.executed, from, to))
+                .filter(t -> policyNumbers == null || policyNumbers.contains(t.polNumber))
+                .collect(Collectors.groupingBy(t -> t.polNumber, Collectors.maxBy(Comparator.comparing(t -> t.executed))));
+        return latest.values().stream().map(Optional::orElseThrow).toList();
+    }
+
+    /** The totals the YTD sum queries add up over {@code [from, to]}. */
+    private YtdTotals ytdTotals(Collection<String> policyNumbers, LocalDateTime from, LocalDateTime to) {
+        YtdTotals totals = new YtdTotals();
+        transactions.stream()
+                .filter(t -> !t.reversed && policyNumbers.contains(t.polNumber) && within(t.executed, from, to))
+                .collect(Collectors.groupingBy(t -> t.polNumber, Collectors.summingDouble(t -> t.grossAmt)))
+                .forEach(totals::putGrossAmount);
+        Map<String, Map<String, List<Payment>>> paymentsByPayee = payments.stream()
+                .filter(p -> policyNumbers.contains(p.polNumber) && within(p.executed, from, to))
+                .collect(Collectors.groupingBy(p -> p.polNumber, Collectors.groupingBy(p -> p.payee)));
+        paymentsByPayee.forEach((polNumber, byPayee) -> {
+            totals.addPolicyWithPayouts(polNumber);
+            byPayee.forEach((payee, rows) -> totals.putFeeAmounts(polNumber, payee,
+                    rows.stream().mapToDouble(p -> p.federalFee).sum(), rows.stream().mapToDouble(p -> p.stateFee).sum()));
+        });
+        return totals;
+    }
+
+    private static boolean within(LocalDateTime time, LocalDateTime from, LocalDateTime to) {
+        return !time.isBefore(from) && !time.isAfter(to);
+    }
+
+    private static class Transaction {
+        final String polNumber;
+        final String requestName;
+        final double grossAmt;
+        final LocalDateTime executed;
+        boolean reversed;
+        LocalDateTime updated;
+
+        Transaction(String polNumber, String requestName, double grossAmt, LocalDateTime executed) {
+            this.polNumber = polNumber;
+            this.requestName = requestName;
+            this.grossAmt = grossAmt;
+            this.executed = executed;
+            this.updated = executed;
+        }
+    }
+
+    private static class Payment {
+        final String polNumber;
+        final String payee;
+        final LocalDateTime executed;
+        final LocalDateTime updated;
+        final double federalFee;
+        final double stateFee;
+
+        Payment(String polNumber, String payee, LocalDateTime executed, double federalFee, double stateFee) {
+            this.polNumber = polNumber;
+            this.payee = payee;
+            this.executed = executed;
+            this.updated = executed;
+            this.federalFee = federalFee;
+            this.stateFee = stateFee;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.ReportType;
+import com.eqh.application.repository.PeriodicPayoutTransactionHistoryRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryInstrumentationTest {
+
+    private static final String SQL = "SELECT message_image FROM public.\"TRANSACTION_HISTORY\" WHERE pol_number = ?";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QueryMetrics queryMetrics = spy(new QueryMetrics(registry));
+    private final HikariDataSource pool = mock(HikariDataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement preparedStatement = mock(PreparedStatement.class);
+    private final Statement statement = mock(Statement.class);
+    private DataSource dataSource;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SQL)).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(statement);
+        ObjectProvider<QueryMetrics> queryMetricsProvider = mock(ObjectProvider.class);
+        when(queryMetricsProvider.getObject()).thenReturn(queryMetrics);
+
+        dataSource = (DataSource) new QueryInstrumentation(queryMetricsProvider).postProcessAfterInitialization(pool, "dataSource");
+    }
+
+    @Test
+    void executeOfPreparedStatementIsRecordedWithItsSqlAndRepositoryMethod() throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(PeriodicPayoutTransactionHistoryRepository.class
+                .getMethod("findLatestTransactions", LocalDateTime.class, LocalDateTime.class));
+        when(invocation.proceed()).thenAnswer(ignored -> {
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(SQL)) {
+                return ps.executeQuery();
+            }
+        });
+
+        queryMetrics.invokeRepositoryMethod(PeriodicPayoutTransactionHistoryRepository.class, invocation);
+
+        verify(preparedStatement).executeQuery();
+        verify(queryMetrics).recordQuery(eq(SQL), anyLong());
+        Timer timer = registry.get("report.query.duration")
+                .tags("report", QueryMetrics.NONE, "repository", "PeriodicPayoutTransactionHistoryRepository",
+                        "method", "findLatestTransactions")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void executeOfPlainStatementIsRecordedWithTheSqlPassedToIt() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE payout_ytd_ledger_watermark SET last_update_timestamp = NULL");
+        }
+
+        verify(queryMetrics).recordQuery(eq("UPDATE payout_ytd_ledger_watermark SET last_update_timestamp = NULL"), anyLong());
+        assertThat(registry.get("report.query.duration").tags("repository", QueryMetrics.NONE).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedExecuteIsRecordedAndRethrown() throws SQLException {
+        SQLException failure = new SQLException("canceling statement due to statement timeout");
+        when(preparedStatement.executeQuery()).thenThrow(failure);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL)) {
+            assertThatThrownBy(ps::executeQuery).isSameAs(failure);
+        }
+
+        verify(queryMetrics).recordQuery(eq(SQL), anyLong());
+    }
+
+    @Test
+    void otherCallsAreNotRecorded() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL)) {
+            ps.setString(1, "POL1");
+            conn.getAutoCommit();
+        }
+
+        verify(preparedStatement).setString(1, "POL1");
+        verify(preparedStatement).close();
+        verify(connection).close();
+        verify(queryMetrics, never()).recordQuery(eq(SQL), anyLong());
+    }
+
+    @Test
+    void unwrapReachesThePool() throws SQLException {
+        when(pool.unwrap(HikariDataSource.class)).thenReturn(pool);
+        when(pool.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+
+        assertThat(dataSource).isNotInstanceOf(HikariDataSource.class);
+        assertThat(dataSource.isWrapperFor(HikariDataSource.class)).isTrue();
+        assertThat(dataSource.unwrap(HikariDataSource.class)).isSameAs(pool);
+    }
+
+    @Test
+    void statementsAreAddedToTheRunOfTheExecutingThread() throws SQLException {
+        PartyProfileCache partyProfileCache = mock(PartyProfileCache.class);
+        when(partyProfileCache.stats()).thenReturn(CacheStats.empty());
+        ReportMetrics reportMetrics = new ReportMetrics(registry, partyProfileCache, 1);
+
+        try (ReportRun ignored = reportMetrics.start(ReportType.PERIODIC_PAYOUT);
+             Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL)) {
+            ps.executeQuery();
+            ps.executeQuery();
+        }
+
+        assertThat(registry.get("report.queries").tags("report", "PERIODIC_PAYOUT").counter().count()).isEqualTo(2);
+        assertThat(registry.get("report.query.repeated").tags("report", "PERIODIC_PAYOUT",
+                "repository", QueryMetrics.NONE, "method", QueryMetrics.NONE).counter().count()).isEqualTo(1);
+    }
+}
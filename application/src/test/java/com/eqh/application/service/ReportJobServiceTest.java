@@ -0,0 +1,187 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.ReportJobStatus;
+import com.eqh.application.dto.ReportJobStatus.State;
+import com.eqh.application.dto.ReportType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ReportJobServiceTest {
+
+    @TempDir
+    Path outputDir;
+
+    private final TransactionHistoryService transactionHistoryService = mock(TransactionHistoryService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ReportJobService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void concurrentSubmitsOfOneReportShareOneJob() throws Exception {
+        service = newService(1440);
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(transactionHistoryService).writeReport(any(OutputStream.class), any(ReportProgress.class));
+
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        List<CompletableFuture<ReportJobStatus>> submits = List.of(
+                CompletableFuture.supplyAsync(() -> submitAt(barrier)),
+                CompletableFuture.supplyAsync(() -> submitAt(barrier)));
+        String firstJobId = submits.get(0).get(10, TimeUnit.SECONDS).getJobId();
+        String secondJobId = submits.get(1).get(10, TimeUnit.SECONDS).getJobId();
+
+        assertThat(secondJobId).isEqualTo(firstJobId);
+        release.countDown();
+        awaitState(firstJobId, State.COMPLETED);
+        verify(transactionHistoryService, times(1)).writeReport(any(OutputStream.class), any(ReportProgress.class));
+
+        // A finished job is not joined again
+        assertThat(service.submit(ReportType.DEATH_CLAIM).getJobId()).isNotEqualTo(firstJobId);
+    }
+
+    @Test
+    void completedJobHasItsReportFile() throws Exception {
+        service = newService(1440);
+        doAnswer(invocation -> {
+            ReportProgress progress = invocation.getArgument(1);
+            progress.stage(ReportProgress.STAGE_WRITING);
+            progress.rowsProcessed(3);
+            invocation.getArgument(0, OutputStream.class).write("report".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(transactionHistoryService).writeReport(any(OutputStream.class), any(ReportProgress.class));
+
+        ReportJobStatus submitted = service.submit(ReportType.DEATH_CLAIM);
+        assertThat(submitted.getState()).isIn(State.QUEUED, State.RUNNING);
+
+        ReportJobStatus status = awaitState(submitted.getJobId(), State.COMPLETED);
+        assertThat(status.getRowsProcessed()).isEqualTo(3);
+        assertThat(status.getStage()).isNull();
+        assertThat(status.getError()).isNull();
+        assertThat(status.getStartedAt()).isNotNull();
+        assertThat(status.getFinishedAt()).isNotNull();
+        assertThat(status.getFileName()).startsWith(ReportType.DEATH_CLAIM.getFilenamePrefix()).endsWith(".xlsx");
+        Path file = service.getOutputFile(submitted.getJobId()).orElseThrow();
+        assertThat(file).hasContent("report");
+        assertThat(outputDir).isDirectoryNotContaining("glob:**.part");
+    }
+
+    @Test
+    void failedJobKeepsTheErrorAndNoFile() throws Exception {
+        service = newService(1440);
+        doThrow(new IOException("No data found for the report."))
+                .when(transactionHistoryService).writeReport(any(OutputStream.class), any(ReportProgress.class));
+
+        String jobId = service.submit(ReportType.DEATH_CLAIM).getJobId();
+
+        ReportJobStatus status = awaitState(jobId, State.FAILED);
+        assertThat(status.getError()).isEqualTo("No data found for the report.");
+        assertThat(status.getFinishedAt()).isNotNull();
+        assertThat(status.getFileName()).isNull();
+        assertThat(service.getOutputFile(jobId)).isEmpty();
+        assertThat(outputDir).isEmptyDirectory();
+    }
+
+    @Test
+    void unknownJobHasNoStatus() throws Exception {
+        service = newService(1440);
+
+        assertThat(service.getStatus("missing")).isEmpty();
+        assertThat(service.getOutputFile("missing")).isEmpty();
+    }
+
+    @Test
+    void purgeRemovesExpiredJobsAndTheirFiles() throws Exception {
+        service = newService(0);
+        String jobId = service.submit(ReportType.DEATH_CLAIM).getJobId();
+        awaitState(jobId, State.COMPLETED);
+        Path file = service.getOutputFile(jobId).orElseThrow();
+
+        service.purgeExpiredJobs();
+
+        assertThat(service.getStatus(jobId)).isEmpty();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void purgeKeepsJobsWithinRetention() throws Exception {
+        service = newService(1440);
+        String jobId = service.submit(ReportType.DEATH_CLAIM).getJobId();
+        awaitState(jobId, State.COMPLETED);
+
+        service.purgeExpiredJobs();
+
+        assertThat(service.getStatus(jobId)).isPresent();
+        assertThat(service.getOutputFile(jobId).orElseThrow()).exists();
+    }
+
+    @Test
+    void purgeRemovesOldFilesOfUnknownJobs() throws Exception {
+        service = newService(60);
+        Path oldFile = Files.writeString(outputDir.resolve("earlier-run.xlsx"), "old");
+        Path oldPartialFile = Files.writeString(outputDir.resolve("earlier-run-2.xlsx.part"), "old");
+        Path recentFile = Files.writeString(outputDir.resolve("recent.xlsx"), "new");
+        FileTime twoHoursAgo = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+        Files.setLastModifiedTime(oldFile, twoHoursAgo);
+        Files.setLastModifiedTime(oldPartialFile, twoHoursAgo);
+
+        service.purgeExpiredJobs();
+
+        assertThat(oldFile).doesNotExist();
+        assertThat(oldPartialFile).doesNotExist();
+        assertThat(recentFile).exists();
+    }
+
+    private ReportJobService newService(long retentionMinutes) throws IOException {
+        return new ReportJobService(transactionHistoryService,
+                mock(OverduePaymentTransactionHistoryService.class),
+                mock(PeriodicPayoutTransactionHistoryService.class),
+                mock(PeriodicPayoutTransactionHistoryDateRangeService.class),
+                outputDir.toString(), 2, retentionMinutes);
+    }
+
+    private ReportJobStatus submitAt(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return service.submit(ReportType.DEATH_CLAIM);
+    }
+
+    private ReportJobStatus awaitState(String jobId, State state) {
+        return await().atMost(Duration.ofSeconds(10))
+                .until(() -> service.getStatus(jobId).orElseThrow(), status -> status.getState() == state);
+    }
+}
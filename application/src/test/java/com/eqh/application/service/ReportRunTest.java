@@ -0,0 +1,73 @@
+package com.eqh.application.service;
+
+import com.eqh.application.dto.ReportType;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportRunTest {
+
+    private static final QueryMetrics.RepositoryMethod FIND_PAYEES =
+            new QueryMetrics.RepositoryMethod("PayoutPayeeRepository", "findByPolicyNumber");
+    private static final QueryMetrics.RepositoryMethod FIND_POLICIES =
+            new QueryMetrics.RepositoryMethod("PolicyRepository", "findByPolNumberIn");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PartyProfileCache partyProfileCache = mock(PartyProfileCache.class);
+    private ReportMetrics reportMetrics;
+
+    @BeforeEach
+    void setUp() {
+        when(partyProfileCache.stats()).thenReturn(CacheStats.empty());
+        reportMetrics = new ReportMetrics(registry, partyProfileCache, 3);
+    }
+
+    @Test
+    void statementExecutedMoreThanTheThresholdIsCountedAsRepeated() {
+        try (ReportRun run = reportMetrics.start(ReportType.OVERDUE_PAYMENT)) {
+            for (int i = 0; i < 4; i++) {
+                run.queryExecuted(FIND_PAYEES, "SELECT * FROM payout_payee WHERE pol_number = ?", 1_000);
+            }
+            for (int i = 0; i < 3; i++) {
+                run.queryExecuted(FIND_POLICIES, "SELECT * FROM policy WHERE pol_number IN (?)", 1_000);
+            }
+            run.succeeded();
+        }
+
+        assertThat(registry.get("report.query.repeated")
+                .tags("report", "OVERDUE_PAYMENT", "repository", "PayoutPayeeRepository", "method", "findByPolicyNumber")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.find("report.query.repeated").tags("repository", "PolicyRepository").counter()).isNull();
+        assertThat(registry.get("report.queries").tags("report", "OVERDUE_PAYMENT").counter().count()).isEqualTo(7);
+        assertThat(registry.get("report.duration").tags("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void statementsWithoutSqlAreCountedButNeverRepeated() {
+        try (ReportRun run = reportMetrics.start(ReportType.DEATH_CLAIM)) {
+            for (int i = 0; i < 10; i++) {
+                run.queryExecuted(FIND_PAYEES, null, 1_000);
+            }
+        }
+
+        assertThat(registry.get("report.queries").tags("report", "DEATH_CLAIM").counter().count()).isEqualTo(10);
+        assertThat(registry.find("report.query.repeated").counter()).isNull();
+        assertThat(registry.get("report.duration").tags("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void closingARunRestoresTheRunItWasStartedIn() {
+        try (ReportRun outer = reportMetrics.start(ReportType.PERIODIC_PAYOUT)) {
+            try (ReportRun inner = reportMetrics.start(ReportType.PERIODIC_PAYOUT_DATE_RANGE)) {
+                assertThat(ReportRun.current()).isSameAs(inner);
+            }
+            assertThat(ReportRun.current()).isSameAs(outer);
+        }
+        assertThat(ReportRun.current()).isNull();
+    }
+}
@@ -0,0 +1,112 @@
+package com.eqh.application.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CodeTableTest {
+
+    private static final CodeTable TABLE = CodeTable.of("test",
+            new String[]{"1", " 2 ", "4095", "4096", "1000500001", "-7", "1D", "EQH001", "", "2"},
+            new String[]{"One", "Two", "Last dense", "First sparse", "Large", "Negative", "Text", "Other text", "Blank", "Two again"});
+
+    @Test
+    void looksUpDenseCodes() {
+        assertThat(TABLE.name(1)).isEqualTo("One");
+        assertThat(TABLE.name(4095)).isEqualTo("Last dense");
+        assertThat(TABLE.name("1")).isEqualTo("One");
+    }
+
+    @Test
+    void looksUpSparseCodes() {
+        assertThat(TABLE.name(4096)).isEqualTo("First sparse");
+        assertThat(TABLE.name(1000500001)).isEqualTo("Large");
+        assertThat(TABLE.name(-7)).isEqualTo("Negative");
+        assertThat(TABLE.name("1000500001")).isEqualTo("Large");
+        assertThat(TABLE.name("-7")).isEqualTo("Negative");
+    }
+
+    @Test
+    void looksUpTextCodes() {
+        assertThat(TABLE.name("1D")).isEqualTo("Text");
+        assertThat(TABLE.name("EQH001")).isEqualTo("Other text");
+        assertThat(TABLE.name(new StringBuilder(" 1D\t"))).isEqualTo("Text");
+    }
+
+    @Test
+    void trimsCodesAndKeepsTheLastDisplayNameOfDuplicates() {
+        assertThat(TABLE.name(2)).isEqualTo("Two again");
+        assertThat(TABLE.name("  2  ")).isEqualTo("Two again");
+        assertThat(TABLE.size()).isEqualTo(8);
+    }
+
+    @Test
+    void missingIntCodesAreUnknown() {
+        assertThat(TABLE.name(0)).isEqualTo(CodeTable.UNKNOWN);
+        assertThat(TABLE.name(3)).isEqualTo(CodeTable.UNKNOWN);
+        assertThat(TABLE.name(5000)).isEqualTo(CodeTable.UNKNOWN);
+        assertThat(TABLE.name(Integer.MIN_VALUE)).isEqualTo(CodeTable.UNKNOWN);
+        assertThat(TABLE.name("3")).isEqualTo(CodeTable.UNKNOWN);
+        assertThat(TABLE.name("+3")).isEqualTo(CodeTable.UNKNOWN);
+        assertThat(TABLE.name("2147483647")).isEqualTo(CodeTable.UNKNOWN);
+        assertThat(TABLE.name("-2147483648")).isEqualTo(CodeTable.UNKNOWN);
+    }
+
+    @Test
+    void blankAndInvalidCodesAreNull() {
+        assertThat(TABLE.name((CharSequence) null)).isNull();
+        assertThat(TABLE.name("")).isNull();
+        assertThat(TABLE.name("   ")).isNull();
+        assertThat(TABLE.name("1E")).isNull();
+        assertThat(TABLE.name("-")).isNull();
+        assertThat(TABLE.name("1.5")).isNull();
+        assertThat(TABLE.name("2147483648")).isNull();
+        assertThat(TABLE.name("-2147483649")).isNull();
+    }
+
+    @Test
+    void rejectsCodesAndNamesOfDifferentLength() {
+        assertThatThrownBy(() -> CodeTable.of("test", new String[]{"1", "2"}, new String[]{"One"}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyTableKnowsNoCodes() {
+        CodeTable empty = CodeTable.of("empty", new String[0], new String[0]);
+
+        assertThat(empty.size()).isZero();
+        assertThat(empty.name(1)).isEqualTo(CodeTable.UNKNOWN);
+        assertThat(empty.name("1D")).isNull();
+    }
+
+    @Test
+    void registryResolvesIntAndTextCodesOfTheLookupFiles() {
+        assertThat(CodeTables.RESIDENCE_STATE.name("1")).isEqualTo("Alabama");
+        assertThat(CodeTables.SUSPEND_CODE.name("1000500001")).isEqualTo("Not Suspended");
+        assertThat(CodeTables.SUSPEND_CODE.name("1D")).isEqualTo("Payee missing. Lost Payee, D Stop");
+        assertThat(CodeTables.POLICY_STATUS.name("R")).isEqualTo("System Replaced");
+    }
+
+    @Test
+    void compiledTablesMatchTheLookupFiles() throws Exception {
+        ByteArrayOutputStream compiled = new ByteArrayOutputStream();
+        CodeTableCompiler.compile(compiled);
+
+        Map<String, CodeTable> tables = CodeTables.readCompiled(new ByteArrayInputStream(compiled.toByteArray()));
+
+        assertThat(tables).hasSize(CodeTables.Source.values().length);
+        for (CodeTables.Source source : CodeTables.Source.values()) {
+            CodeTable table = tables.get(source.resource);
+            CodeTable registryTable = CodeTables.all().get(source.ordinal());
+            assertThat(table.size()).as(source.resource).isEqualTo(registryTable.size());
+            for (int code = 0; code < 5000; code++) {
+                assertThat(table.name(code)).as(source.resource + " " + code).isEqualTo(registryTable.name(code));
+            }
+        }
+    }
+}
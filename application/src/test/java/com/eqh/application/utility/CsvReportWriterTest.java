@@ -0,0 +1,81 @@
+package com.eqh.application.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvReportWriterTest {
+
+    private static final ReportSchema SCHEMA = ReportSchema.of(new String[]{"Name", "Amount", "Note, quoted"}, "Amount");
+
+    @Test
+    void writesHeaderAndRowsWithCrLf() throws IOException {
+        String csv = write(List.of(
+                Arrays.asList("Smith", new BigDecimal("1234.5"), "plain"),
+                Arrays.asList("Jones", -0.07, "other")));
+
+        assertThat(csv).isEqualTo("Name,Amount,\"Note, quoted\"\r\n"
+                + "Smith,1234.50,plain\r\n"
+                + "Jones,-0.07,other\r\n");
+    }
+
+    @Test
+    void quotesValuesWithCommasQuotesAndLineBreaks() throws IOException {
+        String csv = write(List.of(
+                Arrays.asList("Smith, John", 1, "say \"hi\""),
+                Arrays.asList("line\nbreak", 1, "carriage\rreturn")));
+
+        assertThat(csv).endsWith("\"Smith, John\",1.00,\"say \"\"hi\"\"\"\r\n"
+                + "\"line\nbreak\",1.00,\"carriage\rreturn\"\r\n");
+    }
+
+    @Test
+    void writesNullAndEmptyValuesAsEmptyFields() throws IOException {
+        String csv = write(List.of(
+                Arrays.asList(null, null, ""),
+                Arrays.<Object>asList("Short")));
+
+        assertThat(csv).endsWith("\r\n,,\r\nShort,,\r\n");
+    }
+
+    @Test
+    void writesOnlyTheHeaderWithoutRows() throws IOException {
+        assertThat(write(List.of())).isEqualTo("Name,Amount,\"Note, quoted\"\r\n");
+    }
+
+    @Test
+    void countsRowsOfEveryBuffer() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReportRows rows = new ReportRows(SCHEMA);
+        try (ReportWriter writer = new CsvReportWriter(SCHEMA, out)) {
+            rows.add(Arrays.asList("A", 1, "x"));
+            writer.writeRows(rows);
+            rows.clear();
+            rows.add(Arrays.asList("B", 2, "y"));
+            rows.add(Arrays.asList("C", 3, "z"));
+            writer.writeRows(rows);
+            writer.finish();
+
+            assertThat(writer.rowsWritten()).isEqualTo(3);
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\r\n")).hasSize(4);
+    }
+
+    private static String write(List<List<Object>> data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReportRows rows = new ReportRows(SCHEMA);
+        rows.addAll(data);
+        try (ReportWriter writer = new CsvReportWriter(SCHEMA, out)) {
+            writer.writeRows(rows);
+            writer.finish();
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
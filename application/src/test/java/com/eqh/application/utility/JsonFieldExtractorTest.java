@@ -0,0 +1,133 @@
+package com.eqh.application.utility;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonFieldExtractorTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void extractsTopLevelAndNestedPaths() throws IOException {
+        String json = """
+                {"polNumber": "POL1", "skipped": {"polNumber": "other"},
+                 "adjustments": {"count": 2, "arrDestinations": [{"payeeInfo": {"taxablePartyNumber": "P1"}}],
+                                 "total": {"amount": 12.5}},
+                 "payeePayouts": [1, 2]}
+                """;
+
+        Map<String, JsonNode> values = assertMatchesReadTree(json,
+                "polNumber", "adjustments.arrDestinations", "adjustments.total.amount", "payeePayouts");
+
+        assertThat(values).containsOnlyKeys("polNumber", "adjustments.arrDestinations", "adjustments.total.amount",
+                "payeePayouts");
+        assertThat(values.get("polNumber").asText()).isEqualTo("POL1");
+        assertThat(values.get("adjustments.arrDestinations").get(0).path("payeeInfo").path("taxablePartyNumber").asText())
+                .isEqualTo("P1");
+        assertThat(values.get("adjustments.total.amount").decimalValue()).isEqualByComparingTo("12.5");
+    }
+
+    @Test
+    void skipsSubtreesOutsideThePaths() throws IOException {
+        String json = """
+                {"before": {"deep": [{"x": {"polNumber": "nested"}}, [1, [2, {"y": null}]]]},
+                 "polNumber": "POL1",
+                 "after": [{"polNumber": "in array"}]}
+                """;
+
+        Map<String, JsonNode> values = assertMatchesReadTree(json, "polNumber", "before.deep.x");
+
+        assertThat(values).containsOnlyKeys("polNumber");
+    }
+
+    @Test
+    void leavesOutPathsThroughNonObjects() throws IOException {
+        String json = """
+                {"adjustments": [{"arrDestinations": 1}], "transExeDate": "2024-01-01", "suspendCode": {"code": "1D"}}
+                """;
+
+        Map<String, JsonNode> values = assertMatchesReadTree(json,
+                "adjustments.arrDestinations", "transExeDate.year", "suspendCode.code", "missing.path");
+
+        assertThat(values).containsOnlyKeys("suspendCode.code");
+    }
+
+    @Test
+    void extractsNestedPathsOfAnExtractedNode() throws IOException {
+        String json = """
+                {"arrangement": {"arrDestination": [1], "type": "Death"}}
+                """;
+
+        Map<String, JsonNode> values = assertMatchesReadTree(json, "arrangement", "arrangement.type");
+
+        assertThat(values.get("arrangement.type").asText()).isEqualTo("Death");
+    }
+
+    @Test
+    void extractsJsonNullAsNullNode() throws IOException {
+        String json = """
+                {"polNumber": null, "adjustments": {"arrDestinations": null}}
+                """;
+
+        Map<String, JsonNode> values = assertMatchesReadTree(json, "polNumber", "adjustments.arrDestinations");
+
+        assertThat(values.get("polNumber").isNull()).isTrue();
+        assertThat(values.get("adjustments.arrDestinations").isNull()).isTrue();
+    }
+
+    @Test
+    void keepsTheLastValueOfRepeatedFields() throws IOException {
+        assertMatchesReadTree("""
+                {"polNumber": "first", "polNumber": "second"}
+                """, "polNumber");
+    }
+
+    @Test
+    void extractsNothingFromNonObjectRoots() throws IOException {
+        JsonFieldExtractor extractor = JsonFieldExtractor.forPaths("polNumber");
+
+        for (String json : new String[]{"[{\"polNumber\": \"POL1\"}]", "\"POL1\"", "42", "null", ""}) {
+            assertThat(extractor.extract(OBJECT_MAPPER, json)).as(json).isEmpty();
+            assertThat(OBJECT_MAPPER.readTree(json).at("/polNumber").isMissingNode()).as(json).isTrue();
+        }
+    }
+
+    @Test
+    void rejectsMalformedDocuments() {
+        JsonFieldExtractor extractor = JsonFieldExtractor.forPaths("polNumber");
+
+        for (String json : new String[]{"{\"polNumber\": ", "{\"skipped\": {\"a\": }, \"polNumber\": \"POL1\"}",
+                "{\"skipped\": [1, 2, \"polNumber\": \"POL1\"}", "{polNumber: \"POL1\"}"}) {
+            assertThatThrownBy(() -> extractor.extract(OBJECT_MAPPER, json)).as(json)
+                    .isInstanceOf(JsonProcessingException.class);
+            assertThatThrownBy(() -> OBJECT_MAPPER.readTree(json)).as(json)
+                    .isInstanceOf(JsonProcessingException.class);
+        }
+    }
+
+    /**
+     * Extracts the paths and checks every value against the node a full {@code readTree} has
+     * at the same path; paths missing there must be missing from the extracted values.
+     */
+    private static Map<String, JsonNode> assertMatchesReadTree(String json, String... paths) throws IOException {
+        Map<String, JsonNode> values = JsonFieldExtractor.forPaths(paths).extract(OBJECT_MAPPER, json);
+        JsonNode tree = OBJECT_MAPPER.readTree(json);
+        for (String path : paths) {
+            JsonNode expected = tree.at("/" + path.replace('.', '/'));
+            if (expected.isMissingNode()) {
+                assertThat(values).as(path).doesNotContainKey(path);
+            } else {
+                assertThat(values.get(path)).as(path).isEqualTo(expected);
+            }
+        }
+        return values;
+    }
+}
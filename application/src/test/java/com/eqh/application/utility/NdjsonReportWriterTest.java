@@ -0,0 +1,83 @@
+package com.eqh.application.utility;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonReportWriterTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ReportSchema SCHEMA = ReportSchema.of(new String[]{"Name", "Amount"}, "Amount");
+
+    @Test
+    void writesOneObjectPerLineWithoutSeparators() throws IOException {
+        String ndjson = write(List.of(
+                Arrays.asList("Smith", new BigDecimal("1234.5")),
+                Arrays.asList("Jones", 2),
+                Arrays.asList("Brown", 3)));
+
+        assertThat(ndjson).isEqualTo("{\"Name\":\"Smith\",\"Amount\":1234.50}\n"
+                + "{\"Name\":\"Jones\",\"Amount\":2.00}\n"
+                + "{\"Name\":\"Brown\",\"Amount\":3.00}\n");
+    }
+
+    @Test
+    void everyLineParsesAsAnObject() throws IOException {
+        String ndjson = write(List.of(
+                Arrays.asList("line\nbreak \"quoted\"", -0.05),
+                Arrays.asList("Jones", 10)));
+
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = OBJECT_MAPPER.readTree(lines[0]);
+        assertThat(first.get("Name").asText()).isEqualTo("line\nbreak \"quoted\"");
+        assertThat(first.get("Amount").isNumber()).isTrue();
+        assertThat(first.get("Amount").decimalValue()).isEqualByComparingTo("-0.05");
+        assertThat(OBJECT_MAPPER.readTree(lines[1]).get("Name").asText()).isEqualTo("Jones");
+    }
+
+    @Test
+    void writesNullsAsJsonNull() throws IOException {
+        String ndjson = write(List.of(Arrays.asList((Object) null), Arrays.asList("", null)));
+
+        assertThat(ndjson).isEqualTo("{\"Name\":null,\"Amount\":null}\n{\"Name\":\"\",\"Amount\":null}\n");
+    }
+
+    @Test
+    void keepsLinesApartAcrossBuffers() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReportRows rows = new ReportRows(SCHEMA);
+        try (ReportWriter writer = new NdjsonReportWriter(SCHEMA, out)) {
+            rows.add(Arrays.asList("A", 1));
+            writer.writeRows(rows);
+            rows.clear();
+            rows.add(Arrays.asList("B", 2));
+            writer.writeRows(rows);
+            writer.finish();
+
+            assertThat(writer.rowsWritten()).isEqualTo(2);
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"Name\":\"A\",\"Amount\":1.00}\n{\"Name\":\"B\",\"Amount\":2.00}\n");
+    }
+
+    private static String write(List<List<Object>> data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReportRows rows = new ReportRows(SCHEMA);
+        rows.addAll(data);
+        try (ReportWriter writer = new NdjsonReportWriter(SCHEMA, out)) {
+            writer.writeRows(rows);
+            writer.finish();
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
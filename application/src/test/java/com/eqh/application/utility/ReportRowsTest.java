@@ -0,0 +1,144 @@
+package com.eqh.application.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportRowsTest {
+
+    private static final ReportSchema SCHEMA = ReportSchema.of(new String[]{"Policy", "State", "Amount"}, "Amount")
+            .withDictionary("State");
+
+    @Test
+    void storesTextDictionaryAndMoneyValues() {
+        ReportRows rows = new ReportRows(SCHEMA);
+        rows.add(Arrays.asList("POL1", "Alabama", new BigDecimal("12.34")));
+        rows.add(Arrays.asList(2, "Alabama", 5));
+
+        assertThat(rows.size()).isEqualTo(2);
+        assertThat(rows.text(0, 0)).isEqualTo("POL1");
+        assertThat(rows.text(1, 0)).isEqualTo("2");
+        assertThat(rows.text(0, 1)).isEqualTo("Alabama");
+        assertThat(rows.text(1, 1)).isEqualTo("Alabama");
+        assertThat(rows.cents(0, 2)).isEqualTo(1234);
+        assertThat(rows.cents(1, 2)).isEqualTo(500);
+    }
+
+    @Test
+    void roundsMoneyHalfUpToCents() {
+        ReportRows rows = new ReportRows(SCHEMA);
+        for (Object amount : List.of(new BigDecimal("0.005"), new BigDecimal("0.004"), new BigDecimal("-0.005"),
+                new BigDecimal("1.235"), 2.675, 1L, 0.1f)) {
+            rows.add(Arrays.asList(null, null, amount));
+        }
+
+        assertThat(rows.cents(0, 2)).isEqualTo(1);
+        assertThat(rows.cents(1, 2)).isEqualTo(0);
+        assertThat(rows.cents(2, 2)).isEqualTo(-1);
+        assertThat(rows.cents(3, 2)).isEqualTo(124);
+        // Doubles round by their shortest decimal representation, not their binary value
+        assertThat(rows.cents(4, 2)).isEqualTo(268);
+        assertThat(rows.cents(5, 2)).isEqualTo(100);
+        assertThat(rows.cents(6, 2)).isEqualTo(10);
+    }
+
+    @Test
+    void formatsCentsWithTwoFractionDigits() {
+        assertThat(ReportRows.formatCents(0)).isEqualTo("0.00");
+        assertThat(ReportRows.formatCents(5)).isEqualTo("0.05");
+        assertThat(ReportRows.formatCents(10)).isEqualTo("0.10");
+        assertThat(ReportRows.formatCents(123450)).isEqualTo("1234.50");
+        assertThat(ReportRows.formatCents(-5)).isEqualTo("-0.05");
+        assertThat(ReportRows.formatCents(-99)).isEqualTo("-0.99");
+        assertThat(ReportRows.formatCents(-123405)).isEqualTo("-1234.05");
+        assertThat(ReportRows.formatCents(Long.MAX_VALUE)).isEqualTo("92233720368547758.07");
+    }
+
+    @Test
+    void keepsNullValuesOfEveryColumnType() {
+        ReportRows rows = new ReportRows(SCHEMA);
+        rows.add(Arrays.asList(null, null, null));
+        rows.add(Arrays.asList("", "", 0));
+
+        assertThat(rows.isNull(0, 0)).isTrue();
+        assertThat(rows.isNull(0, 1)).isTrue();
+        assertThat(rows.isNull(0, 2)).isTrue();
+        assertThat(rows.text(0, 0)).isNull();
+        assertThat(rows.text(0, 1)).isNull();
+        assertThat(rows.isNull(1, 0)).isFalse();
+        assertThat(rows.isNull(1, 1)).isFalse();
+        assertThat(rows.isNull(1, 2)).isFalse();
+        assertThat(rows.text(1, 0)).isEmpty();
+        assertThat(rows.text(1, 1)).isEmpty();
+        assertThat(rows.cents(1, 2)).isZero();
+    }
+
+    @Test
+    void padsShortRowsWithNulls() {
+        ReportRows rows = new ReportRows(SCHEMA);
+        rows.add(Arrays.asList("POL1"));
+        rows.add(List.of());
+
+        assertThat(rows.size()).isEqualTo(2);
+        assertThat(rows.text(0, 0)).isEqualTo("POL1");
+        assertThat(rows.isNull(0, 1)).isTrue();
+        assertThat(rows.isNull(0, 2)).isTrue();
+        assertThat(rows.isNull(1, 0)).isTrue();
+    }
+
+    @Test
+    void rejectsRowsLongerThanTheSchema() {
+        ReportRows rows = new ReportRows(SCHEMA);
+
+        assertThatThrownBy(() -> rows.add(Arrays.asList("POL1", "Alabama", 1, "extra")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(rows.size()).isZero();
+    }
+
+    @Test
+    void rejectsMoneyValuesThatAreNotNumbers() {
+        ReportRows rows = new ReportRows(SCHEMA);
+
+        assertThatThrownBy(() -> rows.add(Arrays.asList("POL1", "Alabama", "12.34")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("12.34");
+        assertThatThrownBy(() -> rows.add(Arrays.asList("POL1", "Alabama", Double.NaN)))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void checksRowIndexes() {
+        ReportRows rows = new ReportRows(SCHEMA);
+        rows.add(Arrays.asList("POL1", "Alabama", 1));
+
+        assertThatThrownBy(() -> rows.text(1, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> rows.isNull(-1, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void clearedBufferIsReusedWithoutOldValues() {
+        ReportRows rows = new ReportRows(SCHEMA);
+        for (int i = 0; i < 1000; i++) {
+            rows.add(Arrays.asList("POL" + i, i % 2 == 0 ? "Alabama" : "Alaska", i));
+        }
+
+        rows.clear();
+        assertThat(rows.size()).isZero();
+        assertThatThrownBy(() -> rows.text(0, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+
+        rows.add(Arrays.asList(null, "Texas", 7));
+        rows.add(Arrays.asList("NEW", "Alabama", null));
+        assertThat(rows.size()).isEqualTo(2);
+        assertThat(rows.isNull(0, 0)).isTrue();
+        assertThat(rows.text(0, 1)).isEqualTo("Texas");
+        assertThat(rows.cents(0, 2)).isEqualTo(700);
+        assertThat(rows.text(1, 0)).isEqualTo("NEW");
+        assertThat(rows.text(1, 1)).isEqualTo("Alabama");
+        assertThat(rows.isNull(1, 2)).isTrue();
+    }
+}
@@ -0,0 +1,47 @@
+package com.eqh.application.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportSchemaTest {
+
+    private static final String[] HEADERS = {"Policy", "State", "Amount"};
+
+    @Test
+    void columnsAreTextUnlessNamedMoneyOrDictionary() {
+        ReportSchema schema = ReportSchema.of(HEADERS, "Amount").withDictionary("State");
+
+        assertThat(schema.size()).isEqualTo(3);
+        assertThat(schema.name(1)).isEqualTo("State");
+        assertThat(schema.type(0)).isEqualTo(ReportSchema.ColumnType.TEXT);
+        assertThat(schema.type(1)).isEqualTo(ReportSchema.ColumnType.DICTIONARY);
+        assertThat(schema.type(2)).isEqualTo(ReportSchema.ColumnType.MONEY);
+    }
+
+    @Test
+    void withDictionaryLeavesTheSchemaUnchanged() {
+        ReportSchema schema = ReportSchema.of(HEADERS, "Amount");
+
+        schema.withDictionary("State");
+
+        assertThat(schema.type(1)).isEqualTo(ReportSchema.ColumnType.TEXT);
+    }
+
+    @Test
+    void rejectsUnknownColumns() {
+        assertThatThrownBy(() -> ReportSchema.of(HEADERS, "Gross"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Gross");
+        assertThatThrownBy(() -> ReportSchema.of(HEADERS).withDictionary("Country"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Country");
+    }
+
+    @Test
+    void rejectsDictionaryMoneyColumns() {
+        assertThatThrownBy(() -> ReportSchema.of(HEADERS, "Amount").withDictionary("Amount"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,50 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files, e.g. results/<before>.json and results/<after>.json.
+
+Prints the score of every benchmark and parameter combination found in both files and
+the change relative to the first file. Exits with 1 if a benchmark got worse by more than
+the threshold percentage (default 10), accounting for whether higher or lower is better.
+
+    benchmarks/compare.py results/1a2b3c4.json results/5d6e7f8.json [threshold]
+"""
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(run.get("params", {}).items()))
+            name = run["benchmark"].rsplit(".", 2)
+            key = ".".join(name[-2:]) + (f"({params})" if params else "")
+            metric = run["primaryMetric"]
+            # scoreError is "NaN" when there was a single measurement iteration
+            results[key] = (run["mode"], float(metric["score"]), float(metric["scoreError"]), metric["scoreUnit"])
+        return results
+
+
+def main():
+    if len(sys.argv) not in (3, 4):
+        sys.exit(__doc__)
+    before, after = load(sys.argv[1]), load(sys.argv[2])
+    threshold = float(sys.argv[3]) if len(sys.argv) == 4 else 10.0
+
+    regressions = 0
+    for key in sorted(before.keys() & after.keys()):
+        mode, old, _, unit = before[key]
+        _, new, new_error, _ = after[key]
+        change = (new - old) / old * 100 if old else 0.0
+        # Throughput modes are better when higher, time modes when lower
+        worse = -change if mode == "thrpt" else change
+        flag = "REGRESSION" if worse > threshold else ""
+        regressions += bool(flag)
+        print(f"{key:70} {old:14.3f} {new:14.3f} ±{new_error:<10.3f} {unit:8} {change:+7.1f}% {flag}")
+
+    for key in sorted(before.keys() ^ after.keys()):
+        print(f"{key:70} only in {sys.argv[1] if key in before else sys.argv[2]}")
+    sys.exit(1 if regressions else 0)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,40 @@
+-- Report lookups rewritten against the generated pol_number column.
+
+\echo '-- overdue payments of one policy after a date (findOverduePaymentsByPolicyNumberAndDate)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT message_image, gross_amt, trans_eff_date, trans_run_date
+FROM public."TRANSACTION_HISTORY"
+WHERE reversed = false
+  AND entity_type = 'Policy'
+  AND request_name = 'OverduePayment'
+  AND pol_number = 'FP00012351'
+  AND trans_exe_date > '2024-03-01'
+ORDER BY trans_eff_date DESC;
+
+\echo '-- latest payout of a batch of policies (findLatestPayoutTransactionsByPolicyNumbers)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT message_image, gross_amt, trans_eff_date, trans_run_date
+FROM (
+    SELECT message_image, gross_amt, trans_eff_date, trans_run_date,
+           ROW_NUMBER() OVER (PARTITION BY pol_number ORDER BY trans_eff_date DESC) AS rn
+    FROM public."TRANSACTION_HISTORY"
+    WHERE reversed = false
+      AND entity_type = 'Policy'
+      AND request_name = 'PeriodicPayout'
+      AND pol_number IN ('FP00000010', 'FP00000020', 'FP00000030', 'FP00000040',
+          'FP00000050', 'FP00000060', 'FP00000070', 'FP00000080', 'FP00000090', 'FP00000100')
+      AND trans_exe_date >= '2024-03-01' AND trans_exe_date <= '2024-09-30'
+) latest
+WHERE rn = 1;
+
+\echo '-- YTD gross of a batch of policies (sumGrossAmountByPolicyNumbers)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT pol_number AS policy_number, sum(gross_amt)
+FROM public."TRANSACTION_HISTORY"
+WHERE reversed = false
+  AND entity_type = 'Policy'
+  AND request_name IN ('OverduePayment', 'PeriodicPayout')
+  AND pol_number IN ('FP00000010', 'FP00000020', 'FP00000030', 'FP00000040',
+      'FP00000050', 'FP00000060', 'FP00000070', 'FP00000080', 'FP00000090', 'FP00000100')
+  AND trans_exe_date >= '2024-01-01' AND trans_exe_date <= '2024-12-31'
+GROUP BY pol_number;
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Before/after EXPLAIN ANALYZE of the polNumber lookups on a scratch database.
+# Connection settings come from the usual PG* environment variables, e.g.
+#   PGHOST=localhost PGUSER=postgres PGPASSWORD=postgres ./run.sh 500000
+set -euo pipefail
+cd "$(dirname "$0")"
+
+ROWS="${1:-500000}"
+DB="${EXPLAIN_DB:-explain_bench}"
+MIGRATIONS=../../application/src/main/resources/db/migration
+PSQL=(psql -X -q -v ON_ERROR_STOP=1)
+
+"${PSQL[@]}" -d postgres -c "DROP DATABASE IF EXISTS $DB" -c "CREATE DATABASE $DB"
+"${PSQL[@]}" -d "$DB" -v rows="$ROWS" -f seed.sql
+
+"${PSQL[@]}" -d "$DB" -f queries-before.sql > before.txt
+# The pol_number column and its index; the later migrations are about other tables
+for migration in "$MIGRATIONS"/V1__*.sql "$MIGRATIONS"/V2__*.sql; do
+    SECONDS=0
+    "${PSQL[@]}" -d "$DB" -f "$migration"
+    echo "$(basename "$migration"): ${SECONDS}s"
+done
+"${PSQL[@]}" -d "$DB" -c 'ANALYZE public."TRANSACTION_HISTORY"'
+"${PSQL[@]}" -d "$DB" -f queries-after.sql > after.txt
+
+for run in before after; do
+    echo "== $run"
+    grep -E '^-- |Execution Time' "$run.txt"
+done
@@ -0,0 +1,46 @@
+-- Synthetic TRANSACTION_HISTORY for the EXPLAIN comparison. Only the columns the report
+-- queries touch are created. Run with: psql -v rows=500000 -f seed.sql
+\if :{?rows}
+\else
+\set rows 500000
+\endif
+
+DROP TABLE IF EXISTS public."TRANSACTION_HISTORY";
+
+CREATE TABLE public."TRANSACTION_HISTORY" (
+    id             bigserial PRIMARY KEY,
+    entity_type    varchar(255),
+    request_name   varchar(255),
+    reversed       boolean,
+    gross_amt      numeric(19, 2),
+    trans_eff_date timestamp,
+    trans_exe_date timestamp,
+    trans_run_date timestamp,
+    message_image  text
+);
+
+-- 50% periodic payouts, 10% overdue payments, 5% death claims, the rest other requests;
+-- 50,000 distinct policies; about 3 KB of message_image per row.
+INSERT INTO public."TRANSACTION_HISTORY"
+    (entity_type, request_name, reversed, gross_amt, trans_eff_date, trans_exe_date, trans_run_date, message_image)
+SELECT 'Policy',
+       CASE WHEN g % 20 < 10 THEN 'PeriodicPayout'
+            WHEN g % 20 < 12 THEN 'OverduePayment'
+            WHEN g % 20 = 12 THEN 'PayoutDeathClaim'
+            ELSE 'PolicyChange' END,
+       g % 50 = 0,
+       round((random() * 5000)::numeric, 2),
+       d, d, d + interval '1 day',
+       json_build_object(
+           'polNumber', 'FP' || lpad((g % 50000)::text, 8, '0'),
+           'transExeDate', to_char(d, 'YYYY-MM-DD'),
+           'suspendCode', '0',
+           'payeePayouts', json_build_array(json_build_object(
+               'taxablePartyNumber', (100000 + g % 20000)::text,
+               'grossAmt', round((random() * 5000)::numeric, 2))),
+           'policyValues', repeat('padding ', 375)
+       )::text
+FROM generate_series(1, :rows) AS g,
+     LATERAL (SELECT timestamp '2024-01-01' + (g % 600) * interval '1 day' AS d) AS dates;
+
+ANALYZE public."TRANSACTION_HISTORY";
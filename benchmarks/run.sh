@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+# Runs the benchmarks and writes the JMH results as JSON to results/<commit>.json, e.g.
+#   benchmarks/run.sh                       all benchmarks
+#   benchmarks/run.sh ReportRowBenchmark    only the matching ones (any JMH arguments work)
+# Compare two runs with compare.py.
+set -euo pipefail
+cd "$(dirname "$0")"
+
+LABEL="${BENCH_LABEL:-$(git rev-parse --short HEAD)$(git diff --quiet HEAD -- ../application || echo -dirty)}"
+mkdir -p results
+
+mvn -B -q -f ../application/pom.xml install -DskipTests
+mvn -B -q package
+java -jar target/benchmarks.jar -rf json -rff "results/$LABEL.json" "$@"
+echo "Results written to benchmarks/results/$LABEL.json"
@@ -0,0 +1,72 @@
+package com.eqh.benchmarks;
+
+import com.eqh.application.utility.CodeTable;
+import com.eqh.application.utility.CodeTables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load all eight code tables: reading the {@value CodeTables#COMPILED_RESOURCE}
+ * resource compiled at build time versus parsing the lookup XML files. Both read from
+ * memory or the classpath of the warmed-up JVM, so this is the parsing cost alone; the
+ * startup saving also includes the XML stack no longer being loaded at all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodeTableLoadBenchmark {
+
+    private static final String[][] SOURCES = {
+            {"OLI_LU_POLSTAT.xml", null},
+            {"OLI_LU_STATE.xml", null},
+            {"OLI_LU_NATION.xml", "html"},
+            {"OLI_LU_GOVTIDTC.xml", null},
+            {"OLI_LU_GOVTIDSTAT.xml", null},
+            {"OLI_LU_QUALPLAN.xml", null},
+            {"OLIEXT_LU_PAYEESTATUS.xml", null},
+            {"OLIEXT_LU_SUSPEND.xml", null},
+    };
+
+    private byte[] compiled;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(CodeTables.COMPILED_RESOURCE)) {
+            if (inputStream == null) {
+                throw new IllegalStateException(CodeTables.COMPILED_RESOURCE + " not found, build the application first");
+            }
+            compiled = inputStream.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public Map<String, CodeTable> compiledResource() throws IOException {
+        return CodeTables.readCompiled(new ByteArrayInputStream(compiled));
+    }
+
+    @Benchmark
+    public void xmlFiles(Blackhole blackhole) {
+        for (String[] source : SOURCES) {
+            blackhole.consume(CodeTables.load(source[0], source[1]));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.eqh.benchmarks;
+
+import com.eqh.application.utility.CodeTable;
+import com.eqh.application.utility.CodeTables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Code lookups per second: the {@link CodeTables} registry, looking up the code text in
+ * place, versus the former util classes, which {@code Integer.parseInt} the trimmed text
+ * and look it up in a boxed {@code HashMap<Integer, String>} built from the DOM-parsed XML.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodeTableLookupBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"OLI_LU_STATE.xml", "OLI_LU_NATION.xml", "OLI_LU_POLSTAT.xml"})
+    public String resource;
+
+    private CodeTable codeTable;
+    private Map<Integer, String> legacyMap;
+    private String[] codes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        codeTable = CodeTables.load(resource, null);
+        legacyMap = loadLegacyMap(resource);
+
+        // Codes as they come out of message_image: the table's codes, most of them small
+        List<Integer> keys = new ArrayList<>(legacyMap.keySet());
+        Random random = new Random(42L);
+        codes = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            codes[i] = String.valueOf(keys.get(random.nextInt(keys.size())));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void registryLookup(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(codeTable.name(code));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void legacyParseIntHashMapLookup(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(legacyMap.getOrDefault(Integer.parseInt(code.trim()), "Unknown"));
+        }
+    }
+
+    /**
+     * The map the former util classes built: first display value per int internal value.
+     */
+    private static Map<Integer, String> loadLegacyMap(String resource) throws Exception {
+        Map<Integer, String> map = new HashMap<>();
+        try (InputStream inputStream = CodeTableLookupBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(inputStream);
+            NodeList allowedValueNodes = document.getElementsByTagName("fsc:allowedvalue");
+            for (int i = 0; i < allowedValueNodes.getLength(); i++) {
+                Element allowedValue = (Element) allowedValueNodes.item(i);
+                String internalValue = ((Element) allowedValue.getElementsByTagName("fsc:internal").item(0))
+                        .getAttribute("value").trim();
+                NodeList displayNodes = allowedValue.getElementsByTagName("fsc:display");
+                String displayName = displayNodes.getLength() > 0
+                        ? ((Element) displayNodes.item(0)).getAttribute("value").trim() : "";
+                try {
+                    map.put(Integer.parseInt(internalValue), displayName);
+                } catch (NumberFormatException e) {
+                    // The util classes skipped codes that are not ints
+                }
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,127 @@
+package com.eqh.benchmarks;
+
+import com.eqh.application.dto.PeriodicPayoutMessage;
+import com.eqh.application.dto.PeriodicPayoutReportContext;
+import com.eqh.application.service.PeriodicPayoutMessageParser;
+import com.eqh.application.service.PeriodicPayoutTransactionHistoryService;
+import com.eqh.application.utility.ExcelReportWriter;
+import com.eqh.application.utility.ReportRows;
+import com.eqh.application.utility.ReportSchema;
+import com.eqh.benchmarks.fixtures.MessageImageFixtures;
+import com.eqh.benchmarks.fixtures.MessageImageFixtures.MessageType;
+import com.eqh.benchmarks.fixtures.ReportFixtures;
+import com.eqh.benchmarks.fixtures.ReportServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to write a whole report workbook with {@link ExcelReportWriter}, which replaced
+ * {@code generateExcelReportAsBytes}: rows are written to the streaming sheet, the columns
+ * auto-sized and the .xlsx written to a stream that only counts the bytes. The rows are
+ * periodic payout report rows built by its {@code processRow} from generated messages,
+ * collected in a {@link ReportRows} buffer; {@code bufferRows} times collecting them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelReportBenchmark {
+
+    private static final int DOCUMENTS = 512;
+    private static final String[] HEADERS = {
+            "runYear", "transRunDate", "transExeDate", "Management Code", "Product Code", "polNumber", "Policy Status",
+            "QualPlanType", "Suspend Code", "Party ID", "Party Full Name", "Govt ID", "Govt ID Status",
+            "govt ID Type Code", "payeeStatus", "Residence State", "Residence Country", "preferredMailingAddress",
+            "mailingAddress", "YTD Gross amount", "YTD fedral amount ", "YTD State amount"
+    };
+    private static final ReportSchema SCHEMA = ReportSchema.of(HEADERS, "YTD Gross amount", "YTD fedral amount ",
+            "YTD State amount")
+            .withDictionary("runYear", "transRunDate", "transExeDate", "Management Code", "Product Code",
+                    "Policy Status", "QualPlanType", "Suspend Code", "Govt ID Status", "govt ID Type Code", "payeeStatus",
+                    "Residence State", "Residence Country");
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private List<List<Object>> transformedRows;
+    private ReportRows reportRows;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Throwable {
+        ReportServices services = new ReportServices();
+        PeriodicPayoutMessageParser parser = services.messageParser();
+        List<String> documents = MessageImageFixtures.generate(MessageType.PERIODIC_PAYOUT, DOCUMENTS, 42L);
+        List<PeriodicPayoutMessage> messages = documents.stream().map(parser::parse).toList();
+        Set<String> policyNumbers = ReportFixtures.policyNumbers(documents);
+        Set<String> partyNumbers = new LinkedHashSet<>();
+        messages.forEach(message -> partyNumbers.addAll(message.getTaxablePartyNumbers()));
+
+        PeriodicPayoutTransactionHistoryService service = services.periodicPayout();
+        PeriodicPayoutReportContext context = new PeriodicPayoutReportContext(
+                ReportFixtures.productInfo(policyNumbers, 42L),
+                service.fetchMailingAddressesForTaxablePartyNumbers(partyNumbers),
+                ReportFixtures.ytdTotals(policyNumbers, partyNumbers, 42L));
+        MethodHandle processRow = ReportServices.privateMethod(PeriodicPayoutTransactionHistoryService.class,
+                "processRow", List.class, PeriodicPayoutMessage.class, PeriodicPayoutReportContext.class);
+
+        transformedRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            transformedRows.add((List<Object>) processRow.invoke(service, messages.get(i % DOCUMENTS), context));
+        }
+        reportRows = bufferRows();
+    }
+
+    @Benchmark
+    public ReportRows bufferRows() {
+        ReportRows buffer = new ReportRows(SCHEMA);
+        buffer.addAll(transformedRows);
+        return buffer;
+    }
+
+    @Benchmark
+    public long writeWorkbook() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (ExcelReportWriter writer = new ExcelReportWriter("Transaction History", SCHEMA, out)) {
+            writer.writeRows(reportRows);
+            writer.finish();
+        }
+        return out.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
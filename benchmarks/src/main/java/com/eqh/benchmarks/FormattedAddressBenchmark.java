@@ -0,0 +1,58 @@
+package com.eqh.benchmarks;
+
+import com.eqh.application.dto.Address;
+import com.eqh.application.service.PeriodicPayoutTransactionHistoryService;
+import com.eqh.benchmarks.fixtures.ReportFixtures;
+import com.eqh.benchmarks.fixtures.ReportServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Addresses per second through {@code getFormattedAddress} of the periodic payout report,
+ * which builds the preferred and other mailing address text of every payee party.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormattedAddressBenchmark {
+
+    private static final int ADDRESSES = 1024;
+
+    private PeriodicPayoutTransactionHistoryService service;
+    private MethodHandle getFormattedAddress;
+    private List<Address> addresses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new ReportServices().periodicPayout();
+        getFormattedAddress = ReportServices.privateMethod(PeriodicPayoutTransactionHistoryService.class,
+                "getFormattedAddress", String.class, Address.class);
+        addresses = ReportFixtures.addresses(ADDRESSES, 42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ADDRESSES)
+    public void getFormattedAddress(Blackhole blackhole) throws Throwable {
+        for (Address address : addresses) {
+            blackhole.consume((String) getFormattedAddress.invokeExact(service, address));
+        }
+    }
+}
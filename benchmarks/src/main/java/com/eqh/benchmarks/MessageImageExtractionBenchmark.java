@@ -0,0 +1,81 @@
+package com.eqh.benchmarks;
+
+import com.eqh.application.utility.JsonFieldExtractor;
+import com.eqh.benchmarks.fixtures.MessageImageFixtures;
+import com.eqh.benchmarks.fixtures.MessageImageFixtures.MessageType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@code readTree} of a message_image versus pulling only the fields the reports use
+ * with {@link JsonFieldExtractor}, on generated documents of realistic size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageImageExtractionBenchmark {
+
+    private static final int DOCUMENTS = 256;
+
+    @Param({"PERIODIC_PAYOUT", "DEATH_CLAIM", "OVERDUE_PAYMENT"})
+    public MessageType messageType;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<String> documents;
+    private String[] paths;
+    private JsonFieldExtractor extractor;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        documents = MessageImageFixtures.generate(messageType, DOCUMENTS, 42L);
+        paths = switch (messageType) {
+            case PERIODIC_PAYOUT -> new String[]{"polNumber", "transExeDate", "transRunDate", "suspendCode", "payeePayouts"};
+            case DEATH_CLAIM -> new String[]{"polNumber", "arrangement.arrDestination"};
+            case OVERDUE_PAYMENT -> new String[]{"polNumber", "transExeDate", "suspendCode", "adjustments.arrDestinations"};
+        };
+        extractor = JsonFieldExtractor.forPaths(paths);
+    }
+
+    private String nextDocument() {
+        next = (next + 1) % DOCUMENTS;
+        return documents.get(next);
+    }
+
+    @Benchmark
+    public void readTree(Blackhole blackhole) throws IOException {
+        JsonNode root = objectMapper.readTree(nextDocument());
+        for (String path : paths) {
+            blackhole.consume(root.at("/" + path.replace('.', '/')));
+        }
+    }
+
+    @Benchmark
+    public void streamingExtract(Blackhole blackhole) throws IOException {
+        Map<String, JsonNode> values = extractor.extract(objectMapper, nextDocument());
+        for (String path : paths) {
+            blackhole.consume(values.get(path));
+        }
+    }
+}
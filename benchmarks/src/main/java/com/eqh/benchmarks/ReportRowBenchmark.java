@@ -0,0 +1,143 @@
+package com.eqh.benchmarks;
+
+import com.eqh.application.dto.PeriodicPayoutMessage;
+import com.eqh.application.dto.PeriodicPayoutReportContext;
+import com.eqh.application.dto.ProductInfo;
+import com.eqh.application.service.OverduePaymentTransactionHistoryService;
+import com.eqh.application.service.PeriodicPayoutMessageParser;
+import com.eqh.application.service.PeriodicPayoutTransactionHistoryDateRangeService;
+import com.eqh.application.service.PeriodicPayoutTransactionHistoryService;
+import com.eqh.application.service.TransactionHistoryService;
+import com.eqh.benchmarks.fixtures.MessageImageFixtures;
+import com.eqh.benchmarks.fixtures.MessageImageFixtures.MessageType;
+import com.eqh.benchmarks.fixtures.ReportFixtures;
+import com.eqh.benchmarks.fixtures.ReportServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second through the {@code processRow} of each report service, on the input it
+ * gets in a report run: the payee rows of the death claim and overdue payment queries,
+ * and parsed PeriodicPayout messages with their lookups loaded. Party profiles are served
+ * from a warm {@code PartyProfileCache}, as they are after the per-chunk bulk load.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportRowBenchmark {
+
+    private static final int DOCUMENTS = 512;
+
+    public enum Report {
+        DEATH_CLAIM, OVERDUE_PAYMENT, PERIODIC_PAYOUT, PERIODIC_PAYOUT_DATE_RANGE
+    }
+
+    @Param({"DEATH_CLAIM", "OVERDUE_PAYMENT", "PERIODIC_PAYOUT", "PERIODIC_PAYOUT_DATE_RANGE"})
+    public Report report;
+
+    private Object service;
+    private MethodHandle processRow;
+    private List<Object> inputs;
+    private Object lookups;
+    private Object secondLookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ReportServices services = new ReportServices();
+        MessageType messageType = switch (report) {
+            case DEATH_CLAIM -> MessageType.DEATH_CLAIM;
+            case OVERDUE_PAYMENT -> MessageType.OVERDUE_PAYMENT;
+            case PERIODIC_PAYOUT, PERIODIC_PAYOUT_DATE_RANGE -> MessageType.PERIODIC_PAYOUT;
+        };
+        List<String> documents = MessageImageFixtures.generate(messageType, DOCUMENTS, 42L);
+        Set<String> policyNumbers = ReportFixtures.policyNumbers(documents);
+
+        switch (report) {
+            case DEATH_CLAIM -> {
+                List<Object[]> rows = ReportFixtures.deathClaimPayeeRows(documents);
+                warmPartyCache(services, rows, 9);
+                service = services.deathClaim();
+                processRow = ReportServices.privateMethod(TransactionHistoryService.class, "processRow",
+                        List.class, Object[].class, Map.class);
+                inputs = new ArrayList<>(rows);
+                lookups = ReportFixtures.policyProductCodes(policyNumbers);
+            }
+            case OVERDUE_PAYMENT -> {
+                List<Object[]> rows = ReportFixtures.overduePaymentPayeeRows(documents);
+                warmPartyCache(services, rows, 7);
+                service = services.overduePayment();
+                processRow = ReportServices.privateMethod(OverduePaymentTransactionHistoryService.class, "processRow",
+                        List.class, Object[].class, Map.class, Map.class);
+                inputs = new ArrayList<>(rows);
+                lookups = ReportFixtures.policyProductCodes(policyNumbers);
+                secondLookups = ReportFixtures.productInfo(policyNumbers, 42L);
+            }
+            case PERIODIC_PAYOUT, PERIODIC_PAYOUT_DATE_RANGE -> {
+                PeriodicPayoutMessageParser parser = services.messageParser();
+                List<PeriodicPayoutMessage> messages = documents.stream().map(parser::parse).toList();
+                Set<String> partyNumbers = new LinkedHashSet<>();
+                messages.forEach(message -> partyNumbers.addAll(message.getTaxablePartyNumbers()));
+
+                Map<String, Map<String, String>> mailingAddresses;
+                Class<?> serviceClass;
+                if (report == Report.PERIODIC_PAYOUT) {
+                    PeriodicPayoutTransactionHistoryService periodicPayout = services.periodicPayout();
+                    mailingAddresses = periodicPayout.fetchMailingAddressesForTaxablePartyNumbers(partyNumbers);
+                    service = periodicPayout;
+                    serviceClass = PeriodicPayoutTransactionHistoryService.class;
+                } else {
+                    PeriodicPayoutTransactionHistoryDateRangeService dateRange = services.periodicPayoutDateRange();
+                    mailingAddresses = dateRange.fetchMailingAddressesForTaxablePartyNumbers(partyNumbers);
+                    service = dateRange;
+                    serviceClass = PeriodicPayoutTransactionHistoryDateRangeService.class;
+                }
+                Map<String, ProductInfo> productInfo = ReportFixtures.productInfo(policyNumbers, 42L);
+                processRow = ReportServices.privateMethod(serviceClass, "processRow",
+                        List.class, PeriodicPayoutMessage.class, PeriodicPayoutReportContext.class);
+                inputs = new ArrayList<>(messages);
+                lookups = new PeriodicPayoutReportContext(productInfo, mailingAddresses,
+                        ReportFixtures.ytdTotals(policyNumbers, partyNumbers, 42L));
+            }
+        }
+    }
+
+    private static void warmPartyCache(ReportServices services, List<Object[]> rows, int partyNumberColumn) {
+        Set<String> partyNumbers = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            partyNumbers.add((String) row[partyNumberColumn]);
+        }
+        services.partyProfileCache().getAll(partyNumbers);
+    }
+
+    @Benchmark
+    public Object processRow() throws Throwable {
+        next = (next + 1) % inputs.size();
+        Object input = inputs.get(next);
+        return switch (report) {
+            case DEATH_CLAIM, PERIODIC_PAYOUT, PERIODIC_PAYOUT_DATE_RANGE -> processRow.invoke(service, input, lookups);
+            case OVERDUE_PAYMENT -> processRow.invoke(service, input, lookups, secondLookups);
+        };
+    }
+}
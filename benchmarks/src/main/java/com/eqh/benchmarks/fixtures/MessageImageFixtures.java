@@ -0,0 +1,207 @@
+package com.eqh.benchmarks.fixtures;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic TRANSACTION_HISTORY message_image documents shaped like the
+ * PeriodicPayout, death claim and OverduePayment messages the reports read.
+ * <p>
+ * Besides the fields the reports use, every document carries the bulky sections a real
+ * message has (benefit schedules, arrangement details, policy values, audit history), so
+ * a document is in the tens of kilobytes. Generation is deterministic for a given seed.
+ */
+public final class MessageImageFixtures {
+
+    public enum MessageType {
+        PERIODIC_PAYOUT, DEATH_CLAIM, OVERDUE_PAYMENT
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] FIRST_NAMES = {"John", "Mary", "Ana", "Wei", "Omar", "Priya", "Lars", "Keiko"};
+    private static final String[] LAST_NAMES = {"Smith", "Garcia", "Chen", "Khan", "Patel", "Larsen", "Sato", "Brown"};
+
+    private MessageImageFixtures() {
+    }
+
+    /**
+     * @param type the message type to generate.
+     * @param count the number of documents.
+     * @param seed the random seed.
+     * @return {@code count} JSON documents of the given type.
+     */
+    public static List<String> generate(MessageType type, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ObjectNode message = switch (type) {
+                case PERIODIC_PAYOUT -> periodicPayout(random, i);
+                case DEATH_CLAIM -> deathClaim(random, i);
+                case OVERDUE_PAYMENT -> overduePayment(random, i);
+            };
+            documents.add(toJson(message));
+        }
+        return documents;
+    }
+
+    public static ObjectNode periodicPayout(Random random, int index) {
+        ObjectNode message = header(random, index);
+        message.put("suspendCode", String.valueOf(random.nextInt(3)));
+        ArrayNode payeePayouts = message.putArray("payeePayouts");
+        int payees = 1 + random.nextInt(3);
+        for (int p = 0; p < payees; p++) {
+            ObjectNode payout = payeePayouts.addObject();
+            payout.put("taxablePartyNumber", partyNumber(random));
+            payout.put("taxableToGovtID", govtId(random));
+            payout.put("taxablePartyName", name(random));
+            payout.put("taxableToGovtIDStat", String.valueOf(1 + random.nextInt(3)));
+            payout.put("taxableToGovtIdTC", String.valueOf(1 + random.nextInt(3)));
+            payout.put("taxableToResidenceState", String.valueOf(1 + random.nextInt(60)));
+            payout.put("taxableToResidenceCountry", "1");
+            payout.put("payeeStatus", String.valueOf(1 + random.nextInt(3)));
+            payout.put("federalNonTaxableAmt", amount(random, 500));
+            payout.put("grossAmt", amount(random, 5000));
+            addPadding(random, payout.putObject("payoutDetails"), 20);
+        }
+        ArrayNode benefits = message.putArray("benefits");
+        for (int b = 0; b < 24; b++) {
+            ObjectNode benefit = benefits.addObject();
+            benefit.put("endDate", "2035-12-31");
+            benefit.put("modalBenefit", amount(random, 2000));
+            addPadding(random, benefit, 12);
+        }
+        addBulkSections(random, message);
+        return message;
+    }
+
+    public static ObjectNode deathClaim(Random random, int index) {
+        ObjectNode message = header(random, index);
+        ObjectNode arrangement = message.putObject("arrangement");
+        addPadding(random, arrangement.putObject("arrangementDetails"), 40);
+        ArrayNode arrDestination = arrangement.putArray("arrDestination");
+        int destinations = 1 + random.nextInt(4);
+        for (int d = 0; d < destinations; d++) {
+            ObjectNode dest = arrDestination.addObject();
+            ObjectNode taxableParty = dest.putObject("taxableParty");
+            ObjectNode person = taxableParty.putObject("person");
+            person.put("firstName", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            person.put("lastName", LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            taxableParty.put("residenceState", String.valueOf(1 + random.nextInt(60)));
+            taxableParty.put("govtID", govtId(random));
+            taxableParty.put("govtIdTC", String.valueOf(1 + random.nextInt(3)));
+            taxableParty.put("partyNumber", partyNumber(random));
+            dest.put("settlementInterestAmt", amount(random, 300));
+            dest.put("lateInterestAmt", amount(random, 100));
+            dest.put("deathBenefitPayoutAmt", amount(random, 250000));
+            ObjectNode withholding = dest.putObject("payeeWithholding");
+            withholding.put("federalWithholdingAmt", amount(random, 2000));
+            withholding.put("stateWithholdingAmt", amount(random, 800));
+            addPadding(random, dest.putObject("destinationDetails"), 25);
+        }
+        addBulkSections(random, message);
+        return message;
+    }
+
+    public static ObjectNode overduePayment(Random random, int index) {
+        ObjectNode message = header(random, index);
+        message.put("suspendCode", String.valueOf(random.nextInt(3)));
+        ObjectNode adjustments = message.putObject("adjustments");
+        addPadding(random, adjustments.putObject("adjustmentDetails"), 30);
+        ArrayNode arrDestinations = adjustments.putArray("arrDestinations");
+        int destinations = 1 + random.nextInt(3);
+        for (int d = 0; d < destinations; d++) {
+            ObjectNode dest = arrDestinations.addObject();
+            ObjectNode payeeInfo = dest.putObject("payeeInfo");
+            payeeInfo.put("taxablePartyNumber", partyNumber(random));
+            payeeInfo.put("taxableToGovtID", govtId(random));
+            payeeInfo.put("taxableToGovtIdTC", String.valueOf(1 + random.nextInt(3)));
+            payeeInfo.put("taxableToGovtIDStat", String.valueOf(1 + random.nextInt(3)));
+            payeeInfo.put("taxablePartyName", name(random));
+            payeeInfo.put("taxableToResidenceState", String.valueOf(1 + random.nextInt(60)));
+            payeeInfo.put("taxableToResidenceCountry", "1");
+            payeeInfo.put("payeeStatus", String.valueOf(1 + random.nextInt(3)));
+            dest.putObject("payee").put("partyTypeCode", String.valueOf(1 + random.nextInt(2)));
+            ObjectNode withholdings = dest.putObject("payeeWithholdings");
+            withholdings.put("federalWithholdingAmt", amount(random, 2000));
+            withholdings.put("stateWithholdingAmt", amount(random, 800));
+            addPadding(random, dest.putObject("destinationDetails"), 25);
+        }
+        addBulkSections(random, message);
+        return message;
+    }
+
+    private static ObjectNode header(Random random, int index) {
+        ObjectNode message = MAPPER.createObjectNode();
+        message.put("polNumber", String.format("FP%08d", index));
+        message.put("transExeDate", "2024-0" + (1 + random.nextInt(8)) + "-15");
+        message.put("transRunDate", "2024-0" + (1 + random.nextInt(8)) + "-16");
+        message.put("transEffDate", "2024-0" + (1 + random.nextInt(8)) + "-14");
+        return message;
+    }
+
+    /**
+     * Sections the reports never read but real messages carry.
+     */
+    private static void addBulkSections(Random random, ObjectNode message) {
+        ObjectNode policyValues = message.putObject("policyValues");
+        addPadding(random, policyValues, 60);
+        ArrayNode history = message.putArray("auditHistory");
+        for (int h = 0; h < 40; h++) {
+            ObjectNode entry = history.addObject();
+            entry.put("timestamp", "2024-01-" + (10 + random.nextInt(18)) + "T10:15:30");
+            entry.put("userId", "user" + random.nextInt(1000));
+            addPadding(random, entry, 8);
+        }
+        ArrayNode coverages = message.putArray("coverages");
+        for (int c = 0; c < 6; c++) {
+            ObjectNode coverage = coverages.addObject();
+            addPadding(random, coverage, 20);
+            ArrayNode riders = coverage.putArray("riders");
+            for (int r = 0; r < 4; r++) {
+                addPadding(random, riders.addObject(), 10);
+            }
+        }
+    }
+
+    private static void addPadding(Random random, ObjectNode node, int fields) {
+        for (int f = 0; f < fields; f++) {
+            switch (f % 4) {
+                case 0 -> node.put("code" + f, String.valueOf(random.nextInt(100000)));
+                case 1 -> node.put("amount" + f, amount(random, 10000));
+                case 2 -> node.put("indicator" + f, random.nextBoolean());
+                default -> node.put("description" + f, "Generated description text " + random.nextInt(1000000));
+            }
+        }
+    }
+
+    private static BigDecimal amount(Random random, int max) {
+        return BigDecimal.valueOf(random.nextInt(max * 100), 2);
+    }
+
+    private static String partyNumber(Random random) {
+        return String.valueOf(100000 + random.nextInt(20000));
+    }
+
+    private static String govtId(Random random) {
+        return String.format("%09d", random.nextInt(1_000_000_000));
+    }
+
+    private static String name(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static String toJson(ObjectNode message) {
+        try {
+            return MAPPER.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
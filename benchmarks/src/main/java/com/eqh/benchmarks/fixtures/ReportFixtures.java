@@ -0,0 +1,232 @@
+package com.eqh.benchmarks.fixtures;
+
+import com.eqh.application.dto.Address;
+import com.eqh.application.dto.Party;
+import com.eqh.application.dto.PartyProfile;
+import com.eqh.application.dto.Person;
+import com.eqh.application.dto.ProductInfo;
+import com.eqh.application.dto.YtdTotals;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Report inputs derived from generated {@link MessageImageFixtures} documents: the payee
+ * rows the death claim and overdue payment queries return, the party profiles the party
+ * service would answer with, and the policy lookups. Generation is deterministic for a
+ * given seed.
+ */
+public final class ReportFixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] STREETS = {"Main St", "Oak Ave", "Park Rd", "Elm St", "Lake Dr", "Hill Ln"};
+    private static final String[] CITIES = {"Springfield", "Riverside", "Fairview", "Madison", "Georgetown"};
+
+    private ReportFixtures() {
+    }
+
+    /**
+     * @return the rows of {@code TransactionHistoryRepository.streamDeathClaimPayees()} for
+     * the arrDestination entries of the documents.
+     */
+    public static List<Object[]> deathClaimPayeeRows(List<String> documents) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String document : documents) {
+            JsonNode message = readTree(document);
+            for (JsonNode dest : message.path("arrangement").path("arrDestination")) {
+                JsonNode taxableParty = dest.path("taxableParty");
+                rows.add(new Object[]{
+                        text(message, "polNumber"),
+                        decimal(dest, "deathBenefitPayoutAmt"),
+                        timestamp(message, "transEffDate"),
+                        timestamp(message, "transRunDate"),
+                        text(taxableParty.path("person"), "firstName"),
+                        text(taxableParty.path("person"), "lastName"),
+                        text(taxableParty, "residenceState"),
+                        text(taxableParty, "govtID"),
+                        text(taxableParty, "govtIdTC"),
+                        text(taxableParty, "partyNumber"),
+                        text(taxableParty.path("organization"), "dba"),
+                        decimal(dest, "settlementInterestAmt"),
+                        decimal(dest, "lateInterestAmt"),
+                        decimal(dest, "deathBenefitPayoutAmt"),
+                        decimal(dest.path("payeeWithholding"), "federalWithholdingAmt"),
+                        decimal(dest.path("payeeWithholding"), "stateWithholdingAmt")
+                });
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @return the rows of {@code TransactionHistoryRepository.streamOverduePaymentPayees()}
+     * for the arrDestinations entries of the documents.
+     */
+    public static List<Object[]> overduePaymentPayeeRows(List<String> documents) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String document : documents) {
+            JsonNode message = readTree(document);
+            for (JsonNode dest : message.path("adjustments").path("arrDestinations")) {
+                JsonNode payeeInfo = dest.path("payeeInfo");
+                rows.add(new Object[]{
+                        text(message, "polNumber"),
+                        BigDecimal.valueOf(1000),
+                        timestamp(message, "transEffDate"),
+                        timestamp(message, "transRunDate"),
+                        text(message, "transExeDate"),
+                        text(message, "suspendCode"),
+                        text(dest.path("payee"), "partyTypeCode"),
+                        text(payeeInfo, "taxablePartyNumber"),
+                        text(payeeInfo, "taxableToGovtID"),
+                        text(payeeInfo, "taxableToGovtIdTC"),
+                        text(payeeInfo, "taxableToGovtIDStat"),
+                        text(payeeInfo, "taxablePartyName"),
+                        text(payeeInfo, "taxableToResidenceState"),
+                        text(payeeInfo, "taxableToResidenceCountry"),
+                        text(payeeInfo, "payeeStatus"),
+                        decimal(dest.path("payeeWithholdings"), "federalWithholdingAmt"),
+                        decimal(dest.path("payeeWithholdings"), "stateWithholdingAmt")
+                });
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @return the policy numbers of the documents, in order.
+     */
+    public static Set<String> policyNumbers(List<String> documents) {
+        Set<String> policyNumbers = new TreeSet<>();
+        for (String document : documents) {
+            policyNumbers.add(readTree(document).path("polNumber").asText());
+        }
+        return policyNumbers;
+    }
+
+    /**
+     * @return a product code for every policy, as loaded by the death claim and overdue reports.
+     */
+    public static Map<String, String> policyProductCodes(Set<String> policyNumbers) {
+        Map<String, String> productCodes = new HashMap<>();
+        for (String polNumber : policyNumbers) {
+            productCodes.put(polNumber, "PRD" + (polNumber.hashCode() & 7));
+        }
+        return productCodes;
+    }
+
+    /**
+     * @return product info with valid policy status and qualified plan codes for every policy.
+     */
+    public static Map<String, ProductInfo> productInfo(Set<String> policyNumbers, long seed) {
+        Random random = new Random(seed);
+        Map<String, ProductInfo> productInfo = new HashMap<>();
+        for (String polNumber : policyNumbers) {
+            productInfo.put(polNumber, new ProductInfo(polNumber, "MC" + random.nextInt(10),
+                    String.valueOf(1 + random.nextInt(20)), "PRD" + random.nextInt(8), String.valueOf(1 + random.nextInt(40))));
+        }
+        return productInfo;
+    }
+
+    /**
+     * @return YTD totals with gross amounts for every policy and withholdings for most of them.
+     */
+    public static YtdTotals ytdTotals(Set<String> policyNumbers, Set<String> partyNumbers, long seed) {
+        Random random = new Random(seed);
+        List<String> parties = new ArrayList<>(partyNumbers);
+        YtdTotals totals = new YtdTotals();
+        for (String polNumber : policyNumbers) {
+            totals.putGrossAmount(polNumber, random.nextInt(5_000_000) / 100.0);
+            if (random.nextInt(4) > 0) {
+                totals.addPolicyWithPayouts(polNumber);
+                String partyNumber = parties.get(random.nextInt(parties.size()));
+                totals.putFeeAmounts(polNumber, partyNumber, random.nextInt(200_000) / 100.0, random.nextInt(80_000) / 100.0);
+                totals.putAdjustmentValues(polNumber, partyNumber, random.nextInt(10_000) / 100.0, 0);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * @return a profile with a party, a person and one preferred and one other address.
+     */
+    public static PartyProfile partyProfile(String partyNumber) {
+        Random random = new Random(partyNumber.hashCode());
+        Party party = new Party();
+        party.setPartyNumber(partyNumber);
+        party.setGovtId(String.format("%09d", random.nextInt(1_000_000_000)));
+        party.setGovtIdtc(String.valueOf(1 + random.nextInt(3)));
+        party.setGovtIdStat(String.valueOf(1 + random.nextInt(3)));
+        Person person = new Person();
+        person.setFirstName("First" + random.nextInt(1000));
+        person.setLastName("Last" + random.nextInt(1000));
+        return new PartyProfile(partyNumber, party, person, List.of(address(random, true), address(random, false)));
+    }
+
+    /**
+     * @return addresses with one to five lines filled in, some without a zip code.
+     */
+    public static List<Address> addresses(int count, long seed) {
+        Random random = new Random(seed);
+        List<Address> addresses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            addresses.add(address(random, random.nextBoolean()));
+        }
+        return addresses;
+    }
+
+    private static Address address(Random random, boolean preferred) {
+        Address address = new Address();
+        address.setPrefAddr(preferred);
+        address.setAddressCountrytc("1");
+        int lines = 1 + random.nextInt(5);
+        address.setLine1((100 + random.nextInt(9900)) + " " + STREETS[random.nextInt(STREETS.length)]);
+        if (lines > 1) {
+            address.setLine2("Apt " + (1 + random.nextInt(400)));
+        }
+        if (lines > 2) {
+            address.setLine3(CITIES[random.nextInt(CITIES.length)]);
+        }
+        if (lines > 3) {
+            address.setLine4("Attn: Claims Department");
+        }
+        if (lines > 4) {
+            address.setLine5("c/o Estate Administrator");
+        }
+        if (random.nextInt(5) > 0) {
+            address.setZip(String.format("%05d", random.nextInt(100000)));
+        }
+        return address;
+    }
+
+    private static JsonNode readTree(String document) {
+        try {
+            return MAPPER.readTree(document);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static BigDecimal decimal(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && value.isNumber() ? value.decimalValue() : null;
+    }
+
+    private static Timestamp timestamp(JsonNode node, String field) {
+        return Timestamp.valueOf(node.path(field).asText() + " 00:00:00");
+    }
+}
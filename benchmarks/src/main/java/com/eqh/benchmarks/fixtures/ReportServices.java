@@ -0,0 +1,100 @@
+package com.eqh.benchmarks.fixtures;
+
+import com.eqh.application.dto.Address;
+import com.eqh.application.dto.Party;
+import com.eqh.application.dto.PartyProfile;
+import com.eqh.application.dto.Person;
+import com.eqh.application.feignClient.PartyClient;
+import com.eqh.application.service.OverduePaymentTransactionHistoryService;
+import com.eqh.application.service.PartyProfileCache;
+import com.eqh.application.service.PeriodicPayoutMessageParser;
+import com.eqh.application.service.PeriodicPayoutTransactionHistoryDateRangeService;
+import com.eqh.application.service.PeriodicPayoutTransactionHistoryService;
+import com.eqh.application.service.TransactionHistoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * The report services wired with in-memory stand-ins instead of the database and the
+ * party service, for benchmarking their row transformation.
+ * <p>
+ * Only the party client is stubbed, answering with {@link ReportFixtures#partyProfile}
+ * profiles; the repositories and the other collaborators are left null, so only methods
+ * that do not query the database can be called. The transformation methods are private,
+ * {@link #privateMethod} looks them up without changing their visibility.
+ */
+public final class ReportServices {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PartyProfileCache partyProfileCache = new PartyProfileCache(new FixturePartyClient(), 50_000, 60, 8);
+
+    public PartyProfileCache partyProfileCache() {
+        return partyProfileCache;
+    }
+
+    public PeriodicPayoutMessageParser messageParser() {
+        return new PeriodicPayoutMessageParser(objectMapper);
+    }
+
+    public TransactionHistoryService deathClaim() {
+        return new TransactionHistoryService(null, null, objectMapper, partyProfileCache, null, null);
+    }
+
+    public OverduePaymentTransactionHistoryService overduePayment() {
+        return new OverduePaymentTransactionHistoryService(null, null, objectMapper, partyProfileCache, null, null);
+    }
+
+    public PeriodicPayoutTransactionHistoryService periodicPayout() {
+        return new PeriodicPayoutTransactionHistoryService(null, null, objectMapper, partyProfileCache,
+                null, messageParser(), null, null);
+    }
+
+    public PeriodicPayoutTransactionHistoryDateRangeService periodicPayoutDateRange() {
+        return new PeriodicPayoutTransactionHistoryDateRangeService(null, null, objectMapper, partyProfileCache,
+                null, messageParser(), null, null, null);
+    }
+
+    /**
+     * @return a handle on the private instance method, taking the service as its first argument.
+     */
+    public static MethodHandle privateMethod(Class<?> serviceClass, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(serviceClass, MethodHandles.lookup());
+            return lookup.findVirtual(serviceClass, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No method " + name + " in " + serviceClass.getName(), e);
+        }
+    }
+
+    private static class FixturePartyClient implements PartyClient {
+
+        @Override
+        public List<Address> getAddresses(String partyNumber) {
+            return ReportFixtures.partyProfile(partyNumber).getAddresses();
+        }
+
+        @Override
+        public Party getPartyDetails(String partyNumber) {
+            return ReportFixtures.partyProfile(partyNumber).getParty();
+        }
+
+        @Override
+        public Person getPersonDetails(String partyNumber) {
+            return ReportFixtures.partyProfile(partyNumber).getPerson();
+        }
+
+        @Override
+        public PartyProfile getPartyProfile(String partyNumber) {
+            return ReportFixtures.partyProfile(partyNumber);
+        }
+
+        @Override
+        public List<PartyProfile> getPartyProfiles(List<String> partyNumbers) {
+            return partyNumbers.stream().map(ReportFixtures::partyProfile).toList();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.eqh.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the report tables in a local PostgreSQL database and fills them with a synthetic
+ * dataset of a given number of TRANSACTION_HISTORY rows, see {@code loadtest/seed.sql}.
+ * The database is created first if it does not exist.
+ */
+public class DatasetSeeder {
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+
+    public DatasetSeeder(String jdbcUrl, String username, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * @return the number of policies of a dataset of the given size.
+     */
+    public static int policies(int rows) {
+        return Math.max(rows / 20, 100);
+    }
+
+    /**
+     * @return the number of payee parties of a dataset of the given size.
+     */
+    public static int parties(int rows) {
+        return Math.max(policies(rows) / 2, 50);
+    }
+
+    /**
+     * Drops and recreates the report tables and seeds them.
+     *
+     * @param rows the number of TRANSACTION_HISTORY rows.
+     */
+    public void seed(int rows) throws SQLException, IOException {
+        createDatabaseIfMissing();
+        Map<String, String> variables = Map.of(
+                "rows", String.valueOf(rows),
+                "policies", String.valueOf(policies(rows)),
+                "parties", String.valueOf(parties(rows)),
+                "payments", String.valueOf(rows / 2));
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            for (String sql : readStatements("loadtest/schema.sql", variables)) {
+                statement.execute(sql);
+            }
+            for (String sql : readStatements("loadtest/seed.sql", variables)) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private void createDatabaseIfMissing() throws SQLException {
+        try (Connection ignored = DriverManager.getConnection(jdbcUrl, username, password)) {
+            return;
+        } catch (SQLException e) {
+            // 3D000: invalid_catalog_name, the database does not exist
+            if (!"3D000".equals(e.getSQLState())) {
+                throw e;
+            }
+        }
+        int databaseStart = jdbcUrl.lastIndexOf('/') + 1;
+        int databaseEnd = jdbcUrl.indexOf('?', databaseStart);
+        String database = jdbcUrl.substring(databaseStart, databaseEnd < 0 ? jdbcUrl.length() : databaseEnd);
+        String maintenanceUrl = jdbcUrl.substring(0, databaseStart) + "postgres"
+                + (databaseEnd < 0 ? "" : jdbcUrl.substring(databaseEnd));
+        try (Connection connection = DriverManager.getConnection(maintenanceUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE \"" + database.replace("\"", "\"\"") + "\"");
+        }
+    }
+
+    /**
+     * Reads a script of statements each ending with a semicolon at the end of a line,
+     * replacing its {@code ${name}} variables.
+     */
+    private static List<String> readStatements(String resource, Map<String, String> variables) throws IOException {
+        String script;
+        try (InputStream in = DatasetSeeder.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Script not found in classpath: " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            script = script.replace("${" + variable.getKey() + "}", variable.getValue());
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (line.stripLeading().startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (line.stripTrailing().endsWith(";")) {
+                statements.add(current.toString().strip());
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().strip());
+        }
+        return statements;
+    }
+}
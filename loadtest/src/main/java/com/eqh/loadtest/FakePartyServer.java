@@ -0,0 +1,168 @@
+package com.eqh.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the party service behind {@code PartyClient}, answering the profile and bulk
+ * profile lookups with generated profiles after a configurable delay.
+ * <p>
+ * Every party number exists and always gets the same profile: a party, a person and one
+ * preferred and one other address. Requests are served concurrently, so the delay models
+ * the latency of the party service, not its capacity.
+ */
+public class FakePartyServer implements AutoCloseable {
+
+    private static final String BASE_PATH = "/api/party";
+    private static final String[] STREETS = {"Main St", "Oak Ave", "Park Rd", "Elm St", "Lake Dr", "Hill Ln"};
+    private static final String[] CITIES = {"Springfield", "Riverside", "Fairview", "Madison", "Georgetown"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-party-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong partiesRequested = new AtomicLong();
+
+    /**
+     * @param port the port to listen on; PartyClient calls localhost:8083.
+     * @param latencyMillis the delay before every response.
+     * @param jitterMillis a random extra delay of up to this many milliseconds.
+     */
+    public FakePartyServer(int port, long latencyMillis, long jitterMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.createContext(BASE_PATH, this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return the number of requests served so far.
+     */
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of party numbers looked up so far, over all requests.
+     */
+    public long partiesRequested() {
+        return partiesRequested.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            delay();
+            String[] path = exchange.getRequestURI().getPath().substring(BASE_PATH.length()).split("/");
+            JsonNode response;
+            if (path.length == 2 && "bulk".equals(path[1]) && "POST".equals(exchange.getRequestMethod())) {
+                ArrayNode profiles = objectMapper.createArrayNode();
+                try (InputStream body = exchange.getRequestBody()) {
+                    for (JsonNode partyNumber : objectMapper.readTree(body)) {
+                        partiesRequested.incrementAndGet();
+                        profiles.add(profile(partyNumber.asText()));
+                    }
+                }
+                response = profiles;
+            } else if (path.length >= 2) {
+                partiesRequested.incrementAndGet();
+                ObjectNode profile = profile(path[1]);
+                String part = path.length > 2 ? path[2] : "";
+                response = switch (part) {
+                    case "profile" -> profile;
+                    case "person" -> profile.get("person");
+                    case "addresses" -> profile.get("addresses");
+                    default -> profile.get("party");
+                };
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private void delay() {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ObjectNode profile(String partyNumber) {
+        Random random = new Random(partyNumber.hashCode());
+        ObjectNode profile = objectMapper.createObjectNode();
+        profile.put("partyNumber", partyNumber);
+
+        ObjectNode party = profile.putObject("party");
+        party.put("partyNumber", partyNumber);
+        party.put("partyTypeCode", "1");
+        party.put("govtId", String.format("%09d", random.nextInt(1_000_000_000)));
+        party.put("govtIdtc", String.valueOf(1 + random.nextInt(3)));
+        party.put("govtIdStat", String.valueOf(1 + random.nextInt(3)));
+        party.put("residenceState", String.valueOf(1 + random.nextInt(60)));
+        party.put("residenceCountry", "1");
+
+        ObjectNode person = profile.putObject("person");
+        person.put("firstName", "First" + random.nextInt(1000));
+        person.put("lastName", "Last" + random.nextInt(1000));
+
+        ArrayNode addresses = profile.putArray("addresses");
+        addAddress(addresses, random, true);
+        addAddress(addresses, random, false);
+        return profile;
+    }
+
+    private static void addAddress(ArrayNode addresses, Random random, boolean preferred) {
+        ObjectNode address = addresses.addObject();
+        address.put("prefAddr", preferred);
+        address.put("addressCountrytc", "1");
+        address.put("line1", (100 + random.nextInt(9900)) + " " + STREETS[random.nextInt(STREETS.length)]);
+        if (random.nextBoolean()) {
+            address.put("line2", "Apt " + (1 + random.nextInt(400)));
+        }
+        address.put("line3", CITIES[random.nextInt(CITIES.length)]);
+        address.put("zip", String.format("%05d", random.nextInt(100000)));
+    }
+}
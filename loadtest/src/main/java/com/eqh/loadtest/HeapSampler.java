@@ -0,0 +1,69 @@
+package com.eqh.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Samples the used heap on a background thread and keeps the highest value seen.
+ * <p>
+ * A sample every few milliseconds misses short spikes between two collections, so the peak
+ * is a lower bound; it covers the whole JVM, including the harness and the fake party server.
+ */
+public class HeapSampler implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final long intervalMillis;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long peakBytes;
+
+    private HeapSampler(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        this.peakBytes = usedBytes();
+        this.thread = new Thread(this::sample, "heap-sampler");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts sampling every {@code intervalMillis} milliseconds until closed.
+     */
+    public static HeapSampler start(long intervalMillis) {
+        HeapSampler sampler = new HeapSampler(intervalMillis);
+        sampler.thread.start();
+        return sampler;
+    }
+
+    /**
+     * @return the used heap in bytes right now.
+     */
+    public long usedBytes() {
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * @return the highest used heap in bytes sampled so far.
+     */
+    public long peakBytes() {
+        return Math.max(peakBytes, usedBytes());
+    }
+
+    private void sample() {
+        while (running) {
+            long used = usedBytes();
+            if (used > peakBytes) {
+                peakBytes = used;
+            }
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,260 @@
+package com.eqh.loadtest;
+
+import com.eqh.application.Application;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * End-to-end load test of the report endpoints.
+ * <p>
+ * Seeds a local PostgreSQL database with a synthetic dataset, starts a {@link FakePartyServer}
+ * in place of the party service, starts the application against both and downloads every
+ * report, recording the wall time, the peak heap, the JDBC statements executed and the
+ * party service calls of each download. The results are written as JSON.
+ * <p>
+ * Options, all {@code --name=value}:
+ * <ul>
+ *     <li>{@code rows}: TRANSACTION_HISTORY rows of the dataset, with an optional k or m suffix (default 10k)</li>
+ *     <li>{@code party-latency-ms}, {@code party-jitter-ms}: delay of every party service response (default 0)</li>
+ *     <li>{@code jdbc-url}, {@code db-user}, {@code db-password}: the database to seed and report from</li>
+ *     <li>{@code reports}: comma separated report names to run (default all, see {@link Report})</li>
+ *     <li>{@code repeat}: downloads per report (default 1)</li>
+ *     <li>{@code format}: the report format, xlsx, csv or ndjson (default xlsx)</li>
+ *     <li>{@code gzip}: ask for a gzip compressed response; the bytes counted are the compressed ones</li>
+ *     <li>{@code skip-seed}: reuse the dataset from a previous run with the same {@code rows}</li>
+ *     <li>{@code output}: the results file (default loadtest-results/&lt;rows&gt;-&lt;timestamp&gt;.json)</li>
+ * </ul>
+ */
+public class LoadTestHarness {
+
+    private static final int PARTY_SERVICE_PORT = 8083;
+    private static final String REPORT_START = "2024-01-01T00:00:00";
+    private static final String REPORT_END = "2024-12-31T23:59:59";
+
+    enum Report {
+        DEATH_CLAIM("deathclaim/generate-report"),
+        OVERDUE_PAYMENT("overduepayment/generate-report"),
+        PERIODIC_PAYOUT("periodicpayout/generate-report"),
+        PERIODIC_PAYOUT_DATE_RANGE("periodicpayout/dateRange/generate-report"),
+        PERIODIC_PAYOUT_INCREMENTAL("periodicpayout/dateRange/incremental/generate-report?rebuild=true");
+
+        private final String path;
+
+        Report(String path) {
+            this.path = path;
+        }
+    }
+
+    record Config(int rows, int policies, int parties, long partyLatencyMillis, long partyJitterMillis,
+                  String format, boolean gzip, String jdbcUrl, long maxHeapBytes, int availableProcessors,
+                  Long seedMillis) {
+    }
+
+    record Run(String report, int iteration, int status, long wallMillis, long bytes, long heapBeforeBytes,
+               long peakHeapBytes, long jdbcStatements, long partyRequests, long partiesRequested,
+               long gcCount, long gcMillis) {
+    }
+
+    record Results(String startedAt, Config config, List<Run> runs) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int rows = parseCount(options.getOrDefault("rows", "10k"));
+        long latency = Long.parseLong(options.getOrDefault("party-latency-ms", "0"));
+        long jitter = Long.parseLong(options.getOrDefault("party-jitter-ms", "0"));
+        String jdbcUrl = options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/loadtest");
+        String dbUser = options.getOrDefault("db-user", "postgres");
+        String dbPassword = options.getOrDefault("db-password", "postgres");
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", "1"));
+        String format = options.getOrDefault("format", "xlsx").toLowerCase(Locale.ROOT);
+        boolean gzip = options.containsKey("gzip");
+        List<Report> reports = options.containsKey("reports")
+                ? Arrays.stream(options.get("reports").split(","))
+                        .map(name -> Report.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_')))
+                        .toList()
+                : List.of(Report.values());
+        LocalDateTime startedAt = LocalDateTime.now();
+        Path output = Paths.get(options.getOrDefault("output", "loadtest-results/" + options.getOrDefault("rows", "10k")
+                + "-" + startedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json"));
+
+        Long seedMillis = null;
+        if (!options.containsKey("skip-seed")) {
+            System.out.printf("Seeding %,d rows into %s%n", rows, jdbcUrl);
+            long start = System.nanoTime();
+            new DatasetSeeder(jdbcUrl, dbUser, dbPassword).seed(rows);
+            seedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("Seeded in %,d ms%n", seedMillis);
+        }
+
+        Config config = new Config(rows, DatasetSeeder.policies(rows), DatasetSeeder.parties(rows), latency, jitter,
+                format, gzip, jdbcUrl, Runtime.getRuntime().maxMemory(), Runtime.getRuntime().availableProcessors(), seedMillis);
+        StatementCounter statementCounter = new StatementCounter();
+        List<Run> runs = new ArrayList<>();
+
+        try (FakePartyServer partyServer = new FakePartyServer(PARTY_SERVICE_PORT, latency, jitter)) {
+            partyServer.start();
+            Path stateDir = Files.createTempDirectory("loadtest-state");
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .initializers(applicationContext ->
+                            applicationContext.getBeanFactory().addBeanPostProcessor(statementCounter))
+                    .run(applicationArgs(jdbcUrl, dbUser, dbPassword, stateDir))) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+                String baseUrl = "http://localhost:" + port;
+
+                for (Report report : reports) {
+                    for (int iteration = 1; iteration <= repeat; iteration++) {
+                        Run run = download(http, baseUrl, report, format, gzip, iteration, statementCounter, partyServer);
+                        runs.add(run);
+                        System.out.printf("%-28s #%d  %3d  %,9d ms  %,12d bytes  peak heap %,6d MB  %,6d statements  %,6d party calls%n",
+                                run.report(), run.iteration(), run.status(), run.wallMillis(), run.bytes(),
+                                run.peakHeapBytes() >> 20, run.jdbcStatements(), run.partyRequests());
+                    }
+                }
+            }
+        }
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), new Results(startedAt.toString(), config, runs));
+        System.out.println("Results written to " + output.toAbsolutePath());
+        System.exit(0);
+    }
+
+    private static Run download(HttpClient http, String baseUrl, Report report, String format, boolean gzip,
+                                int iteration, StatementCounter statementCounter, FakePartyServer partyServer)
+            throws IOException, InterruptedException {
+        // Every download starts from a cold party cache and a collected heap
+        http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/cache/party")).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding());
+        System.gc();
+
+        long statementsBefore = statementCounter.executions();
+        long partyRequestsBefore = partyServer.requests();
+        long partiesBefore = partyServer.partiesRequested();
+        long[] gcBefore = gcTotals();
+        long bytes = 0;
+        int status;
+        long wallMillis;
+        long heapBefore;
+        long peakHeap;
+        try (HeapSampler heap = HeapSampler.start(10)) {
+            heapBefore = heap.usedBytes();
+            long start = System.nanoTime();
+            String uri = baseUrl + "/api/transactions/" + report.path + (report.path.contains("?") ? "&" : "?")
+                    + "format=" + format;
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri)).GET();
+            if (gzip) {
+                request.header("Accept-Encoding", "gzip");
+            }
+            HttpResponse<InputStream> response = http.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            status = response.statusCode();
+            try (InputStream body = response.body()) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = body.read(buffer)) >= 0) {
+                    bytes += read;
+                }
+            }
+            wallMillis = (System.nanoTime() - start) / 1_000_000;
+            peakHeap = heap.peakBytes();
+        }
+        long[] gcAfter = gcTotals();
+        return new Run(report.name(), iteration, status, wallMillis, bytes, heapBefore, peakHeap,
+                statementCounter.executions() - statementsBefore,
+                partyServer.requests() - partyRequestsBefore,
+                partyServer.partiesRequested() - partiesBefore,
+                gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+    }
+
+    /**
+     * Command-line arguments take precedence over the application.properties in the application jar.
+     */
+    private static String[] applicationArgs(String jdbcUrl, String dbUser, String dbPassword, Path stateDir) {
+        return new String[]{
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + dbUser,
+                "--spring.datasource.password=" + dbPassword,
+                // Flyway owns the schema; Hibernate would add unquoted lower-case tables next to the seeded ones
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.springframework=INFO",
+                "--payout.start.date=" + REPORT_START,
+                // The periodic payout report covers the payouts executed after transaction.end.date
+                "--transaction.start.date=" + REPORT_START,
+                "--transaction.end.date=" + REPORT_START,
+                "--payout.transaction.start.date=" + REPORT_START,
+                "--payout.transaction.end.date=" + REPORT_END,
+                "--report.incremental.state-file=" + stateDir.resolve("periodic-payout-date-range.json"),
+                "--report.jobs.output-dir=" + stateDir.resolve("report-jobs"),
+        };
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(collector.getCollectionCount(), 0);
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        return new long[]{count, millis};
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Parses a count such as 10000, 100k or 1m.
+     */
+    static int parseCount(String value) {
+        String count = value.trim().toLowerCase(Locale.ROOT);
+        int multiplier = 1;
+        if (count.endsWith("k")) {
+            multiplier = 1_000;
+            count = count.substring(0, count.length() - 1);
+        } else if (count.endsWith("m")) {
+            multiplier = 1_000_000;
+            count = count.substring(0, count.length() - 1);
+        }
+        return Math.multiplyExact(Integer.parseInt(count), multiplier);
+    }
+}
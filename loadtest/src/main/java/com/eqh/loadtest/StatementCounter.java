@@ -0,0 +1,84 @@
+package com.eqh.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the JDBC statements the application executes by wrapping its DataSource bean.
+ * <p>
+ * Every {@code execute*} call on a statement of a wrapped connection counts once; a batch
+ * counts as one execution. Everything else is passed through to the pooled objects.
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    private final AtomicLong executions = new AtomicLong();
+
+    /**
+     * @return the number of statement executions so far.
+     */
+    public long executions() {
+        return executions.get();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(dataSource, new Class<?>[]{DataSource.class, AutoCloseable.class});
+        }
+        return bean;
+    }
+
+    private Object proxy(Object target, Class<?>[] interfaces) {
+        return Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), interfaces, new Counting(target));
+    }
+
+    private class Counting implements InvocationHandler {
+
+        private final Object target;
+
+        Counting(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == AutoCloseable.class && !(target instanceof AutoCloseable)) {
+                return null;
+            }
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                executions.incrementAndGet();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                return proxy(connection, new Class<?>[]{Connection.class});
+            }
+            if (result instanceof Statement statement && target instanceof Connection) {
+                return proxy(statement, statementInterfaces(statement));
+            }
+            return result;
+        }
+
+        private Class<?>[] statementInterfaces(Statement statement) {
+            if (statement instanceof java.sql.CallableStatement) {
+                return new Class<?>[]{java.sql.CallableStatement.class};
+            }
+            if (statement instanceof java.sql.PreparedStatement) {
+                return new Class<?>[]{java.sql.PreparedStatement.class};
+            }
+            return new Class<?>[]{Statement.class};
+        }
+    }
+}
@@ -0,0 +1,66 @@
+-- Tables and columns the report queries touch, created from scratch on every seed. The
+-- application's Flyway migrations run on top of this when it starts, as on the real database.
+DROP TABLE IF EXISTS public."PAYOUT_PAYMENT_HISTORY_ADJUSTMENT", public."PAYOUT_PAYMENT_HISTORY_DEDUCTION",
+    public."PAYOUT_PAYMENT_HISTORY", public."PAYOUT_PAYEE", public."POLICY_PAYOUT", public."POLICY",
+    public."TRANSACTION_HISTORY", public.payout_ytd_ledger, public.payout_ytd_ledger_watermark,
+    public.flyway_schema_history;
+
+CREATE TABLE public."POLICY" (
+    id              bigint PRIMARY KEY,
+    pol_number      varchar(255),
+    product_code    varchar(255),
+    policy_status   varchar(255),
+    management_code varchar(255),
+    qual_plan_type  varchar(255)
+);
+
+CREATE TABLE public."POLICY_PAYOUT" (
+    id        bigint PRIMARY KEY,
+    policy_id bigint
+);
+
+CREATE TABLE public."PAYOUT_PAYEE" (
+    id                 bigint PRIMARY KEY,
+    policy_payout_id   bigint,
+    payee_party_number varchar(15)
+);
+
+CREATE TABLE public."PAYOUT_PAYMENT_HISTORY" (
+    id                 bigint PRIMARY KEY,
+    payout_payee_id    bigint,
+    payee_party_number varchar(15),
+    gross_amt          numeric(17, 2),
+    reversed           boolean,
+    trans_exe_date     timestamp,
+    payout_due_date    timestamp,
+    update_timestamp   timestamp NOT NULL DEFAULT now()
+);
+
+CREATE TABLE public."PAYOUT_PAYMENT_HISTORY_DEDUCTION" (
+    id                        bigserial PRIMARY KEY,
+    payout_payment_history_id bigint,
+    fee_type                  varchar(255),
+    fee_amt                   numeric(17, 2),
+    update_timestamp          timestamp NOT NULL DEFAULT now()
+);
+
+CREATE TABLE public."PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" (
+    id                        bigserial PRIMARY KEY,
+    payout_payment_history_id bigint,
+    field_adjustment          varchar(255),
+    adjustment_value          numeric(17, 2),
+    update_timestamp          timestamp NOT NULL DEFAULT now()
+);
+
+CREATE TABLE public."TRANSACTION_HISTORY" (
+    id               bigserial PRIMARY KEY,
+    entity_type      varchar(255),
+    request_name     varchar(255),
+    reversed         boolean,
+    gross_amt        numeric(19, 2),
+    trans_eff_date   timestamp,
+    trans_exe_date   timestamp,
+    trans_run_date   timestamp,
+    message_image    text,
+    update_timestamp timestamp DEFAULT now()
+);
@@ -0,0 +1,98 @@
+-- Synthetic dataset of ${rows} TRANSACTION_HISTORY rows over ${policies} policies and ${parties}
+-- payee parties, all in 2024: 50% periodic payouts, 10% overdue payments, 5% death claims and
+-- the rest other requests, each with about 3 KB of message_image. Every policy has one payee
+-- with ${payments} PAYOUT_PAYMENT_HISTORY rows in total, each with federal and state fees.
+INSERT INTO public."POLICY" (id, pol_number, product_code, policy_status, management_code, qual_plan_type)
+SELECT p,
+       'FP' || lpad(p::text, 8, '0'),
+       'PRD' || (p % 8),
+       CASE WHEN p % 50 = 0 THEN 'R' WHEN p % 50 = 1 THEN '13' ELSE (1 + p % 12)::text END,
+       'MC' || (p % 10),
+       (1 + p % 40)::text
+FROM generate_series(1, ${policies}) AS p;
+
+INSERT INTO public."POLICY_PAYOUT" (id, policy_id)
+SELECT p, p FROM generate_series(1, ${policies}) AS p;
+
+INSERT INTO public."PAYOUT_PAYEE" (id, policy_payout_id, payee_party_number)
+SELECT p, p, (100000 + p % ${parties})::text FROM generate_series(1, ${policies}) AS p;
+
+INSERT INTO public."PAYOUT_PAYMENT_HISTORY"
+    (id, payout_payee_id, payee_party_number, gross_amt, reversed, trans_exe_date, payout_due_date)
+SELECT g, p, (100000 + p % ${parties})::text, round((random() * 5000)::numeric, 2), g % 40 = 0, d, d
+FROM generate_series(1, ${payments}) AS g,
+     LATERAL (SELECT 1 + g % ${policies} AS p,
+                     timestamp '2024-01-01' + (g % 360) * interval '1 day' + (g % 86400) * interval '1 second' AS d) AS x;
+
+INSERT INTO public."PAYOUT_PAYMENT_HISTORY_DEDUCTION" (payout_payment_history_id, fee_type, fee_amt)
+SELECT g, fee_type, round((random() * 500)::numeric, 2)
+FROM generate_series(1, ${payments}) AS g
+CROSS JOIN (VALUES ('20'), ('21')) AS t(fee_type);
+
+INSERT INTO public."PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" (payout_payment_history_id, field_adjustment, adjustment_value)
+SELECT g, CASE WHEN g % 20 = 0 THEN '3' ELSE '2' END, round((random() * 100)::numeric, 2)
+FROM generate_series(10, ${payments}, 10) AS g;
+
+INSERT INTO public."TRANSACTION_HISTORY"
+    (entity_type, request_name, reversed, gross_amt, trans_eff_date, trans_exe_date, trans_run_date, message_image)
+SELECT 'Policy', request_name, g % 50 = 0, round((random() * 5000)::numeric, 2), d, d, d + interval '1 day',
+       (CASE request_name
+            WHEN 'PeriodicPayout' THEN json_build_object(
+                'polNumber', pol_number, 'transExeDate', to_char(d, 'YYYY-MM-DD'),
+                'transRunDate', to_char(d + interval '1 day', 'YYYY-MM-DD'), 'transEffDate', to_char(d, 'YYYY-MM-DD'),
+                'suspendCode', (g % 3)::text,
+                'payeePayouts', json_build_array(json_build_object(
+                    'taxablePartyNumber', party_number, 'taxableToGovtID', lpad((g % 1000000000)::text, 9, '0'),
+                    'taxablePartyName', 'Payee ' || party_number, 'taxableToGovtIDStat', (1 + g % 3)::text,
+                    'taxableToGovtIdTC', (1 + g % 3)::text, 'taxableToResidenceState', (1 + g % 60)::text,
+                    'taxableToResidenceCountry', '1', 'payeeStatus', (1 + g % 3)::text,
+                    'grossAmt', round((random() * 5000)::numeric, 2))),
+                'policyValues', padding)
+            WHEN 'OverduePayment' THEN json_build_object(
+                'polNumber', pol_number, 'transExeDate', to_char(d, 'YYYY-MM-DD'), 'suspendCode', (g % 3)::text,
+                'adjustments', json_build_object('arrDestinations', json_build_array(json_build_object(
+                    'payee', json_build_object('partyTypeCode', (1 + g % 2)::text),
+                    'payeeInfo', json_build_object(
+                        'taxablePartyNumber', party_number, 'taxableToGovtID', lpad((g % 1000000000)::text, 9, '0'),
+                        'taxableToGovtIdTC', (1 + g % 3)::text, 'taxableToGovtIDStat', (1 + g % 3)::text,
+                        'taxablePartyName', 'Payee ' || party_number, 'taxableToResidenceState', (1 + g % 60)::text,
+                        'taxableToResidenceCountry', '1', 'payeeStatus', (1 + g % 3)::text),
+                    'payeeWithholdings', json_build_object(
+                        'federalWithholdingAmt', round((random() * 2000)::numeric, 2),
+                        'stateWithholdingAmt', round((random() * 800)::numeric, 2))))),
+                'policyValues', padding)
+            WHEN 'PayoutDeathClaim' THEN json_build_object(
+                'polNumber', pol_number,
+                'arrangement', json_build_object('arrDestination', json_build_array(json_build_object(
+                    'taxableParty', json_build_object(
+                        'person', json_build_object('firstName', 'First' || (g % 1000), 'lastName', 'Last' || (g % 997)),
+                        'residenceState', (1 + g % 60)::text, 'govtID', lpad((g % 1000000000)::text, 9, '0'),
+                        'govtIdTC', (1 + g % 3)::text, 'partyNumber', party_number),
+                    'settlementInterestAmt', round((random() * 300)::numeric, 2),
+                    'lateInterestAmt', round((random() * 100)::numeric, 2),
+                    'deathBenefitPayoutAmt', round((random() * 250000)::numeric, 2),
+                    'payeeWithholding', json_build_object(
+                        'federalWithholdingAmt', round((random() * 2000)::numeric, 2),
+                        'stateWithholdingAmt', round((random() * 800)::numeric, 2))))),
+                'policyValues', padding)
+            ELSE json_build_object('polNumber', pol_number, 'policyValues', padding)
+        END)::text
+FROM generate_series(1, ${rows}) AS g,
+     LATERAL (SELECT CASE WHEN g % 20 < 10 THEN 'PeriodicPayout'
+                          WHEN g % 20 < 12 THEN 'OverduePayment'
+                          WHEN g % 20 = 12 THEN 'PayoutDeathClaim'
+                          ELSE 'PolicyChange' END AS request_name,
+                     'FP' || lpad((1 + g % ${policies})::text, 8, '0') AS pol_number,
+                     (100000 + (1 + g % ${policies}) % ${parties})::text AS party_number,
+                     timestamp '2024-01-01' + (g % 360) * interval '1 day' + (g % 86400) * interval '1 second' AS d,
+                     repeat('padding ', 375) AS padding) AS x;
+
+-- Join columns of the payout tables
+CREATE INDEX ON public."POLICY" (pol_number);
+CREATE INDEX ON public."POLICY_PAYOUT" (policy_id);
+CREATE INDEX ON public."PAYOUT_PAYEE" (policy_payout_id);
+CREATE INDEX ON public."PAYOUT_PAYMENT_HISTORY" (payout_payee_id);
+CREATE INDEX ON public."PAYOUT_PAYMENT_HISTORY_DEDUCTION" (payout_payment_history_id);
+CREATE INDEX ON public."PAYOUT_PAYMENT_HISTORY_ADJUSTMENT" (payout_payment_history_id);
+
+ANALYZE;
@@ -1,12 +1,15 @@
 package com.eqh.party.controller;
 
+import com.eqh.party.dto.PartyProfile;
 import com.eqh.party.entity.Address;
 import com.eqh.party.entity.EmailAddress;
 import com.eqh.party.entity.Party;
 import com.eqh.party.entity.Person;
 import com.eqh.party.service.PartyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -14,6 +17,8 @@ import java.util.List;
 @RequestMapping("/api/party")
 public class partyController {
 
+    private static final int MAX_BULK_PARTY_NUMBERS = 1000;
+
     private final PartyService partyService;
 
     @Autowired
@@ -41,6 +46,20 @@ public class partyController {
         return partyService.getPersonDetailsByPartyNumber(partyNumber);
     }
 
+    @GetMapping("/{partyNumber}/profile")
+    public PartyProfile getPartyProfile(@PathVariable("partyNumber") String partyNumber) {
+        return partyService.getPartyProfileByPartyNumber(partyNumber);
+    }
+
+    @PostMapping("/bulk")
+    public List<PartyProfile> getPartyProfiles(@RequestBody List<String> partyNumbers) {
+        if (partyNumbers.size() > MAX_BULK_PARTY_NUMBERS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BULK_PARTY_NUMBERS + " party numbers per request");
+        }
+        return partyService.getPartyProfilesByPartyNumbers(partyNumbers);
+    }
+
 
 
 }
@@ -0,0 +1,27 @@
+package com.eqh.party.dto;
+
+import com.eqh.party.entity.Address;
+import com.eqh.party.entity.Party;
+import com.eqh.party.entity.Person;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Party, person and addresses of one party number, as returned by the bulk lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartyProfile {
+
+    private String partyNumber;
+
+    private Party party;
+
+    private Person person;
+
+    private List<Address> addresses;
+}
@@ -1,5 +1,6 @@
 package com.eqh.party.service;
 
+import com.eqh.party.dto.PartyProfile;
 import com.eqh.party.entity.Address;
 import com.eqh.party.entity.EmailAddress;
 import com.eqh.party.entity.Party;
@@ -13,12 +14,22 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PartyService {
 
+    // Column offsets of party, person and address in PartyRepository.findProfileByPartyNumber
+    private static final int PROFILE_PARTY_OFFSET = 0;
+    private static final int PROFILE_PERSON_OFFSET = 23;
+    private static final int PROFILE_ADDRESS_OFFSET = 66;
+
     private final PartyRepository partyRepository;
 
     @Autowired
@@ -47,59 +58,7 @@ public class PartyService {
                 // Check if the object is of type Person
                 if (personObject instanceof Object[]) {
                     Object[] result = (Object[]) personObject;
-                    Person person = new Person();
-
-                    // Map values from the result array to the Person entity
-                    person.setId(((Number) result[0]).longValue());
-                    person.setAlternateTaxId((String) result[1]);
-                    person.setAlternateTaxIdTypeCode((String) result[2]);
-                    person.setBirthCountryTC((String) result[3]);
-                    person.setBirthDate((LocalDate) convertSqlDateToLocalDate(result[4]));
-                    person.setBirthJurisdiction((String) result[5]);
-                    person.setCauseOfDeath((String) result[6]);
-                    person.setCitizenship((String) result[7]);
-                    person.setDateOfArrival((LocalDate) convertSqlDateToLocalDate(result[8]));
-                    person.setDateOfDeath((LocalDate) convertSqlDateToLocalDate(result[9]));
-                    person.setDisabilityInd((Boolean) result[10]);
-                    person.setDriversLicenseNum((String) result[11]);
-                    person.setDriversLicenseState((String) result[12]);
-                    person.setFirstName((String) result[13]);
-                    person.setGender((String) result[14]);
-                    person.setHeightMeasureUnits((String) result[15]);
-                    person.setHeightMeasureValue((Double) result[16]);
-                    person.setImmigrationStatus((String) result[17]);
-                    person.setLastName((String) result[18]);
-                    person.setLegalNameInd((Boolean) result[19]);
-                    person.setLifeStatus((String) result[20]);
-                    person.setMarStat((String) result[21]);
-                    person.setMiddleName((String) result[22]);
-                    person.setOccupation((String) result[23]);
-                    person.setPrefix((String) result[24]);
-                    person.setProofOfDeathReceivedDate((LocalDate) convertSqlDateToLocalDate(result[25]));
-                    person.setProofOfDeathRequestedDate((LocalDate) convertSqlDateToLocalDate(result[26]));
-                    person.setRestrictionInd((Boolean) result[27]);
-                    person.setRestrictionReason((String) result[28]);
-                    person.setSmokerStat((String) result[29]);
-                    person.setStatusChangeDate((LocalDate) convertSqlDateToLocalDate(result[30]));
-                    person.setSuffix((String) result[31]);
-                    person.setUsCitizenInd((Boolean) result[32]);
-                    person.setWeightMeasureUnits((String) result[33]);
-                    person.setWeightMeasureValue((Double) result[34]);
-                    person.setPartyId(((Number) result[35]).longValue());
-                    person.setGreencardNumber((String) result[36]);
-                    person.setVisaNumber((String) result[37]);
-                    person.setPassportNumber((String) result[38]);
-                    person.setPassportExpiryDate((LocalDate) convertSqlDateToLocalDate(result[39]));
-                    person.setPassportIssueCountry((String) result[40]);
-                    person.setCountryOfResidenship((String) result[41]);
-                    //person.setUpdateTimestamp((LocalDateTime) result[42]);
-
-                    Timestamp updateTimestampSql = (Timestamp) result[42];
-                    LocalDateTime updateTimestamp = updateTimestampSql != null ? updateTimestampSql.toLocalDateTime() : null;
-                    person.setUpdateTimestamp(updateTimestamp);
-
-
-                    return person; // Return the populated Person entity
+                    return mapPerson(result, 0); // Return the populated Person entity
                 }
             }
         }
@@ -169,54 +128,207 @@ public class PartyService {
 
             List<Address> addresses = new ArrayList<>();
             for (Object[] result : results) {
-                Address address = new Address();
-                address.setId(((Number) result[0]).longValue());
-                address.setAddressBarCodeInd((Boolean) result[1]);
-                address.setAddressCountrytc((String) result[2]);
-                address.setAddressCountytc((String) result[3]);
-                address.setAddressFormattc((String) result[4]);
-                address.setAddressStatetc((String) result[5]);
-                address.setAddressTypeCode((String) result[6]);
-
-                Date addressValidationDateSql = (Date) result[7];
-                LocalDate addressValidationDate = addressValidationDateSql != null ? addressValidationDateSql.toLocalDate() : null;
-                address.setAddressValidationDate(addressValidationDate);
-
-                address.setAddressValidInd((Boolean) result[8]);
-                address.setAttentionLine((String) result[9]);
-                address.setCity((String) result[10]);
-
-                Date endDateSql = (Date) result[11];
-                LocalDate endDate = endDateSql != null ? endDateSql.toLocalDate() : null;
-                address.setEndDate(endDate);
-
-                address.setForeignAddressInd((Boolean) result[12]);
-                address.setLanguage((String) result[13]);
-                address.setLegalAddressInd((Boolean) result[14]);
-                address.setLine1((String) result[15]);
-                address.setLine2((String) result[16]);
-                address.setLine3((String) result[17]);
-                address.setLine4((String) result[18]);
-                address.setLine5((String) result[19]);
-                address.setPostalDropCode((String) result[20]);
-                address.setPrefAddr((Boolean) result[21]);
-                address.setPreventOverrideInd((Boolean) result[22]);
-                address.setRecurringEndMoDay((String) result[23]);
-                address.setRecurringStartMoDay((String) result[24]);
-                address.setReturnedMailInd((Boolean) result[25]);
-                address.setReturnedMailReason((String) result[26]);
-                address.setReturnedMailStartDate((Date) result[27] != null ? ((Date) result[27]).toLocalDate() : null);
-                address.setStartDate((Date) result[28] != null ? ((Date) result[28]).toLocalDate() : null);
-                address.setZip((String) result[29]);
-                address.setAddressStateOthers((String) result[30]);
-                address.setPartyId(((Number) result[31]).longValue());
-                address.setUpdateTimestamp((Timestamp) result[32] != null ? ((Timestamp) result[32]).toLocalDateTime() : null);
-
-                addresses.add(address);
+                addresses.add(mapAddress(result, 0));
             }
             return addresses;
         } else {
             return List.of();
         }
     }
+
+    /**
+     * Looks up party, person and addresses of one party with a single joined query.
+     *
+     * @param partyNumber the party number to look up.
+     * @return the profile, or null if there is no such party.
+     */
+    public PartyProfile getPartyProfileByPartyNumber(String partyNumber) {
+        List<Object[]> results = partyRepository.findProfileByPartyNumber(partyNumber);
+        if (results.isEmpty()) {
+            return null;
+        }
+
+        Object[] first = results.get(0);
+        Party party = mapParty(first, PROFILE_PARTY_OFFSET);
+        Person person = first[PROFILE_PERSON_OFFSET] != null ? mapPerson(first, PROFILE_PERSON_OFFSET) : null;
+
+        // One row per address; further persons of the same party repeat the addresses
+        List<Address> addresses = new ArrayList<>();
+        Set<Long> addressIds = new HashSet<>();
+        for (Object[] result : results) {
+            Object addressId = result[PROFILE_ADDRESS_OFFSET];
+            if (addressId != null && addressIds.add(((Number) addressId).longValue())) {
+                addresses.add(mapAddress(result, PROFILE_ADDRESS_OFFSET));
+            }
+        }
+        return new PartyProfile(party.getPartyNumber(), party, person, addresses);
+    }
+
+    /**
+     * Looks up party, person and addresses of many parties with three IN-list queries.
+     * Party numbers without a party are left out of the result.
+     *
+     * @param partyNumbers the party numbers to look up.
+     * @return one profile per party found.
+     */
+    public List<PartyProfile> getPartyProfilesByPartyNumbers(Collection<String> partyNumbers) {
+        if (partyNumbers == null || partyNumbers.isEmpty()) {
+            return List.of();
+        }
+        List<Party> parties = partyRepository.findByPartyNumbers(partyNumbers);
+        if (parties.isEmpty()) {
+            return List.of();
+        }
+        List<Long> partyIds = parties.stream().map(Party::getId).toList();
+
+        Map<Long, Person> personsByPartyId = new HashMap<>();
+        for (Object[] result : partyRepository.findPersonsByPartyIds(partyIds)) {
+            Person person = mapPerson(result, 0);
+            personsByPartyId.putIfAbsent(person.getPartyId(), person);
+        }
+
+        Map<Long, List<Address>> addressesByPartyId = new HashMap<>();
+        for (Object[] result : partyRepository.findAddressesByPartyIds(partyIds)) {
+            Address address = mapAddress(result, 0);
+            addressesByPartyId.computeIfAbsent(address.getPartyId(), id -> new ArrayList<>()).add(address);
+        }
+
+        List<PartyProfile> profiles = new ArrayList<>(parties.size());
+        for (Party party : parties) {
+            profiles.add(new PartyProfile(
+                    party.getPartyNumber(),
+                    party,
+                    personsByPartyId.get(party.getId()),
+                    addressesByPartyId.getOrDefault(party.getId(), List.of())));
+        }
+        return profiles;
+    }
+
+    private Party mapParty(Object[] result, int offset) {
+        Party party = new Party();
+        party.setId(((Number) result[offset]).longValue());
+        party.setCurrencyTypeCode((String) result[offset + 1]);
+        party.setEffDate((java.util.Date) result[offset + 2]);
+        party.setFatcaReportableStatus((String) result[offset + 3]);
+        party.setFitbitAuthInd((Boolean) result[offset + 4]);
+        party.setGovtId((String) result[offset + 5]);
+        party.setGovtIdStat((String) result[offset + 6]);
+        party.setGovtIdtc((String) result[offset + 7]);
+        party.setHoCreateDate((java.util.Date) result[offset + 8]);
+        party.setHoExpiryDate((java.util.Date) result[offset + 9]);
+        party.setHumanApiAuthInd((Boolean) result[offset + 10]);
+        party.setPartyNumber((String) result[offset + 11]);
+        party.setPartyTypeCode((String) result[offset + 12]);
+        party.setPrefComm((String) result[offset + 13]);
+        party.setResidenceCountry((String) result[offset + 14]);
+        party.setResidenceCounty((String) result[offset + 15]);
+        party.setResidenceState((String) result[offset + 16]);
+        party.setResidenceTaxLocality((String) result[offset + 17]);
+        party.setUserId((String) result[offset + 18]);
+        party.setFraudLockInd((Boolean) result[offset + 19]);
+        party.setFraudAlertInd((Boolean) result[offset + 20]);
+        party.setFraudStatus((String) result[offset + 21]);
+        party.setUpdateTimestamp((java.util.Date) result[offset + 22]);
+        return party;
+    }
+
+    private Person mapPerson(Object[] result, int offset) {
+        Person person = new Person();
+
+        // Map values from the result array to the Person entity
+        person.setId(((Number) result[offset]).longValue());
+        person.setAlternateTaxId((String) result[offset + 1]);
+        person.setAlternateTaxIdTypeCode((String) result[offset + 2]);
+        person.setBirthCountryTC((String) result[offset + 3]);
+        person.setBirthDate((LocalDate) convertSqlDateToLocalDate(result[offset + 4]));
+        person.setBirthJurisdiction((String) result[offset + 5]);
+        person.setCauseOfDeath((String) result[offset + 6]);
+        person.setCitizenship((String) result[offset + 7]);
+        person.setDateOfArrival((LocalDate) convertSqlDateToLocalDate(result[offset + 8]));
+        person.setDateOfDeath((LocalDate) convertSqlDateToLocalDate(result[offset + 9]));
+        person.setDisabilityInd((Boolean) result[offset + 10]);
+        person.setDriversLicenseNum((String) result[offset + 11]);
+        person.setDriversLicenseState((String) result[offset + 12]);
+        person.setFirstName((String) result[offset + 13]);
+        person.setGender((String) result[offset + 14]);
+        person.setHeightMeasureUnits((String) result[offset + 15]);
+        person.setHeightMeasureValue((Double) result[offset + 16]);
+        person.setImmigrationStatus((String) result[offset + 17]);
+        person.setLastName((String) result[offset + 18]);
+        person.setLegalNameInd((Boolean) result[offset + 19]);
+        person.setLifeStatus((String) result[offset + 20]);
+        person.setMarStat((String) result[offset + 21]);
+        person.setMiddleName((String) result[offset + 22]);
+        person.setOccupation((String) result[offset + 23]);
+        person.setPrefix((String) result[offset + 24]);
+        person.setProofOfDeathReceivedDate((LocalDate) convertSqlDateToLocalDate(result[offset + 25]));
+        person.setProofOfDeathRequestedDate((LocalDate) convertSqlDateToLocalDate(result[offset + 26]));
+        person.setRestrictionInd((Boolean) result[offset + 27]);
+        person.setRestrictionReason((String) result[offset + 28]);
+        person.setSmokerStat((String) result[offset + 29]);
+        person.setStatusChangeDate((LocalDate) convertSqlDateToLocalDate(result[offset + 30]));
+        person.setSuffix((String) result[offset + 31]);
+        person.setUsCitizenInd((Boolean) result[offset + 32]);
+        person.setWeightMeasureUnits((String) result[offset + 33]);
+        person.setWeightMeasureValue((Double) result[offset + 34]);
+        person.setPartyId(((Number) result[offset + 35]).longValue());
+        person.setGreencardNumber((String) result[offset + 36]);
+        person.setVisaNumber((String) result[offset + 37]);
+        person.setPassportNumber((String) result[offset + 38]);
+        person.setPassportExpiryDate((LocalDate) convertSqlDateToLocalDate(result[offset + 39]));
+        person.setPassportIssueCountry((String) result[offset + 40]);
+        person.setCountryOfResidenship((String) result[offset + 41]);
+        //person.setUpdateTimestamp((LocalDateTime) result[offset + 42]);
+
+        Timestamp updateTimestampSql = (Timestamp) result[offset + 42];
+        LocalDateTime updateTimestamp = updateTimestampSql != null ? updateTimestampSql.toLocalDateTime() : null;
+        person.setUpdateTimestamp(updateTimestamp);
+        return person;
+    }
+
+    private Address mapAddress(Object[] result, int offset) {
+        Address address = new Address();
+        address.setId(((Number) result[offset]).longValue());
+        address.setAddressBarCodeInd((Boolean) result[offset + 1]);
+        address.setAddressCountrytc((String) result[offset + 2]);
+        address.setAddressCountytc((String) result[offset + 3]);
+        address.setAddressFormattc((String) result[offset + 4]);
+        address.setAddressStatetc((String) result[offset + 5]);
+        address.setAddressTypeCode((String) result[offset + 6]);
+
+        Date addressValidationDateSql = (Date) result[offset + 7];
+        LocalDate addressValidationDate = addressValidationDateSql != null ? addressValidationDateSql.toLocalDate() : null;
+        address.setAddressValidationDate(addressValidationDate);
+
+        address.setAddressValidInd((Boolean) result[offset + 8]);
+        address.setAttentionLine((String) result[offset + 9]);
+        address.setCity((String) result[offset + 10]);
+
+        Date endDateSql = (Date) result[offset + 11];
+        LocalDate endDate = endDateSql != null ? endDateSql.toLocalDate() : null;
+        address.setEndDate(endDate);
+
+        address.setForeignAddressInd((Boolean) result[offset + 12]);
+        address.setLanguage((String) result[offset + 13]);
+        address.setLegalAddressInd((Boolean) result[offset + 14]);
+        address.setLine1((String) result[offset + 15]);
+        address.setLine2((String) result[offset + 16]);
+        address.setLine3((String) result[offset + 17]);
+        address.setLine4((String) result[offset + 18]);
+        address.setLine5((String) result[offset + 19]);
+        address.setPostalDropCode((String) result[offset + 20]);
+        address.setPrefAddr((Boolean) result[offset + 21]);
+        address.setPreventOverrideInd((Boolean) result[offset + 22]);
+        address.setRecurringEndMoDay((String) result[offset + 23]);
+        address.setRecurringStartMoDay((String) result[offset + 24]);
+        address.setReturnedMailInd((Boolean) result[offset + 25]);
+        address.setReturnedMailReason((String) result[offset + 26]);
+        address.setReturnedMailStartDate((Date) result[offset + 27] != null ? ((Date) result[offset + 27]).toLocalDate() : null);
+        address.setStartDate((Date) result[offset + 28] != null ? ((Date) result[offset + 28]).toLocalDate() : null);
+        address.setZip((String) result[offset + 29]);
+        address.setAddressStateOthers((String) result[offset + 30]);
+        address.setPartyId(((Number) result[offset + 31]).longValue());
+        address.setUpdateTimestamp((Timestamp) result[offset + 32] != null ? ((Timestamp) result[offset + 32]).toLocalDateTime() : null);
+        return address;
+    }
 }